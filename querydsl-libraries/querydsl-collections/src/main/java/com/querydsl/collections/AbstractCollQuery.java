@@ -170,14 +170,14 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>>
 
   @Override
   public CloseableIterator<T> iterate() {
-    @SuppressWarnings("unchecked") // This is the built type
-    Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
-    return new IteratorAdapter<T>(fetch().iterator());
+    return new IteratorAdapter<T>(stream().iterator());
   }
 
   @Override
   public Stream<T> stream() {
-    return fetch().stream();
+    @SuppressWarnings("unchecked") // This is the built type
+    Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
+    return queryEngine.stream(getMetadata(), iterables, projection);
   }
 
   @Override
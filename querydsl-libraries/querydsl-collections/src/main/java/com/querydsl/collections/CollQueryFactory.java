@@ -37,6 +37,19 @@ public final class CollQueryFactory {
     return new CollDeleteClause<A>(path, col);
   }
 
+  /**
+   * Create a new delete clause
+   *
+   * @param queryEngine query engine
+   * @param path source expression
+   * @param col source collection
+   * @return delete clause
+   */
+  public static <A> CollDeleteClause<A> delete(
+      QueryEngine queryEngine, Path<A> path, Collection<A> col) {
+    return new CollDeleteClause<A>(queryEngine, path, col);
+  }
+
   /**
    * Create a new query
    *
@@ -73,6 +86,30 @@ public final class CollQueryFactory {
     return new CollQuery<Void>().from(path, col).select(path);
   }
 
+  /**
+   * Create a new query
+   *
+   * @param queryEngine query engine
+   * @param path source expression
+   * @param col source collection
+   * @return query
+   */
+  public static <A> CollQuery<A> from(QueryEngine queryEngine, Path<A> path, Iterable<A> col) {
+    return new CollQuery<Void>(queryEngine).from(path, col).select(path);
+  }
+
+  /**
+   * Create a new query which is evaluated in parallel for large sources
+   *
+   * @param path source expression
+   * @param col source collection
+   * @return query
+   * @see DefaultQueryEngine#getParallel()
+   */
+  public static <A> CollQuery<A> parallelFrom(Path<A> path, Iterable<A> col) {
+    return from(DefaultQueryEngine.getParallel(), path, col);
+  }
+
   /**
    * Create a new update clause
    *
@@ -84,5 +121,18 @@ public final class CollQueryFactory {
     return new CollUpdateClause<A>(path, col);
   }
 
+  /**
+   * Create a new update clause
+   *
+   * @param queryEngine query engine
+   * @param path source expression
+   * @param col source collection
+   * @return query
+   */
+  public static <A> CollUpdateClause<A> update(
+      QueryEngine queryEngine, Path<A> path, Iterable<A> col) {
+    return new CollUpdateClause<A>(queryEngine, path, col);
+  }
+
   private CollQueryFactory() {}
 }
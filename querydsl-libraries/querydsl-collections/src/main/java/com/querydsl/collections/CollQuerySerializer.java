@@ -28,6 +28,7 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -66,10 +67,39 @@ public final class CollQuerySerializer extends SerializerBase<CollQuerySerialize
     CAST_SUFFIXES.put(String.class, ".toString()");
   }
 
+  private final Map<String, Object> bindings = new LinkedHashMap<>();
+
   public CollQuerySerializer(CollQueryTemplates templates) {
     super(templates);
   }
 
+  /**
+   * Get the constants and parameters of the serialized expressions by label in the order of their
+   * occurrence
+   *
+   * <p>Each occurrence gets its own label, so that the serialized source only depends on the
+   * structure of the expressions and not on the values of the constants.
+   *
+   * @return constants and parameters by label
+   */
+  public Map<String, Object> getBindings() {
+    return bindings;
+  }
+
+  @Override
+  public void visitConstant(Object constant) {
+    String label = getConstantPrefix() + (bindings.size() + 1);
+    bindings.put(label, constant);
+    getConstants().add(constant);
+    append(label);
+  }
+
+  @Override
+  public Void visit(ParamExpression<?> param, Void context) {
+    visitConstant(param);
+    return null;
+  }
+
   @Override
   public Void visit(Path<?> path, Void context) {
     final PathType pathType = path.getMetadata().getPathType();
@@ -33,10 +33,13 @@ public class CollUpdateClause<T> implements UpdateClause<CollUpdateClause<T>> {
 
   private final Map<Path<?>, Object> paths = new HashMap<Path<?>, Object>();
 
+  private final Iterable<? extends T> col;
+
   private final CollQuery<T> query;
 
   public CollUpdateClause(QueryEngine qe, Path<T> expr, Iterable<? extends T> col) {
     this.query = new CollQuery<Void>(qe).from(expr, col).select(expr);
+    this.col = col;
   }
 
   public CollUpdateClause(Path<T> expr, Iterable<? extends T> col) {
@@ -55,6 +58,9 @@ public class CollUpdateClause<T> implements UpdateClause<CollUpdateClause<T>> {
       }
       rv++;
     }
+    if (rv > 0 && col instanceof IndexedList) {
+      ((IndexedList<?>) col).reindex();
+    }
     return rv;
   }
 
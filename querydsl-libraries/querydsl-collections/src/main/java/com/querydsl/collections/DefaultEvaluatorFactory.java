@@ -13,6 +13,7 @@
  */
 package com.querydsl.collections;
 
+import com.querydsl.codegen.utils.AbstractEvaluatorFactory;
 import com.querydsl.codegen.utils.ECJEvaluatorFactory;
 import com.querydsl.codegen.utils.Evaluator;
 import com.querydsl.codegen.utils.EvaluatorFactory;
@@ -37,7 +38,8 @@ import com.querydsl.core.types.Predicate;
 import com.querydsl.core.util.PrimitiveUtils;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.tools.JavaCompiler;
@@ -88,6 +90,50 @@ public class DefaultEvaluatorFactory {
     }
   }
 
+  /**
+   * Get the amount of evaluator classes compiled by this factory
+   *
+   * @return compilation count or 0, if the underlying factory doesn't provide statistics
+   */
+  public long getCompilationCount() {
+    return factory instanceof AbstractEvaluatorFactory
+        ? ((AbstractEvaluatorFactory) factory).getCompilationCount()
+        : 0;
+  }
+
+  /**
+   * Get the amount of cached evaluator classes
+   *
+   * @return cache size or 0, if the underlying factory doesn't provide statistics
+   */
+  public int getCacheSize() {
+    return factory instanceof AbstractEvaluatorFactory
+        ? ((AbstractEvaluatorFactory) factory).getCacheSize()
+        : 0;
+  }
+
+  /**
+   * Get the histogram of the compile times of the evaluator classes
+   *
+   * @return compile time histogram or an empty map, if the underlying factory doesn't provide
+   *     statistics
+   * @see AbstractEvaluatorFactory#getCompileTimeHistogram()
+   */
+  public Map<Long, Long> getCompileTimeHistogram() {
+    return factory instanceof AbstractEvaluatorFactory
+        ? ((AbstractEvaluatorFactory) factory).getCompileTimeHistogram()
+        : Collections.<Long, Long>emptyMap();
+  }
+
+  /**
+   * Get the templates used for serialization
+   *
+   * @return templates
+   */
+  CollQueryTemplates getTemplates() {
+    return templates;
+  }
+
   /**
    * Create an Evaluator for the given query sources and projection
    *
@@ -112,8 +158,7 @@ public class DefaultEvaluatorFactory {
     }
     serializer.append(";");
 
-    Map<Object, String> constantToLabel = serializer.getConstantToLabel();
-    Map<String, Object> constants = getConstants(metadata, constantToLabel);
+    Map<String, Object> constants = getConstants(metadata, serializer.getBindings());
     Class<?>[] types = new Class<?>[sources.size()];
     String[] names = new String[sources.size()];
     for (int i = 0; i < sources.size(); i++) {
@@ -155,8 +200,7 @@ public class DefaultEvaluatorFactory {
     ser.append("}\n");
     ser.append("return rv;");
 
-    Map<Object, String> constantToLabel = ser.getConstantToLabel();
-    Map<String, Object> constants = getConstants(metadata, constantToLabel);
+    Map<String, Object> constants = getConstants(metadata, ser.getBindings());
 
     Type sourceType = new ClassType(TypeCategory.SIMPLE, source.getType());
     ClassType sourceListType = new ClassType(TypeCategory.SIMPLE, Iterable.class, sourceType);
@@ -269,8 +313,7 @@ public class DefaultEvaluatorFactory {
     }
     ser.append("return rv;");
 
-    Map<Object, String> constantToLabel = ser.getConstantToLabel();
-    Map<String, Object> constants = getConstants(metadata, constantToLabel);
+    Map<String, Object> constants = getConstants(metadata, ser.getBindings());
 
     ClassType projectionType = new ClassType(TypeCategory.LIST, List.class, Types.OBJECTS);
     return factory.createEvaluator(
@@ -282,18 +325,17 @@ public class DefaultEvaluatorFactory {
         constants);
   }
 
-  private Map<String, Object> getConstants(
-      QueryMetadata metadata, Map<Object, String> constantToLabel) {
-    Map<String, Object> constants = new HashMap<String, Object>();
-    for (Map.Entry<Object, String> entry : constantToLabel.entrySet()) {
-      if (entry.getKey() instanceof ParamExpression<?>) {
-        Object value = metadata.getParams().get(entry.getKey());
+  private Map<String, Object> getConstants(QueryMetadata metadata, Map<String, Object> bindings) {
+    Map<String, Object> constants = new LinkedHashMap<String, Object>();
+    for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+      if (entry.getValue() instanceof ParamExpression<?>) {
+        Object value = metadata.getParams().get(entry.getValue());
         if (value == null) {
-          throw new ParamNotSetException((ParamExpression<?>) entry.getKey());
+          throw new ParamNotSetException((ParamExpression<?>) entry.getValue());
         }
-        constants.put(entry.getValue(), value);
+        constants.put(entry.getKey(), value);
       } else {
-        constants.put(entry.getValue(), entry.getKey());
+        constants.put(entry.getKey(), entry.getValue());
       }
     }
     return constants;
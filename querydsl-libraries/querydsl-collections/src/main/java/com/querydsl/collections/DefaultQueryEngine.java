@@ -22,18 +22,22 @@ import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.types.ArrayConstructorExpression;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Operation;
-import com.querydsl.core.types.Operator;
 import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Default implementation of the {@link QueryEngine} interface
@@ -53,10 +57,64 @@ public class DefaultQueryEngine implements QueryEngine {
     return defaultQueryEngine;
   }
 
+  private static transient volatile QueryEngine interpretedQueryEngine;
+
+  /**
+   * Get a shared query engine which interprets the query expressions instead of compiling them
+   *
+   * @return query engine
+   * @see InterpretedEvaluatorFactory
+   */
+  public static QueryEngine getInterpreted() {
+    if (interpretedQueryEngine == null) {
+      interpretedQueryEngine =
+          new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT));
+    }
+    return interpretedQueryEngine;
+  }
+
+  private static transient volatile QueryEngine parallelQueryEngine;
+
+  /**
+   * Get a shared query engine which evaluates queries over large sources in parallel on the common
+   * {@link ForkJoinPool}
+   *
+   * @return query engine
+   */
+  public static QueryEngine getParallel() {
+    if (parallelQueryEngine == null) {
+      parallelQueryEngine =
+          new DefaultQueryEngine(
+              new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT), ForkJoinPool.commonPool());
+    }
+    return parallelQueryEngine;
+  }
+
+  /** minimum amount of rows for parallel evaluation */
+  static final int PARALLEL_THRESHOLD = 8192;
+
   private final DefaultEvaluatorFactory evaluatorFactory;
 
+  @Nullable private final ForkJoinPool pool;
+
   public DefaultQueryEngine(DefaultEvaluatorFactory evaluatorFactory) {
+    this(evaluatorFactory, null);
+  }
+
+  /**
+   * Create a new DefaultQueryEngine instance
+   *
+   * <p>If a pool is given, the filter, order and projection of queries with at least {@value
+   * #PARALLEL_THRESHOLD} rows are evaluated in parallel on the pool. The evaluation order of the
+   * rows is then undefined, but the results are the same as for sequential evaluation. Aggregated
+   * values are evaluated in parallel, but reduced sequentially in row order.
+   *
+   * @param evaluatorFactory evaluator factory
+   * @param pool pool for parallel evaluation or null for sequential evaluation
+   */
+  public DefaultQueryEngine(DefaultEvaluatorFactory evaluatorFactory, @Nullable ForkJoinPool pool) {
     this.evaluatorFactory = evaluatorFactory;
+    this.pool = pool;
   }
 
   @Override
@@ -70,6 +128,9 @@ public class DefaultQueryEngine implements QueryEngine {
 
   @Override
   public boolean exists(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
+    if (hasDefaultJoinsOnly(metadata)) {
+      return rows(metadata, iterables).findAny().isPresent();
+    }
     QueryModifiers modifiers = metadata.getModifiers();
     metadata.setLimit(1L);
     try {
@@ -86,45 +147,174 @@ public class DefaultQueryEngine implements QueryEngine {
   @Override
   public <T> List<T> list(
       QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables, Expression<T> projection) {
-    if (metadata.getJoins().size() == 1) {
+    if (metadata.getModifiers().getLimit() != null && isLazy(metadata)) {
+      return stream(metadata, iterables, projection).collect(Collectors.toList());
+    } else if (metadata.getJoins().size() == 1) {
       return evaluateSingleSource(metadata, iterables, false);
     } else {
       return evaluateMultipleSources(metadata, iterables, false);
     }
   }
 
-  private <T> List<T> distinct(List<T> list) {
-    List<T> rv = new ArrayList<T>(list.size());
-    if (!list.isEmpty() && list.get(0) != null && list.get(0).getClass().isArray()) {
-      Set set = new HashSet(list.size());
-      for (T o : list) {
-        if (set.add(Collections.unmodifiableList(Arrays.asList((Object[]) o)))) {
-          rv.add(o);
-        }
-      }
-      return rv;
+  /**
+   * Evaluate the given query and return the projection as a stream
+   *
+   * <p>Unordered queries over plain sources are evaluated lazily, the rows are filtered, projected
+   * and limited while the stream is consumed. Other queries are evaluated eagerly.
+   *
+   * @param metadata query metadata
+   * @param iterables source contents
+   * @return matching rows
+   */
+  @Override
+  public <T> Stream<T> stream(
+      QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables, Expression<T> projection) {
+    if (isLazy(metadata)) {
+      List<Expression<?>> sources = getSources(metadata);
+      Expression<?> expr = metadata.getProjection();
+      boolean project = expr != null && !(sources.size() == 1 && expr.equals(sources.get(0)));
+      return (Stream<T>) select(metadata, sources, rows(metadata, iterables), project);
     } else {
-      for (T o : list) {
-        if (!rv.contains(o)) {
-          rv.add(o);
-        }
+      return list(metadata, iterables, projection).stream();
+    }
+  }
+
+  private static boolean hasDefaultJoinsOnly(QueryMetadata metadata) {
+    for (JoinExpression join : metadata.getJoins()) {
+      if (join.getType() != JoinType.DEFAULT) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLazy(QueryMetadata metadata) {
+    Expression<?> projection = metadata.getProjection();
+    return metadata.getOrderBy().isEmpty()
+        && hasDefaultJoinsOnly(metadata)
+        && !(projection instanceof Operation
+            && Ops.aggOps.contains(((Operation<?>) projection).getOperator()));
+  }
+
+  private static List<Expression<?>> getSources(QueryMetadata metadata) {
+    List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+    for (JoinExpression join : metadata.getJoins()) {
+      sources.add(join.getTarget());
+    }
+    return sources;
+  }
+
+  /**
+   * Get a lazy stream of the rows of the given query which match the where condition
+   *
+   * <p>The query may only have default joins. For single source queries the stream contains the
+   * source elements, otherwise the rows as arrays.
+   */
+  private Stream<?> rows(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
+    List<Expression<?>> sources = getSources(metadata);
+    Predicate where = metadata.getWhere();
+    if (sources.size() == 1) {
+      Iterable<?> iterable = getCandidates(metadata, sources.get(0), iterables.get(sources.get(0)));
+      Stream<?> rows = StreamSupport.stream(iterable.spliterator(), false);
+      if (where != null) {
+        Evaluator<Boolean> filter = (Evaluator) evaluatorFactory.create(metadata, sources, where);
+        rows = rows.filter(row -> matches(filter, new Object[] {row}));
+      }
+      return rows;
+    }
+    // hash joins are evaluated eagerly, but beat nested loops by far
+    List<Object[]> joined = HashJoin.evaluate(evaluatorFactory, metadata, iterables);
+    if (joined != null) {
+      return joined.stream();
+    }
+    Stream<Object[]> rows = Stream.<Object[]>of(new Object[0]);
+    for (Expression<?> source : sources) {
+      Iterable<?> iterable = iterables.get(source);
+      rows =
+          rows.flatMap(
+              row ->
+                  StreamSupport.stream(iterable.spliterator(), false)
+                      .map(element -> append(row, element)));
+    }
+    if (where != null) {
+      Evaluator<Boolean> filter = (Evaluator) evaluatorFactory.create(metadata, sources, where);
+      rows = rows.filter(row -> matches(filter, row));
+    }
+    return rows;
+  }
+
+  /** Get the elements of the given source which need to be filtered */
+  private Iterable<?> getCandidates(
+      QueryMetadata metadata, Expression<?> source, Iterable<?> iterable) {
+    if (iterable instanceof IndexedList) {
+      List<?> candidates =
+          IndexLookup.getCandidates(
+              (IndexedList<?>) iterable, evaluatorFactory.getTemplates(), metadata, source);
+      if (candidates != null) {
+        return candidates;
+      }
+    }
+    return iterable;
+  }
+
+  private static boolean matches(Evaluator<Boolean> filter, Object[] row) {
+    try {
+      return Boolean.TRUE.equals(filter.evaluate(row));
+    } catch (IllegalArgumentException e) {
+      if (e.getCause() instanceof NullPointerException) {
+        return false;
       }
+      throw e;
     }
+  }
+
+  private static Object[] append(Object[] row, Object element) {
+    Object[] rv = Arrays.copyOf(row, row.length + 1);
+    rv[row.length] = element;
     return rv;
   }
 
+  private static <T> List<T> distinct(List<T> list) {
+    return list.stream().filter(new DistinctFilter()).collect(Collectors.toList());
+  }
+
   private List evaluateMultipleSources(
       QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables, boolean count) {
     // from where
-    Evaluator<List<Object[]>> ev =
-        evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
-    List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
-    for (JoinExpression join : metadata.getJoins()) {
-      if (join.getType() == JoinType.DEFAULT) {
-        iterableList.add(iterables.get(join.getTarget()));
+    List<?> list = HashJoin.evaluate(evaluatorFactory, metadata, iterables);
+    if (list == null) {
+      Evaluator<List<Object[]>> ev =
+          evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
+      List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
+      for (JoinExpression join : metadata.getJoins()) {
+        if (join.getType() == JoinType.DEFAULT) {
+          iterableList.add(iterables.get(join.getTarget()));
+        }
+      }
+      Object[] args = iterableList.toArray();
+      if (args[0] instanceof List && isParallel((List<?>) args[0])) {
+        // split the outermost loop, the chunk results are concatenated in the sequential order
+        List<?> outer = (List<?>) args[0];
+        int chunkSize = Math.max(1, outer.size() / (pool.getParallelism() * 4));
+        list =
+            parallel(
+                () ->
+                    IntStream.range(0, (outer.size() + chunkSize - 1) / chunkSize)
+                        .parallel()
+                        .mapToObj(
+                            i -> {
+                              Object[] chunkArgs = args.clone();
+                              chunkArgs[0] =
+                                  outer.subList(
+                                      i * chunkSize, Math.min(outer.size(), (i + 1) * chunkSize));
+                              return ev.evaluate(chunkArgs);
+                            })
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
+      } else {
+        list = ev.evaluate(args);
       }
     }
-    List<?> list = ev.evaluate(iterableList.toArray());
 
     if (!count && !list.isEmpty()) {
       List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
@@ -138,32 +328,23 @@ public class DefaultQueryEngine implements QueryEngine {
       }
       // ordered
       if (!metadata.getOrderBy().isEmpty()) {
-        order(metadata, sources, list);
-      }
-      // projection
-      list = project(metadata, sources, list);
-      // limit + offset
-      if (metadata.getModifiers().isRestricting()) {
-        list = metadata.getModifiers().subList(list);
-      }
-      if (list.isEmpty()) {
-        return list;
+        list = order(metadata, sources, list);
       }
+      // projection, distinct, limit + offset
+      return collect(metadata, sources, list, true);
+    } else if (metadata.isDistinct()) {
+      return distinct(list);
+    } else {
+      return list;
     }
-
-    // distinct
-    if (metadata.isDistinct()) {
-      list = distinct(list);
-    }
-
-    return list;
   }
 
   private List evaluateSingleSource(
       QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables, boolean count) {
     final Expression<?> source = metadata.getJoins().get(0).getTarget();
     final List<Expression<?>> sources = Collections.<Expression<?>>singletonList(source);
-    final Iterable<?> iterable = iterables.values().iterator().next();
+    final Iterable<?> iterable =
+        getCandidates(metadata, source, iterables.values().iterator().next());
     List<?> list;
     if (iterable instanceof List) {
       list = (List) iterable;
@@ -172,7 +353,17 @@ public class DefaultQueryEngine implements QueryEngine {
     }
 
     // from & where
-    if (metadata.getWhere() != null) {
+    if (metadata.getWhere() != null && isParallel(list)) {
+      Evaluator<Boolean> filter =
+          (Evaluator) evaluatorFactory.create(metadata, sources, metadata.getWhere());
+      List<?> rows = list;
+      list =
+          parallel(
+              () ->
+                  rows.parallelStream()
+                      .filter(row -> matches(filter, new Object[] {row}))
+                      .collect(Collectors.toList()));
+    } else if (metadata.getWhere() != null) {
       Evaluator<List<?>> evaluator =
           (Evaluator) evaluatorFactory.createEvaluator(metadata, source, metadata.getWhere());
       list = evaluator.evaluate(list);
@@ -181,34 +372,20 @@ public class DefaultQueryEngine implements QueryEngine {
     if (!count && !list.isEmpty()) {
       // ordered
       if (!metadata.getOrderBy().isEmpty()) {
-        // clone list
-        if (list == iterable) {
-          list = new ArrayList(list);
-        }
-        order(metadata, sources, list);
+        list = order(metadata, sources, list);
       }
-      // projection
-      if (metadata.getProjection() != null && !metadata.getProjection().equals(source)) {
-        list = project(metadata, sources, list);
-      }
-      // limit + offset
-      if (metadata.getModifiers().isRestricting()) {
-        list = metadata.getModifiers().subList(list);
-      }
-      if (list.isEmpty()) {
-        return list;
-      }
-    }
-
-    // distinct
-    if (metadata.isDistinct()) {
-      list = distinct(list);
+      // projection, distinct, limit + offset
+      boolean project =
+          metadata.getProjection() != null && !metadata.getProjection().equals(source);
+      return collect(metadata, sources, list, project);
+    } else if (metadata.isDistinct()) {
+      return distinct(list);
+    } else {
+      return list;
     }
-
-    return list;
   }
 
-  private void order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
+  private List<?> order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
     // create a projection for the order
     List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
     Expression<Object>[] orderByExpr = new Expression[orderBy.size()];
@@ -221,26 +398,77 @@ public class DefaultQueryEngine implements QueryEngine {
     }
     Expression<?> expr = new ArrayConstructorExpression<Object>(Object[].class, orderByExpr);
     Evaluator orderEvaluator = evaluatorFactory.create(metadata, sources, expr);
-    list.sort(new MultiComparator(orderEvaluator, directions, nullsLast));
+    MultiComparator<?> comparator = new MultiComparator(orderEvaluator, directions, nullsLast);
+    EvaluatorFunction<Object, Object[]> keys = new EvaluatorFunction(orderEvaluator);
+    // only the first offset + limit elements are needed for restricted non-distinct queries
+    QueryModifiers modifiers = metadata.getModifiers();
+    long offset = modifiers.getOffsetAsInteger() != null ? modifiers.getOffsetAsInteger() : 0;
+    Integer limit = modifiers.getLimitAsInteger();
+    if (limit != null && !metadata.isDistinct() && offset + limit <= list.size() / 2) {
+      return Sorting.top((List<Object>) list, keys, comparator, (int) (offset + limit));
+    } else if (isParallel(list)) {
+      return parallel(() -> Sorting.sort((List<Object>) list, keys, comparator, true));
+    } else {
+      return Sorting.sort((List<Object>) list, keys, comparator, false);
+    }
   }
 
-  private List<?> project(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
-    Expression<?> projection = metadata.getProjection();
-    Operator aggregator = null;
-    if (projection instanceof Operation
-        && Ops.aggOps.contains(((Operation) projection).getOperator())) {
-      Operation<?> aggregation = (Operation<?>) projection;
-      aggregator = aggregation.getOperator();
-      projection = aggregation.getArg(0);
-    }
-    Evaluator projectionEvaluator = evaluatorFactory.create(metadata, sources, projection);
-    EvaluatorFunction<Object, Object> transformer = new EvaluatorFunction(projectionEvaluator);
-    List target = list.stream().map(transformer).collect(Collectors.toList());
-    if (aggregator != null) {
-      return Collections.singletonList(
-          CollQueryFunctions.aggregate(target, projection, aggregator));
+  private boolean isParallel(List<?> list) {
+    return pool != null && list.size() >= PARALLEL_THRESHOLD;
+  }
+
+  private <T> T parallel(Callable<T> task) {
+    return pool.submit(task).join();
+  }
+
+  private List<?> collect(
+      QueryMetadata metadata, List<Expression<?>> sources, List<?> list, boolean project) {
+    if (isParallel(list)) {
+      return parallel(
+          () ->
+              select(metadata, sources, list.parallelStream(), project)
+                  .collect(Collectors.toList()));
     } else {
-      return target;
+      return select(metadata, sources, list.stream(), project).collect(Collectors.toList());
+    }
+  }
+
+  private Stream<?> select(
+      QueryMetadata metadata, List<Expression<?>> sources, Stream<?> rows, boolean project) {
+    boolean parallel = rows.isParallel();
+    if (project) {
+      Expression<?> projection = metadata.getProjection();
+      if (projection instanceof Operation
+          && Ops.aggOps.contains(((Operation) projection).getOperator())) {
+        Operation<?> aggregation = (Operation<?>) projection;
+        Expression<?> arg = aggregation.getArg(0);
+        Evaluator argEvaluator = evaluatorFactory.create(metadata, sources, arg);
+        EvaluatorFunction<Object, Object> transformer = new EvaluatorFunction(argEvaluator);
+        List target = rows.map(transformer).collect(Collectors.toList());
+        rows =
+            Collections.singletonList(
+                CollQueryFunctions.aggregate(target, arg, aggregation.getOperator()))
+                .stream();
+      } else {
+        Evaluator projectionEvaluator = evaluatorFactory.create(metadata, sources, projection);
+        rows = rows.map(new EvaluatorFunction(projectionEvaluator));
+      }
+    }
+    // distinct rows are filtered lazily, so that the limit can stop the evaluation early
+    if (metadata.isDistinct()) {
+      if (parallel) {
+        // the distinct filter is stateful and needs to be applied sequentially
+        rows = rows.collect(Collectors.toList()).stream();
+      }
+      rows = rows.filter(new DistinctFilter());
+    }
+    QueryModifiers modifiers = metadata.getModifiers();
+    if (modifiers.getOffset() != null) {
+      rows = rows.skip(modifiers.getOffset());
+    }
+    if (modifiers.getLimit() != null) {
+      rows = rows.limit(modifiers.getLimit());
     }
+    return rows;
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * {@code DistinctFilter} is a stateful predicate which accepts only the first occurrence of each
+ * row
+ *
+ * <p>Rows are kept in an open addressing hash table, so filtering a sequence of rows takes linear
+ * time and preserves the order of the first occurrences. {@code Object[]} rows are compared by
+ * their elements without being wrapped, all other rows by {@link Object#equals(Object)}. Since the
+ * filter is a plain {@link Predicate} it can be used on streams which short-circuit, for example
+ * via {@link java.util.stream.Stream#limit(long)}.
+ */
+final class DistinctFilter implements Predicate<Object> {
+
+  private static final Object NULL = new Object();
+
+  private Object[] table = new Object[16];
+
+  private int size;
+
+  @Override
+  public boolean test(Object row) {
+    Object value = row != null ? row : NULL;
+    int mask = table.length - 1;
+    int i = spread(hash(value)) & mask;
+    while (table[i] != null) {
+      if (equal(table[i], value)) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    table[i] = value;
+    if (++size > table.length / 2) {
+      resize();
+    }
+    return true;
+  }
+
+  private void resize() {
+    Object[] old = table;
+    table = new Object[old.length * 2];
+    int mask = table.length - 1;
+    for (Object value : old) {
+      if (value != null) {
+        int i = spread(hash(value)) & mask;
+        while (table[i] != null) {
+          i = (i + 1) & mask;
+        }
+        table[i] = value;
+      }
+    }
+  }
+
+  private static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int hash(Object value) {
+    if (value instanceof Object[]) {
+      return Arrays.hashCode((Object[]) value);
+    } else {
+      return value.hashCode();
+    }
+  }
+
+  private static boolean equal(Object v1, Object v2) {
+    if (v1 instanceof Object[]) {
+      return v2 instanceof Object[] && Arrays.equals((Object[]) v1, (Object[]) v2);
+    } else {
+      return v1.equals(v2);
+    }
+  }
+}
@@ -33,7 +33,7 @@ public class EvaluatorFunction<S, T> implements Function<S, T> {
 
   @Override
   public T apply(S input) {
-    if (input.getClass().isArray()) {
+    if (input instanceof Object[]) {
       return ev.evaluate((Object[]) input);
     } else {
       return ev.evaluate(input);
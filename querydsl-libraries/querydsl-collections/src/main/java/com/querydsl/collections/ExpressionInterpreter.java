@@ -0,0 +1,745 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.core.util.PrimitiveUtils;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ExpressionInterpreter} converts expressions into trees of closures which are evaluated
+ * against an array of source values
+ *
+ * <p>The closures follow the semantics of the Java code rendered for {@link
+ * CollQueryTemplates#DEFAULT}. Expressions which can't be interpreted, such as template
+ * expressions, sub queries or operations whose template has been customized, cause an {@link
+ * UnsupportedExpressionException}.
+ */
+final class ExpressionInterpreter {
+
+  /** Closure which evaluates an expression for a row of source values */
+  @FunctionalInterface
+  interface Node {
+
+    Object eval(Object[] row);
+  }
+
+  /** Thrown for expressions which can't be interpreted */
+  static final class UnsupportedExpressionException extends RuntimeException {
+
+    private static final long serialVersionUID = -4327093464711339548L;
+
+    UnsupportedExpressionException(Object expr) {
+      super(String.valueOf(expr));
+    }
+  }
+
+  private static final ClassValue<Map<String, MethodHandle>> GETTERS =
+      new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final Map<Operator, Operator> DATE_OPS = new IdentityHashMap<>();
+
+  static {
+    for (Operator op :
+        new Operator[] {
+          Ops.DateTimeOps.YEAR,
+          Ops.DateTimeOps.MONTH,
+          Ops.DateTimeOps.WEEK,
+          Ops.DateTimeOps.DAY_OF_WEEK,
+          Ops.DateTimeOps.DAY_OF_MONTH,
+          Ops.DateTimeOps.DAY_OF_YEAR,
+          Ops.DateTimeOps.HOUR,
+          Ops.DateTimeOps.MINUTE,
+          Ops.DateTimeOps.SECOND,
+          Ops.DateTimeOps.MILLISECOND,
+          Ops.DateTimeOps.YEAR_MONTH,
+          Ops.DateTimeOps.YEAR_WEEK
+        }) {
+      DATE_OPS.put(op, op);
+    }
+  }
+
+  private final CollQueryTemplates templates;
+
+  private final QueryMetadata metadata;
+
+  private final Map<String, Integer> slots;
+
+  /**
+   * Create a new ExpressionInterpreter instance
+   *
+   * @param templates templates of the evaluator factory
+   * @param metadata query metadata for parameter bindings
+   * @param slots row positions of the source variables by name
+   */
+  ExpressionInterpreter(
+      CollQueryTemplates templates, QueryMetadata metadata, Map<String, Integer> slots) {
+    this.templates = templates;
+    this.metadata = metadata;
+    this.slots = slots;
+  }
+
+  /**
+   * Create the closure tree for the given expression
+   *
+   * @param expr expression
+   * @return closure
+   * @throws UnsupportedExpressionException if the expression can't be interpreted
+   */
+  Node create(Expression<?> expr) {
+    if (expr instanceof Constant<?>) {
+      Object value = ((Constant<?>) expr).getConstant();
+      return row -> value;
+    } else if (expr instanceof ParamExpression<?>) {
+      Object value = metadata.getParams().get(expr);
+      if (value == null) {
+        throw new ParamNotSetException((ParamExpression<?>) expr);
+      }
+      return row -> value;
+    } else if (expr instanceof Path<?>) {
+      return createPath((Path<?>) expr);
+    } else if (expr instanceof FactoryExpression<?>) {
+      FactoryExpression<?> factory = (FactoryExpression<?>) expr;
+      Node[] args = createArgs(factory.getArgs());
+      return row -> factory.newInstance(evalArgs(args, row));
+    } else if (expr instanceof Operation<?>) {
+      Operation<?> operation = (Operation<?>) expr;
+      if (!isDefaultTemplate(operation.getOperator())) {
+        throw new UnsupportedExpressionException(expr);
+      }
+      return createOperation(operation);
+    } else {
+      throw new UnsupportedExpressionException(expr);
+    }
+  }
+
+  private Node[] createArgs(List<? extends Expression<?>> args) {
+    Node[] nodes = new Node[args.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = create(args.get(i));
+    }
+    return nodes;
+  }
+
+  private static Object[] evalArgs(Node[] args, Object[] row) {
+    Object[] values = new Object[args.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = args[i].eval(row);
+    }
+    return values;
+  }
+
+  private boolean isDefaultTemplate(Operator operator) {
+    return templates == CollQueryTemplates.DEFAULT
+        || Objects.equals(
+            templates.getTemplate(operator), CollQueryTemplates.DEFAULT.getTemplate(operator));
+  }
+
+  private Node createPath(Path<?> path) {
+    PathMetadata md = path.getMetadata();
+    PathType pathType = md.getPathType();
+    if (pathType != PathType.VARIABLE && !isDefaultTemplate(pathType)) {
+      throw new UnsupportedExpressionException(path);
+    }
+    switch (pathType) {
+      case VARIABLE:
+        Integer slot = slots.get(path.toString());
+        if (slot == null) {
+          throw new UnsupportedExpressionException(path);
+        }
+        int index = slot;
+        return row -> row[index];
+
+      case PROPERTY:
+        Node parent = create(md.getParent());
+        MethodHandle getter = getGetter(md.getParent().getType(), md.getName());
+        return row -> invoke(getter, parent.eval(row));
+
+      case DELEGATE:
+        return create(md.getParent());
+
+      case LISTVALUE:
+      case LISTVALUE_CONSTANT:
+        Node list = create(md.getParent());
+        Node listIndex = createElement(md.getElement());
+        return row -> ((List<?>) list.eval(row)).get(((Number) listIndex.eval(row)).intValue());
+
+      case MAPVALUE:
+      case MAPVALUE_CONSTANT:
+        Node map = create(md.getParent());
+        Node key = createElement(md.getElement());
+        return row -> ((Map<?, ?>) map.eval(row)).get(key.eval(row));
+
+      case ARRAYVALUE:
+      case ARRAYVALUE_CONSTANT:
+        Node array = create(md.getParent());
+        Node arrayIndex = createElement(md.getElement());
+        return row -> Array.get(array.eval(row), ((Number) arrayIndex.eval(row)).intValue());
+
+      default:
+        throw new UnsupportedExpressionException(path);
+    }
+  }
+
+  private Node createElement(Object element) {
+    if (element instanceof Expression<?>) {
+      return create((Expression<?>) element);
+    } else {
+      return row -> element;
+    }
+  }
+
+  private static Object invoke(MethodHandle getter, Object target) {
+    try {
+      return (Object) getter.invokeExact(target);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get a getter handle for the given property using the same accessor as {@link
+   * CollQuerySerializer}: a public getter, a public field or the field via reflection
+   */
+  private static MethodHandle getGetter(Class<?> owner, String property) {
+    Map<String, MethodHandle> getters = GETTERS.get(owner);
+    MethodHandle getter = getters.get(property);
+    if (getter == null) {
+      getter = createGetter(owner, property);
+      getters.put(property, getter);
+    }
+    return getter;
+  }
+
+  private static MethodHandle createGetter(Class<?> owner, String property) {
+    try {
+      Method method = getAccessor(owner, property);
+      if (method != null && Modifier.isPublic(method.getModifiers())) {
+        return unreflect(method).asType(GETTER_TYPE);
+      }
+      Field field = getField(owner, property);
+      if (field != null && Modifier.isPublic(field.getModifiers())) {
+        return unreflectGetter(field).asType(GETTER_TYPE);
+      }
+      MethodHandle get =
+          MethodHandles.lookup()
+              .findStatic(
+                  CollQueryFunctions.class,
+                  "get",
+                  MethodType.methodType(Object.class, Object.class, String.class));
+      return MethodHandles.insertArguments(get, 1, property);
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedExpressionException(owner.getName() + "." + property);
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return MethodHandles.publicLookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      // public member of a non-public class
+      method.setAccessible(true);
+      return MethodHandles.lookup().unreflect(method);
+    }
+  }
+
+  private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+    try {
+      return MethodHandles.publicLookup().unreflectGetter(field);
+    } catch (IllegalAccessException e) {
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectGetter(field);
+    }
+  }
+
+  private static Method getAccessor(Class<?> owner, String property) {
+    try {
+      BeanInfo beanInfo = Introspector.getBeanInfo(owner);
+      for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
+        if (pd.getName().equals(property)) {
+          return pd.getReadMethod();
+        }
+      }
+      return null;
+    } catch (IntrospectionException e) {
+      return null;
+    }
+  }
+
+  private static Field getField(Class<?> owner, String field) {
+    try {
+      return owner.getField(field);
+    } catch (NoSuchFieldException e) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Node createOperation(Operation<?> operation) {
+    Operator op = operation.getOperator();
+    List<Expression<?>> exprs = operation.getArgs();
+    if (op == Ops.NUMCAST) {
+      Node arg = create(exprs.get(0));
+      Class<?> target = (Class<?>) ((Constant<?>) exprs.get(1)).getConstant();
+      return row -> cast((Number) arg.eval(row), target);
+    } else if (op == Ops.INSTANCE_OF) {
+      Node arg = create(exprs.get(0));
+      Class<?> target = (Class<?>) ((Constant<?>) exprs.get(1)).getConstant();
+      return row -> target.isInstance(arg.eval(row));
+    } else if (op == Ops.COALESCE) {
+      List<Expression<?>> flattened = new ArrayList<>();
+      flattenList(exprs.get(0), flattened);
+      Node[] args = createArgs(flattened);
+      return row -> {
+        for (Node arg : args) {
+          Object value = arg.eval(row);
+          if (value != null) {
+            return value;
+          }
+        }
+        return null;
+      };
+    } else if (DATE_OPS.containsKey(op) && !Date.class.isAssignableFrom(exprs.get(0).getType())) {
+      throw new UnsupportedExpressionException(operation);
+    }
+
+    Node[] args = createArgs(exprs);
+    Node a = args.length > 0 ? args[0] : null;
+    Node b = args.length > 1 ? args[1] : null;
+    Node c = args.length > 2 ? args[2] : null;
+    boolean numeric =
+        exprs.size() == 2
+            && isPrimitiveOrWrapperType(exprs.get(0).getType())
+            && isPrimitiveOrWrapperType(exprs.get(1).getType());
+
+    if (op == Ops.AND && args.length > 2) {
+      return row -> {
+        for (Node arg : args) {
+          if (!(Boolean) arg.eval(row)) {
+            return false;
+          }
+        }
+        return true;
+      };
+    } else if (op == Ops.OR && args.length > 2) {
+      return row -> {
+        for (Node arg : args) {
+          if ((Boolean) arg.eval(row)) {
+            return true;
+          }
+        }
+        return false;
+      };
+    } else if (op == Ops.AND) {
+      return row -> (Boolean) a.eval(row) && (Boolean) b.eval(row);
+    } else if (op == Ops.OR) {
+      return row -> (Boolean) a.eval(row) || (Boolean) b.eval(row);
+    } else if (op == Ops.NOT) {
+      return row -> !(Boolean) a.eval(row);
+    } else if (op == Ops.XOR) {
+      return row -> (Boolean) a.eval(row) ^ (Boolean) b.eval(row);
+    } else if (op == Ops.XNOR) {
+      return row -> (Boolean) a.eval(row) == (Boolean) b.eval(row);
+    } else if (op == Ops.EQ || op == Ops.NE) {
+      boolean eq = op == Ops.EQ;
+      if (numeric) {
+        return row -> primitiveEquals(a.eval(row), b.eval(row)) == eq;
+      } else {
+        return row -> Objects.equals(a.eval(row), b.eval(row)) == eq;
+      }
+    } else if (op == Ops.GT || op == Ops.LT || op == Ops.GOE || op == Ops.LOE) {
+      if (numeric) {
+        return row -> test(op, compareNumbers(a.eval(row), b.eval(row)));
+      } else {
+        return row ->
+            test(
+                op,
+                CollQueryFunctions.compareTo((Comparable) a.eval(row), (Comparable) b.eval(row)));
+      }
+    } else if (op == Ops.BETWEEN) {
+      return row ->
+          CollQueryFunctions.between(
+              (Comparable) a.eval(row), (Comparable) b.eval(row), (Comparable) c.eval(row));
+    } else if (op == Ops.IS_NULL) {
+      return row -> a.eval(row) == null;
+    } else if (op == Ops.IS_NOT_NULL) {
+      return row -> a.eval(row) != null;
+    } else if (op == Ops.IN) {
+      return row -> ((Collection) b.eval(row)).contains(a.eval(row));
+    } else if (op == Ops.NOT_IN) {
+      return row -> !((Collection) b.eval(row)).contains(a.eval(row));
+    } else if (op == Ops.ORDINAL) {
+      return row -> ((Enum) a.eval(row)).ordinal();
+    } else if (op == Ops.COL_SIZE) {
+      return row -> ((Collection) a.eval(row)).size();
+    } else if (op == Ops.COL_IS_EMPTY) {
+      return row -> ((Collection) a.eval(row)).isEmpty();
+    } else if (op == Ops.MAP_SIZE) {
+      return row -> ((Map) a.eval(row)).size();
+    } else if (op == Ops.MAP_IS_EMPTY) {
+      return row -> ((Map) a.eval(row)).isEmpty();
+    } else if (op == Ops.CONTAINS_KEY) {
+      return row -> ((Map) a.eval(row)).containsKey(b.eval(row));
+    } else if (op == Ops.CONTAINS_VALUE) {
+      return row -> ((Map) a.eval(row)).containsValue(b.eval(row));
+    } else if (op == Ops.ARRAY_SIZE) {
+      return row -> Array.getLength(a.eval(row));
+    } else if (op == Ops.NULLIF) {
+      return row -> CollQueryFunctions.nullif(a.eval(row), b.eval(row));
+    } else if (op == Ops.CASE || op == Ops.CASE_ELSE || op == Ops.CASE_EQ_ELSE) {
+      return a;
+    } else if (op == Ops.CASE_WHEN) {
+      return row -> (Boolean) a.eval(row) ? b.eval(row) : c.eval(row);
+    } else if (op == Ops.CASE_EQ) {
+      return a;
+    } else if (op == Ops.CASE_EQ_WHEN) {
+      Node d = args[3];
+      return row -> Objects.equals(a.eval(row), b.eval(row)) ? c.eval(row) : d.eval(row);
+    } else if (op == Ops.STRING_CAST) {
+      return row -> a.eval(row).toString();
+    }
+
+    // strings
+    if (op == Ops.CONCAT) {
+      return row -> String.valueOf(a.eval(row)) + b.eval(row);
+    } else if (op == Ops.LOWER) {
+      return row -> ((String) a.eval(row)).toLowerCase();
+    } else if (op == Ops.UPPER) {
+      return row -> ((String) a.eval(row)).toUpperCase();
+    } else if (op == Ops.TRIM) {
+      return row -> ((String) a.eval(row)).trim();
+    } else if (op == Ops.STRING_LENGTH) {
+      return row -> ((String) a.eval(row)).length();
+    } else if (op == Ops.STRING_IS_EMPTY) {
+      return row -> ((String) a.eval(row)).isEmpty();
+    } else if (op == Ops.EQ_IGNORE_CASE) {
+      return row -> ((String) a.eval(row)).equalsIgnoreCase((String) b.eval(row));
+    } else if (op == Ops.STRING_CONTAINS) {
+      return row -> ((String) a.eval(row)).contains((String) b.eval(row));
+    } else if (op == Ops.STRING_CONTAINS_IC) {
+      return row -> lower(a.eval(row)).contains(lower(b.eval(row)));
+    } else if (op == Ops.STARTS_WITH) {
+      return row -> ((String) a.eval(row)).startsWith((String) b.eval(row));
+    } else if (op == Ops.STARTS_WITH_IC) {
+      return row -> lower(a.eval(row)).startsWith(lower(b.eval(row)));
+    } else if (op == Ops.ENDS_WITH) {
+      return row -> ((String) a.eval(row)).endsWith((String) b.eval(row));
+    } else if (op == Ops.ENDS_WITH_IC) {
+      return row -> lower(a.eval(row)).endsWith(lower(b.eval(row)));
+    } else if (op == Ops.MATCHES) {
+      return row -> ((String) a.eval(row)).matches((String) b.eval(row));
+    } else if (op == Ops.MATCHES_IC) {
+      return row -> lower(a.eval(row)).matches(lower(b.eval(row)));
+    } else if (op == Ops.LIKE || op == Ops.LIKE_ESCAPE) {
+      return row -> CollQueryFunctions.like((String) a.eval(row), (String) b.eval(row));
+    } else if (op == Ops.LIKE_IC || op == Ops.LIKE_ESCAPE_IC) {
+      return row -> CollQueryFunctions.likeIgnoreCase((String) a.eval(row), (String) b.eval(row));
+    } else if (op == Ops.CHAR_AT) {
+      return row -> ((String) a.eval(row)).charAt(((Number) b.eval(row)).intValue());
+    } else if (op == Ops.SUBSTR_1ARG) {
+      return row -> ((String) a.eval(row)).substring(((Number) b.eval(row)).intValue());
+    } else if (op == Ops.SUBSTR_2ARGS) {
+      return row ->
+          ((String) a.eval(row))
+              .substring(((Number) b.eval(row)).intValue(), ((Number) c.eval(row)).intValue());
+    } else if (op == Ops.INDEX_OF) {
+      return row -> ((String) a.eval(row)).indexOf((String) b.eval(row));
+    } else if (op == Ops.INDEX_OF_2ARGS) {
+      return row ->
+          ((String) a.eval(row)).indexOf((String) b.eval(row), ((Number) c.eval(row)).intValue());
+    } else if (op == Ops.StringOps.LOCATE) {
+      return row -> ((String) b.eval(row)).indexOf((String) a.eval(row)) + 1;
+    } else if (op == Ops.StringOps.LOCATE2) {
+      return row ->
+          ((String) b.eval(row))
+                  .indexOf((String) a.eval(row), ((Number) c.eval(row)).intValue() - 1)
+              + 1;
+    }
+
+    // numbers
+    if (op == Ops.ADD || op == Ops.SUB || op == Ops.MULT || op == Ops.DIV || op == Ops.MOD) {
+      return row -> arithmetic(op, (Number) a.eval(row), (Number) b.eval(row));
+    } else if (op == Ops.NEGATE) {
+      return row -> arithmetic(Ops.SUB, 0, (Number) a.eval(row));
+    } else if (op == Ops.MathOps.ABS) {
+      return row -> abs((Number) a.eval(row));
+    } else if (op == Ops.MathOps.CEIL) {
+      return row -> Math.ceil(((Number) a.eval(row)).doubleValue());
+    } else if (op == Ops.MathOps.FLOOR) {
+      return row -> Math.floor(((Number) a.eval(row)).doubleValue());
+    } else if (op == Ops.MathOps.SQRT) {
+      return row -> Math.sqrt(((Number) a.eval(row)).doubleValue());
+    } else if (op == Ops.MathOps.EXP) {
+      return row -> Math.exp(((Number) a.eval(row)).doubleValue());
+    } else if (op == Ops.MathOps.LN) {
+      return row -> Math.log(((Number) a.eval(row)).doubleValue());
+    } else if (op == Ops.MathOps.POWER) {
+      return row ->
+          Math.pow(((Number) a.eval(row)).doubleValue(), ((Number) b.eval(row)).doubleValue());
+    }
+
+    // dates
+    if (op == Ops.DateTimeOps.YEAR) {
+      return row -> CollQueryFunctions.getYear((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.MONTH) {
+      return row -> CollQueryFunctions.getMonth((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.WEEK) {
+      return row -> CollQueryFunctions.getWeek((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.DAY_OF_WEEK) {
+      return row -> CollQueryFunctions.getDayOfWeek((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.DAY_OF_MONTH) {
+      return row -> CollQueryFunctions.getDayOfMonth((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.DAY_OF_YEAR) {
+      return row -> CollQueryFunctions.getDayOfYear((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.HOUR) {
+      return row -> CollQueryFunctions.getHour((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.MINUTE) {
+      return row -> CollQueryFunctions.getMinute((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.SECOND) {
+      return row -> CollQueryFunctions.getSecond((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.MILLISECOND) {
+      return row -> CollQueryFunctions.getMilliSecond((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.YEAR_MONTH) {
+      return row -> CollQueryFunctions.getYearMonth((Date) a.eval(row));
+    } else if (op == Ops.DateTimeOps.YEAR_WEEK) {
+      return row -> CollQueryFunctions.getYearWeek((Date) a.eval(row));
+    }
+
+    throw new UnsupportedExpressionException(operation);
+  }
+
+  private static void flattenList(Expression<?> expr, List<Expression<?>> target) {
+    if (expr instanceof Operation<?> && ((Operation<?>) expr).getOperator() == Ops.LIST) {
+      for (Expression<?> arg : ((Operation<?>) expr).getArgs()) {
+        flattenList(arg, target);
+      }
+    } else {
+      target.add(expr);
+    }
+  }
+
+  private static boolean test(Operator op, int comparison) {
+    if (op == Ops.GT) {
+      return comparison > 0;
+    } else if (op == Ops.LT) {
+      return comparison < 0;
+    } else if (op == Ops.GOE) {
+      return comparison >= 0;
+    } else {
+      return comparison <= 0;
+    }
+  }
+
+  private static String lower(Object str) {
+    return ((String) str).toLowerCase(Locale.ENGLISH);
+  }
+
+  private static boolean isPrimitiveOrWrapperType(Class<?> type) {
+    return type.isPrimitive() || PrimitiveUtils.isWrapperType(type);
+  }
+
+  private static boolean isFloating(Object n) {
+    return n instanceof Double || n instanceof Float;
+  }
+
+  /** Equality of unboxed values, like {@code ==} on primitives */
+  private static boolean primitiveEquals(Object a, Object b) {
+    if (a instanceof Number && b instanceof Number) {
+      return compareNumbers(a, b) == 0;
+    } else if (a instanceof Character && b instanceof Number) {
+      return compareNumbers((int) (Character) a, b) == 0;
+    } else if (a instanceof Number && b instanceof Character) {
+      return compareNumbers(a, (int) (Character) b) == 0;
+    } else {
+      return a.equals(Objects.requireNonNull(b));
+    }
+  }
+
+  /** Comparison of unboxed values, like the relational operators on primitives */
+  private static int compareNumbers(Object a, Object b) {
+    Number n1 = a instanceof Character ? (int) (Character) a : (Number) a;
+    Number n2 = b instanceof Character ? (int) (Character) b : (Number) b;
+    if (isFloating(n1) || isFloating(n2)) {
+      return Double.compare(n1.doubleValue(), n2.doubleValue());
+    } else {
+      return Long.compare(n1.longValue(), n2.longValue());
+    }
+  }
+
+  /** Arithmetic with binary numeric promotion */
+  private static Number arithmetic(Operator op, Number a, Number b) {
+    if (a instanceof BigDecimal || b instanceof BigDecimal) {
+      BigDecimal d1 = toBigDecimal(a);
+      BigDecimal d2 = toBigDecimal(b);
+      if (op == Ops.ADD) {
+        return d1.add(d2);
+      } else if (op == Ops.SUB) {
+        return d1.subtract(d2);
+      } else if (op == Ops.MULT) {
+        return d1.multiply(d2);
+      } else if (op == Ops.DIV) {
+        return d1.divide(d2);
+      } else {
+        return d1.remainder(d2);
+      }
+    } else if (a instanceof BigInteger || b instanceof BigInteger) {
+      BigInteger i1 = toBigDecimal(a).toBigInteger();
+      BigInteger i2 = toBigDecimal(b).toBigInteger();
+      if (op == Ops.ADD) {
+        return i1.add(i2);
+      } else if (op == Ops.SUB) {
+        return i1.subtract(i2);
+      } else if (op == Ops.MULT) {
+        return i1.multiply(i2);
+      } else if (op == Ops.DIV) {
+        return i1.divide(i2);
+      } else {
+        return i1.remainder(i2);
+      }
+    } else if (a instanceof Double || b instanceof Double) {
+      double d1 = a.doubleValue();
+      double d2 = b.doubleValue();
+      if (op == Ops.ADD) {
+        return d1 + d2;
+      } else if (op == Ops.SUB) {
+        return d1 - d2;
+      } else if (op == Ops.MULT) {
+        return d1 * d2;
+      } else if (op == Ops.DIV) {
+        return d1 / d2;
+      } else {
+        return d1 % d2;
+      }
+    } else if (a instanceof Float || b instanceof Float) {
+      float f1 = a.floatValue();
+      float f2 = b.floatValue();
+      if (op == Ops.ADD) {
+        return f1 + f2;
+      } else if (op == Ops.SUB) {
+        return f1 - f2;
+      } else if (op == Ops.MULT) {
+        return f1 * f2;
+      } else if (op == Ops.DIV) {
+        return f1 / f2;
+      } else {
+        return f1 % f2;
+      }
+    } else if (a instanceof Long || b instanceof Long) {
+      long l1 = a.longValue();
+      long l2 = b.longValue();
+      if (op == Ops.ADD) {
+        return l1 + l2;
+      } else if (op == Ops.SUB) {
+        return l1 - l2;
+      } else if (op == Ops.MULT) {
+        return l1 * l2;
+      } else if (op == Ops.DIV) {
+        return l1 / l2;
+      } else {
+        return l1 % l2;
+      }
+    } else {
+      int i1 = a.intValue();
+      int i2 = b.intValue();
+      if (op == Ops.ADD) {
+        return i1 + i2;
+      } else if (op == Ops.SUB) {
+        return i1 - i2;
+      } else if (op == Ops.MULT) {
+        return i1 * i2;
+      } else if (op == Ops.DIV) {
+        return i1 / i2;
+      } else {
+        return i1 % i2;
+      }
+    }
+  }
+
+  private static BigDecimal toBigDecimal(Number n) {
+    if (n instanceof BigDecimal) {
+      return (BigDecimal) n;
+    } else if (n instanceof BigInteger) {
+      return new BigDecimal((BigInteger) n);
+    } else if (isFloating(n)) {
+      return BigDecimal.valueOf(n.doubleValue());
+    } else {
+      return BigDecimal.valueOf(n.longValue());
+    }
+  }
+
+  private static Number abs(Number n) {
+    if (n instanceof Double) {
+      return Math.abs(n.doubleValue());
+    } else if (n instanceof Float) {
+      return Math.abs(n.floatValue());
+    } else if (n instanceof Long) {
+      return Math.abs(n.longValue());
+    } else if (n instanceof BigDecimal) {
+      return ((BigDecimal) n).abs();
+    } else if (n instanceof BigInteger) {
+      return ((BigInteger) n).abs();
+    } else {
+      return Math.abs(n.intValue());
+    }
+  }
+
+  private static Object cast(Number n, Class<?> target) {
+    if (target.equals(Integer.class)) {
+      return n.intValue();
+    } else if (target.equals(Long.class)) {
+      return n.longValue();
+    } else if (target.equals(Double.class)) {
+      return n.doubleValue();
+    } else if (target.equals(Float.class)) {
+      return n.floatValue();
+    } else if (target.equals(Short.class)) {
+      return n.shortValue();
+    } else if (target.equals(Byte.class)) {
+      return n.byteValue();
+    } else {
+      throw new IllegalArgumentException("Unsupported cast type " + target.getName());
+    }
+  }
+}
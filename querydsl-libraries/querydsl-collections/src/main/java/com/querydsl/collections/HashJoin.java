@@ -0,0 +1,414 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.support.PathsExtractor;
+import com.querydsl.core.types.ArrayConstructorExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathType;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.util.PrimitiveUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code HashJoin} evaluates the sources and filter of a multi source query as a sequence of hash
+ * joins
+ *
+ * <p>The where condition is split into its conjuncts. Conjuncts of a single source filter that
+ * source before it is joined, equality conjuncts between a source and the previously joined sources
+ * are used as hash join keys and all other conjuncts are applied as soon as all the sources they
+ * refer to have been joined. Each hash table is built on the smaller side of the join and the rows
+ * are produced in the same order as nested loops over the sources would produce them.
+ */
+final class HashJoin {
+
+  /** Equality conjunct with the expression of the joined source and of the previous sources */
+  private static final class Key {
+
+    private final Expression<?> previous;
+
+    private final Expression<?> current;
+
+    private final boolean nullMatches;
+
+    Key(Expression<?> previous, Expression<?> current) {
+      this.previous = previous;
+      this.current = current;
+      this.nullMatches = !isPrimitiveOrWrapperType(current.getType());
+    }
+  }
+
+  /** Marker for rows whose key can't be evaluated */
+  private static final Object NO_KEY = new Object();
+
+  private final DefaultEvaluatorFactory evaluatorFactory;
+
+  private final QueryMetadata metadata;
+
+  private final List<Expression<?>> sources;
+
+  private final List<List<Predicate>> sourceFilters;
+
+  private final List<List<Key>> keys;
+
+  private final List<List<Predicate>> rowFilters;
+
+  private HashJoin(
+      DefaultEvaluatorFactory evaluatorFactory,
+      QueryMetadata metadata,
+      List<Expression<?>> sources) {
+    this.evaluatorFactory = evaluatorFactory;
+    this.metadata = metadata;
+    this.sources = sources;
+    this.sourceFilters = new ArrayList<>(sources.size());
+    this.keys = new ArrayList<>(sources.size());
+    this.rowFilters = new ArrayList<>(sources.size());
+    for (int i = 0; i < sources.size(); i++) {
+      sourceFilters.add(new ArrayList<>());
+      keys.add(new ArrayList<>());
+      rowFilters.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Evaluate the sources and filter of the given query with hash joins
+   *
+   * @param evaluatorFactory evaluator factory
+   * @param metadata query metadata
+   * @param iterables source iterables
+   * @return the joined rows or null, if the query has no equality conjuncts between its sources
+   */
+  @Nullable
+  static List<Object[]> evaluate(
+      DefaultEvaluatorFactory evaluatorFactory,
+      QueryMetadata metadata,
+      Map<Expression<?>, Iterable<?>> iterables) {
+    Predicate where = metadata.getWhere();
+    List<JoinExpression> joins = metadata.getJoins();
+    if (where == null
+        || joins.size() < 2
+        || !Objects.equals(
+            evaluatorFactory.getTemplates().getTemplate(Ops.EQ),
+            CollQueryTemplates.DEFAULT.getTemplate(Ops.EQ))) {
+      return null;
+    }
+    List<Expression<?>> sources = new ArrayList<>(joins.size());
+    for (JoinExpression join : joins) {
+      if (join.getType() != JoinType.DEFAULT) {
+        return null;
+      }
+      sources.add(join.getTarget());
+    }
+    HashJoin hashJoin = new HashJoin(evaluatorFactory, metadata, sources);
+    if (hashJoin.plan(where)) {
+      return hashJoin.execute(iterables);
+    } else {
+      return null;
+    }
+  }
+
+  private boolean plan(Predicate where) {
+    List<Predicate> conjuncts = new ArrayList<>();
+    flatten(where, conjuncts);
+    boolean hashable = false;
+    for (Predicate conjunct : conjuncts) {
+      BitSet refs = getSources(conjunct);
+      if (refs == null) {
+        return false;
+      } else if (refs.cardinality() <= 1) {
+        sourceFilters.get(Math.max(refs.nextSetBit(0), 0)).add(conjunct);
+      } else {
+        int last = refs.length() - 1;
+        Key key = getKey(conjunct, last);
+        if (key != null) {
+          keys.get(last).add(key);
+          hashable = true;
+        } else {
+          rowFilters.get(last).add(conjunct);
+        }
+      }
+    }
+    return hashable;
+  }
+
+  @Nullable
+  private Key getKey(Predicate conjunct, int source) {
+    if (!(conjunct instanceof Operation<?>) || ((Operation<?>) conjunct).getOperator() != Ops.EQ) {
+      return null;
+    }
+    Operation<?> operation = (Operation<?>) conjunct;
+    Expression<?> left = operation.getArg(0);
+    Expression<?> right = operation.getArg(1);
+    Class<?> type = left.getType();
+    if (!type.equals(right.getType())
+        || PrimitiveUtils.wrap(type).equals(Double.class)
+        || PrimitiveUtils.wrap(type).equals(Float.class)) {
+      // hashing doesn't match the comparison of floating point numbers
+      return null;
+    }
+    BitSet leftRefs = getSources(left);
+    BitSet rightRefs = getSources(right);
+    if (isCurrent(rightRefs, source) && isPrevious(leftRefs, source)) {
+      return new Key(left, right);
+    } else if (isCurrent(leftRefs, source) && isPrevious(rightRefs, source)) {
+      return new Key(right, left);
+    } else {
+      return null;
+    }
+  }
+
+  private static boolean isCurrent(BitSet refs, int source) {
+    return refs.cardinality() == 1 && refs.get(source);
+  }
+
+  private static boolean isPrevious(BitSet refs, int source) {
+    return !refs.isEmpty() && refs.length() <= source;
+  }
+
+  /** Get the positions of the sources the given expression refers to */
+  @Nullable
+  private BitSet getSources(Expression<?> expr) {
+    List<Path<?>> paths = new ArrayList<>();
+    expr.accept(PathsExtractor.DEFAULT, paths);
+    BitSet refs = new BitSet(sources.size());
+    for (Path<?> path : paths) {
+      for (Path<?> p = path; p != null; p = p.getMetadata().getParent()) {
+        if (p.getMetadata().getPathType() == PathType.COLLECTION_ANY) {
+          return null;
+        }
+      }
+      int index = sources.indexOf(path.getRoot());
+      if (index < 0) {
+        return null;
+      }
+      refs.set(index);
+    }
+    return refs;
+  }
+
+  private static void flatten(Predicate predicate, List<Predicate> conjuncts) {
+    if (predicate instanceof Operation<?> && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+      for (Expression<?> arg : ((Operation<?>) predicate).getArgs()) {
+        flatten((Predicate) arg, conjuncts);
+      }
+    } else {
+      conjuncts.add(predicate);
+    }
+  }
+
+  private List<Object[]> execute(Map<Expression<?>, Iterable<?>> iterables) {
+    List<Object[]> rows = null;
+    for (int i = 0; i < sources.size(); i++) {
+      List<?> elements = filter(i, iterables.get(sources.get(i)));
+      if (i == 0) {
+        rows = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+          rows.add(new Object[] {element});
+        }
+      } else if (keys.get(i).isEmpty()) {
+        rows = crossJoin(rows, elements);
+      } else if (elements.size() <= rows.size()) {
+        rows = joinByElements(i, rows, elements);
+      } else {
+        rows = joinByRows(i, rows, elements);
+      }
+      if (!rowFilters.get(i).isEmpty()) {
+        rows = filterRows(i, rows);
+      }
+      if (rows.isEmpty()) {
+        return rows;
+      }
+    }
+    return rows;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<?> filter(int source, Iterable<?> iterable) {
+    List<Predicate> filters = sourceFilters.get(source);
+    if (!filters.isEmpty()) {
+      Evaluator<List<?>> evaluator =
+          (Evaluator)
+              evaluatorFactory.createEvaluator(
+                  metadata, sources.get(source), ExpressionUtils.allOf(filters));
+      return evaluator.evaluate(iterable);
+    } else if (iterable instanceof List) {
+      return (List<?>) iterable;
+    } else {
+      return IteratorAdapter.asList(iterable.iterator());
+    }
+  }
+
+  private static List<Object[]> crossJoin(List<Object[]> rows, List<?> elements) {
+    List<Object[]> rv = new ArrayList<>(rows.size() * elements.size());
+    for (Object[] row : rows) {
+      for (Object element : elements) {
+        rv.add(append(row, element));
+      }
+    }
+    return rv;
+  }
+
+  /** Build the hash table on the elements of the joined source and probe it with the rows */
+  private List<Object[]> joinByElements(int source, List<Object[]> rows, List<?> elements) {
+    List<Key> sourceKeys = keys.get(source);
+    Evaluator<?> elementKeys = createKeyEvaluator(source, sourceKeys, true);
+    Evaluator<?> rowKeys = createKeyEvaluator(source, sourceKeys, false);
+    Map<Object, List<Object>> table = new HashMap<>();
+    for (Object element : elements) {
+      Object key = getKey(elementKeys, sourceKeys, new Object[] {element});
+      if (key != NO_KEY) {
+        table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+      }
+    }
+    List<Object[]> rv = new ArrayList<>();
+    for (Object[] row : rows) {
+      Object key = getKey(rowKeys, sourceKeys, row);
+      List<Object> matches = key != NO_KEY ? table.get(key) : null;
+      if (matches != null) {
+        for (Object element : matches) {
+          rv.add(append(row, element));
+        }
+      }
+    }
+    return rv;
+  }
+
+  /** Build the hash table on the rows and probe it with the elements of the joined source */
+  @SuppressWarnings("unchecked")
+  private List<Object[]> joinByRows(int source, List<Object[]> rows, List<?> elements) {
+    List<Key> sourceKeys = keys.get(source);
+    Evaluator<?> elementKeys = createKeyEvaluator(source, sourceKeys, true);
+    Evaluator<?> rowKeys = createKeyEvaluator(source, sourceKeys, false);
+    Map<Object, List<Integer>> table = new HashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      Object key = getKey(rowKeys, sourceKeys, rows.get(i));
+      if (key != NO_KEY) {
+        table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(i);
+      }
+    }
+    List<Object>[] matches = new List[rows.size()];
+    int count = 0;
+    for (Object element : elements) {
+      Object key = getKey(elementKeys, sourceKeys, new Object[] {element});
+      List<Integer> indexes = key != NO_KEY ? table.get(key) : null;
+      if (indexes != null) {
+        for (int index : indexes) {
+          if (matches[index] == null) {
+            matches[index] = new ArrayList<>(1);
+          }
+          matches[index].add(element);
+          count++;
+        }
+      }
+    }
+    // emit in the order of the rows to match the order of nested loops
+    List<Object[]> rv = new ArrayList<>(count);
+    for (int i = 0; i < matches.length; i++) {
+      if (matches[i] != null) {
+        for (Object element : matches[i]) {
+          rv.add(append(rows.get(i), element));
+        }
+      }
+    }
+    return rv;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Evaluator<?> createKeyEvaluator(int source, List<Key> sourceKeys, boolean current) {
+    Expression<Object>[] exprs = new Expression[sourceKeys.size()];
+    for (int i = 0; i < exprs.length; i++) {
+      exprs[i] = (Expression) (current ? sourceKeys.get(i).current : sourceKeys.get(i).previous);
+    }
+    Expression<?> projection =
+        exprs.length == 1
+            ? exprs[0]
+            : new ArrayConstructorExpression<Object>(Object[].class, exprs);
+    List<Expression<?>> scope =
+        current ? Collections.singletonList(sources.get(source)) : sources.subList(0, source);
+    return evaluatorFactory.create(metadata, scope, projection);
+  }
+
+  private static Object getKey(Evaluator<?> evaluator, List<Key> sourceKeys, Object[] args) {
+    Object key;
+    try {
+      key = evaluator.evaluate(args);
+    } catch (IllegalArgumentException e) {
+      if (e.getCause() instanceof NullPointerException) {
+        // same as the generated filters, which skip rows causing NPEs
+        return NO_KEY;
+      }
+      throw e;
+    }
+    if (sourceKeys.size() == 1) {
+      return key != null || sourceKeys.get(0).nullMatches ? key : NO_KEY;
+    }
+    Object[] values = (Object[]) key;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null && !sourceKeys.get(i).nullMatches) {
+        return NO_KEY;
+      }
+    }
+    return Arrays.asList(values);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object[]> filterRows(int source, List<Object[]> rows) {
+    Evaluator<Boolean> evaluator =
+        (Evaluator)
+            evaluatorFactory.create(
+                metadata,
+                sources.subList(0, source + 1),
+                ExpressionUtils.allOf(rowFilters.get(source)));
+    List<Object[]> rv = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      try {
+        if (Boolean.TRUE.equals(evaluator.evaluate(row))) {
+          rv.add(row);
+        }
+      } catch (IllegalArgumentException e) {
+        if (!(e.getCause() instanceof NullPointerException)) {
+          throw e;
+        }
+      }
+    }
+    return rv;
+  }
+
+  private static Object[] append(Object[] row, Object element) {
+    Object[] rv = Arrays.copyOf(row, row.length + 1);
+    rv[row.length] = element;
+    return rv;
+  }
+
+  private static boolean isPrimitiveOrWrapperType(Class<?> type) {
+    return type.isPrimitive() || PrimitiveUtils.isWrapperType(type);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code IndexLookup} finds the candidate elements of a single source query over an {@link
+ * IndexedList} by looking up the conjuncts of the where condition in the indexes of the list
+ *
+ * <p>The conjunct with the fewest matches is used. The candidates are a superset of the matching
+ * elements in list order and still need to be filtered with the complete where condition.
+ */
+final class IndexLookup {
+
+  private IndexLookup() {}
+
+  /**
+   * Get the candidate elements of the given query
+   *
+   * @param list indexed source
+   * @param templates templates of the evaluator factory
+   * @param metadata query metadata
+   * @param source source expression
+   * @return candidates or null, if no index can be used
+   */
+  @Nullable
+  static <T> List<T> getCandidates(
+      IndexedList<T> list,
+      CollQueryTemplates templates,
+      QueryMetadata metadata,
+      Expression<?> source) {
+    if (metadata.getWhere() == null) {
+      return null;
+    }
+    List<Predicate> conjuncts = new ArrayList<>();
+    flatten(metadata.getWhere(), conjuncts);
+    int[] best = null;
+    for (Predicate conjunct : conjuncts) {
+      int[] positions = lookup(list, templates, metadata, source, conjunct);
+      if (positions != null && (best == null || positions.length < best.length)) {
+        best = positions;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+    List<T> rv = new ArrayList<>(best.length);
+    for (int position : best) {
+      rv.add(list.get(position));
+    }
+    return rv;
+  }
+
+  @Nullable
+  private static int[] lookup(
+      IndexedList<?> list,
+      CollQueryTemplates templates,
+      QueryMetadata metadata,
+      Expression<?> source,
+      Predicate conjunct) {
+    if (!(conjunct instanceof Operation<?>)) {
+      return null;
+    }
+    Operation<?> operation = (Operation<?>) conjunct;
+    Operator operator = operation.getOperator();
+    if (!Objects.equals(
+        templates.getTemplate(operator), CollQueryTemplates.DEFAULT.getTemplate(operator))) {
+      return null;
+    }
+    List<Expression<?>> args = operation.getArgs();
+    if (operator == Ops.EQ
+        || operator == Ops.GT
+        || operator == Ops.GOE
+        || operator == Ops.LT
+        || operator == Ops.LOE) {
+      if (isSourcePath(args.get(1), source) && !isSourcePath(args.get(0), source)) {
+        // constant on the left side
+        args = Arrays.asList(args.get(1), args.get(0));
+        operator = flip(operator);
+      }
+    } else if (operator != Ops.IN && operator != Ops.BETWEEN) {
+      return null;
+    }
+    if (!isSourcePath(args.get(0), source)) {
+      return null;
+    }
+    Object[] values = new Object[args.size() - 1];
+    for (int i = 1; i < args.size(); i++) {
+      Object value = getValue(args.get(i), metadata);
+      if (value == null) {
+        return null;
+      }
+      values[i - 1] = value;
+    }
+    if (operator == Ops.IN) {
+      if (!(values[0] instanceof Collection<?>)) {
+        return null;
+      }
+      values = ((Collection<?>) values[0]).toArray();
+    }
+    return list.lookup((Path<?>) args.get(0), operator, values);
+  }
+
+  private static boolean isSourcePath(Expression<?> expr, Expression<?> source) {
+    return expr instanceof Path<?> && source.equals(((Path<?>) expr).getRoot());
+  }
+
+  @Nullable
+  private static Object getValue(Expression<?> expr, QueryMetadata metadata) {
+    if (expr instanceof Constant<?>) {
+      return ((Constant<?>) expr).getConstant();
+    } else if (expr instanceof ParamExpression<?>) {
+      return metadata.getParams().get(expr);
+    } else {
+      return null;
+    }
+  }
+
+  private static Operator flip(Operator operator) {
+    if (operator == Ops.GT) {
+      return Ops.LT;
+    } else if (operator == Ops.GOE) {
+      return Ops.LOE;
+    } else if (operator == Ops.LT) {
+      return Ops.GT;
+    } else if (operator == Ops.LOE) {
+      return Ops.GOE;
+    } else {
+      return operator;
+    }
+  }
+
+  private static void flatten(Predicate predicate, List<Predicate> conjuncts) {
+    if (predicate instanceof Operation<?> && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+      for (Expression<?> arg : ((Operation<?>) predicate).getArgs()) {
+        flatten((Predicate) arg, conjuncts);
+      }
+    } else {
+      conjuncts.add(predicate);
+    }
+  }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.PathType;
+import com.querydsl.core.util.PrimitiveUtils;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code IndexedList} is a list with secondary indexes on properties of its elements, which are
+ * used by the {@link DefaultQueryEngine} to avoid full scans of the list
+ *
+ * <p>Hash indexes serve {@code eq} and {@code in} conditions, sorted indexes additionally serve
+ * range conditions such as {@code between}, {@code goe} or {@code lt}. When a where condition of a
+ * single source query has a conjunct which compares an indexed property with constants, only the
+ * elements found in the index are filtered with the complete where condition. Properties of
+ * floating point types are not indexed.
+ *
+ * <p>The indexes are rebuilt lazily after the list has been modified. {@link CollUpdateClause} and
+ * {@link CollDeleteClause} keep the indexes up to date, other modifications of indexed element
+ * properties need to be followed by a call to {@link #reindex()}.
+ *
+ * <p>Usage
+ *
+ * <pre>{@code
+ * IndexedList<Customer> customers = new IndexedList<>(customer, data)
+ *     .addHashIndex(customer.status)
+ *     .addSortedIndex(customer.created);
+ * List<Customer> active = CollQueryFactory.from(customer, customers)
+ *     .where(customer.status.eq(Status.ACTIVE))
+ *     .fetch();
+ * }</pre>
+ *
+ * @param <T> element type
+ */
+public class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final List<T> elements;
+
+  private final Path<T> root;
+
+  private final Map<String, Index> indexes = new LinkedHashMap<>();
+
+  private boolean indexed;
+
+  /**
+   * Create a new empty IndexedList instance
+   *
+   * @param root root path of the indexed properties
+   */
+  public IndexedList(Path<T> root) {
+    this(root, Collections.<T>emptyList());
+  }
+
+  /**
+   * Create a new IndexedList instance with the given elements
+   *
+   * @param root root path of the indexed properties
+   * @param elements elements
+   */
+  public IndexedList(Path<T> root, Collection<? extends T> elements) {
+    this.root = root;
+    this.elements = new ArrayList<>(elements);
+  }
+
+  /**
+   * Add a hash index for the given property, which is used for {@code eq} and {@code in} conditions
+   *
+   * @param path property path
+   * @return the current object
+   */
+  public IndexedList<T> addHashIndex(Path<?> path) {
+    return addIndex(path, false);
+  }
+
+  /**
+   * Add a sorted index for the given property, which is used for {@code eq}, {@code in} and range
+   * conditions
+   *
+   * @param path property path
+   * @return the current object
+   */
+  public IndexedList<T> addSortedIndex(Path<? extends Comparable<?>> path) {
+    return addIndex(path, true);
+  }
+
+  private IndexedList<T> addIndex(Path<?> path, boolean sorted) {
+    Class<?> type = PrimitiveUtils.wrap(path.getType());
+    if (type.equals(Double.class) || type.equals(Float.class)) {
+      throw new IllegalArgumentException("Floating point properties can't be indexed: " + path);
+    }
+    String property = getProperty(path, root);
+    if (property == null) {
+      throw new IllegalArgumentException(path + " is not a property path of " + root);
+    }
+    ExpressionInterpreter.Node getter =
+        new ExpressionInterpreter(
+                CollQueryTemplates.DEFAULT,
+                new DefaultQueryMetadata(),
+                Collections.singletonMap(root.toString(), 0))
+            .create(path);
+    synchronized (indexes) {
+      indexes.put(property, sorted ? new SortedIndex(getter, type) : new HashIndex(getter, type));
+      indexed = false;
+    }
+    return this;
+  }
+
+  /** Rebuild the indexes after properties of the elements have been modified */
+  public void reindex() {
+    synchronized (indexes) {
+      indexed = false;
+    }
+  }
+
+  /**
+   * Get whether the given property path is indexed
+   *
+   * @param path property path
+   * @return true, if the property is indexed
+   */
+  public boolean isIndexed(Path<?> path) {
+    String property = getProperty(path, path.getRoot());
+    synchronized (indexes) {
+      return property != null && indexes.containsKey(property);
+    }
+  }
+
+  /**
+   * Get the positions of the elements with the given property values
+   *
+   * @param path property path
+   * @param operator comparison operator
+   * @param values compared values
+   * @return ascending positions or null, if no index can be used
+   */
+  @Nullable
+  int[] lookup(Path<?> path, Operator operator, Object[] values) {
+    String property = getProperty(path, path.getRoot());
+    if (property == null) {
+      return null;
+    }
+    synchronized (indexes) {
+      Index index = indexes.get(property);
+      if (index == null || !index.supports(operator, values)) {
+        return null;
+      }
+      if (!indexed) {
+        for (Index i : indexes.values()) {
+          i.build(elements);
+        }
+        indexed = true;
+      }
+      return index.lookup(operator, values);
+    }
+  }
+
+  @Override
+  public T get(int index) {
+    return elements.get(index);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public T set(int index, T element) {
+    T rv = elements.set(index, element);
+    reindex();
+    return rv;
+  }
+
+  @Override
+  public void add(int index, T element) {
+    elements.add(index, element);
+    modCount++;
+    reindex();
+  }
+
+  @Override
+  public T remove(int index) {
+    T rv = elements.remove(index);
+    modCount++;
+    reindex();
+    return rv;
+  }
+
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    elements.subList(fromIndex, toIndex).clear();
+    modCount++;
+    reindex();
+  }
+
+  /** Get the property names from the root to the given path or null for other paths */
+  @Nullable
+  private static String getProperty(Path<?> path, Path<?> root) {
+    StringBuilder property = new StringBuilder();
+    Path<?> current = path;
+    while (current.getMetadata().getPathType() == PathType.PROPERTY) {
+      PathMetadata metadata = current.getMetadata();
+      property.insert(0, "." + metadata.getName());
+      current = metadata.getParent();
+    }
+    if (current.getMetadata().getPathType() == PathType.DELEGATE) {
+      return getProperty(current.getMetadata().getParent(), root);
+    }
+    return current.equals(root) && property.length() > 0 ? property.substring(1) : null;
+  }
+
+  private static int[] toArray(List<Integer> positions) {
+    int[] rv = new int[positions.size()];
+    for (int i = 0; i < rv.length; i++) {
+      rv[i] = positions.get(i);
+    }
+    return rv;
+  }
+
+  /** Index of a property */
+  private abstract static class Index {
+
+    private final ExpressionInterpreter.Node getter;
+
+    private final Class<?> type;
+
+    Index(ExpressionInterpreter.Node getter, Class<?> type) {
+      this.getter = getter;
+      this.type = type;
+    }
+
+    @Nullable
+    Object getValue(Object element) {
+      try {
+        return getter.eval(new Object[] {element});
+      } catch (NullPointerException e) {
+        return null;
+      }
+    }
+
+    boolean supports(Operator operator, Object[] values) {
+      for (Object value : values) {
+        if (value == null || !value.getClass().equals(type)) {
+          return false;
+        }
+      }
+      return operator == Ops.EQ || operator == Ops.IN;
+    }
+
+    abstract void build(List<?> elements);
+
+    abstract int[] lookup(Operator operator, Object[] values);
+  }
+
+  /** Hash index for equality conditions */
+  private static final class HashIndex extends Index {
+
+    private final Map<Object, int[]> positions = new HashMap<>();
+
+    HashIndex(ExpressionInterpreter.Node getter, Class<?> type) {
+      super(getter, type);
+    }
+
+    @Override
+    void build(List<?> elements) {
+      Map<Object, List<Integer>> buckets = new HashMap<>();
+      for (int i = 0; i < elements.size(); i++) {
+        buckets.computeIfAbsent(getValue(elements.get(i)), k -> new ArrayList<>()).add(i);
+      }
+      positions.clear();
+      for (Map.Entry<Object, List<Integer>> entry : buckets.entrySet()) {
+        positions.put(entry.getKey(), toArray(entry.getValue()));
+      }
+    }
+
+    @Override
+    int[] lookup(Operator operator, Object[] values) {
+      if (values.length == 1) {
+        return positions.getOrDefault(values[0], new int[0]);
+      }
+      int[][] matches = new int[values.length][];
+      int size = 0;
+      for (int i = 0; i < values.length; i++) {
+        matches[i] = positions.getOrDefault(values[i], new int[0]);
+        size += matches[i].length;
+      }
+      int[] rv = new int[size];
+      int offset = 0;
+      for (int[] match : matches) {
+        System.arraycopy(match, 0, rv, offset, match.length);
+        offset += match.length;
+      }
+      Arrays.sort(rv);
+      return distinct(rv);
+    }
+
+    private static int[] distinct(int[] sorted) {
+      int size = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (i == 0 || sorted[i] != sorted[i - 1]) {
+          sorted[size++] = sorted[i];
+        }
+      }
+      return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+  }
+
+  /** Sorted index for equality and range conditions */
+  private static final class SortedIndex extends Index {
+
+    private Comparable<Object>[] keys;
+
+    private int[] positions;
+
+    /** positions of null values, which are always part of the range results */
+    private int[] nulls;
+
+    SortedIndex(ExpressionInterpreter.Node getter, Class<?> type) {
+      super(getter, type);
+    }
+
+    @Override
+    boolean supports(Operator operator, Object[] values) {
+      return super.supports(operator, values)
+          || ((operator == Ops.BETWEEN
+                  || operator == Ops.GT
+                  || operator == Ops.GOE
+                  || operator == Ops.LT
+                  || operator == Ops.LOE)
+              && super.supports(Ops.EQ, values));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void build(List<?> elements) {
+      List<Integer> nonNulls = new ArrayList<>(elements.size());
+      List<Integer> nullPositions = new ArrayList<>();
+      Object[] values = new Object[elements.size()];
+      for (int i = 0; i < elements.size(); i++) {
+        values[i] = getValue(elements.get(i));
+        (values[i] != null ? nonNulls : nullPositions).add(i);
+      }
+      Integer[] order = nonNulls.toArray(new Integer[0]);
+      Arrays.sort(order, (i1, i2) -> ((Comparable<Object>) values[i1]).compareTo(values[i2]));
+      keys = new Comparable[order.length];
+      positions = new int[order.length];
+      for (int i = 0; i < order.length; i++) {
+        keys[i] = (Comparable<Object>) values[order[i]];
+        positions[i] = order[i];
+      }
+      nulls = toArray(nullPositions);
+    }
+
+    @Override
+    int[] lookup(Operator operator, Object[] values) {
+      if (operator == Ops.EQ || operator == Ops.IN) {
+        List<Integer> rv = new ArrayList<>();
+        for (Object value : values) {
+          int from = bound(value, false);
+          int to = bound(value, true);
+          for (int i = from; i < to; i++) {
+            rv.add(positions[i]);
+          }
+        }
+        int[] sorted = toArray(rv);
+        Arrays.sort(sorted);
+        return HashIndex.distinct(sorted);
+      }
+      int from = 0;
+      int to = keys.length;
+      if (operator == Ops.BETWEEN) {
+        from = bound(values[0], false);
+        to = bound(values[1], true);
+      } else if (operator == Ops.GT) {
+        from = bound(values[0], true);
+      } else if (operator == Ops.GOE) {
+        from = bound(values[0], false);
+      } else if (operator == Ops.LT) {
+        to = bound(values[0], false);
+      } else if (operator == Ops.LOE) {
+        to = bound(values[0], true);
+      }
+      int size = Math.max(0, to - from);
+      int[] rv = Arrays.copyOf(nulls, nulls.length + size);
+      if (size > 0) {
+        System.arraycopy(positions, from, rv, nulls.length, size);
+      }
+      Arrays.sort(rv);
+      return rv;
+    }
+
+    /** Get the first index whose key is greater than or equal to (or greater than) the value */
+    private int bound(Object value, boolean greater) {
+      int low = 0;
+      int high = keys.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        int cmp = keys[mid].compareTo(value);
+        if (cmp < 0 || (greater && cmp == 0)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.codegen.utils.EvaluatorFactory;
+import com.querydsl.collections.ExpressionInterpreter.Node;
+import com.querydsl.collections.ExpressionInterpreter.UnsupportedExpressionException;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Predicate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code InterpretedEvaluatorFactory} creates evaluators which interpret the query expressions
+ * directly instead of generating and compiling Java sources
+ *
+ * <p>Paths are read via cached {@link java.lang.invoke.MethodHandle} getters and operations are
+ * evaluated as closures, which removes the compilation cost from the first execution of a query.
+ * Expressions which can't be interpreted, such as template expressions, collection any joins or
+ * operations with customized templates, are delegated to the compiling evaluator factory.
+ *
+ * <p>Usage
+ *
+ * <pre>{@code
+ * CollQuery<Cat> query = CollQueryFactory.from(DefaultQueryEngine.getInterpreted(), cat, cats);
+ * }</pre>
+ */
+public class InterpretedEvaluatorFactory extends DefaultEvaluatorFactory {
+
+  private final CollQueryTemplates templates;
+
+  public InterpretedEvaluatorFactory(CollQueryTemplates templates) {
+    super(templates);
+    this.templates = templates;
+  }
+
+  public InterpretedEvaluatorFactory(CollQueryTemplates templates, EvaluatorFactory factory) {
+    super(templates, factory);
+    this.templates = templates;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> Evaluator<T> create(
+      QueryMetadata metadata, List<? extends Expression<?>> sources, Expression<T> projection) {
+    Map<String, Integer> slots = new HashMap<>();
+    for (int i = 0; i < sources.size(); i++) {
+      slots.put(sources.get(i).toString(), i);
+    }
+    try {
+      Node node = new ExpressionInterpreter(templates, metadata, slots).create(projection);
+      Class<? extends T> type = (Class<? extends T>) projection.getType();
+      return new InterpretedEvaluator<>(type, args -> (T) node.eval(args));
+    } catch (UnsupportedExpressionException e) {
+      return super.create(metadata, sources, projection);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Override
+  public <T> Evaluator<List<T>> createEvaluator(
+      QueryMetadata metadata, Expression<? extends T> source, Predicate filter) {
+    Map<String, Integer> slots = Collections.singletonMap(source.toString(), 0);
+    Node condition;
+    try {
+      condition = new ExpressionInterpreter(templates, metadata, slots).create(filter);
+    } catch (UnsupportedExpressionException e) {
+      return super.createEvaluator(metadata, source, filter);
+    }
+    return new InterpretedEvaluator<>(
+        (Class) List.class,
+        args -> {
+          List<T> rv = new ArrayList<>();
+          Object[] row = new Object[1];
+          for (Object value : (Iterable<?>) args[0]) {
+            row[0] = value;
+            if (matches(condition, row)) {
+              rv.add((T) value);
+            }
+          }
+          return rv;
+        });
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Override
+  public Evaluator<List<Object[]>> createEvaluator(
+      QueryMetadata metadata, List<JoinExpression> joins, @Nullable Predicate filter) {
+    Map<String, Integer> slots = new HashMap<>();
+    for (int i = 0; i < joins.size(); i++) {
+      JoinExpression join = joins.get(i);
+      if (join.getType() == JoinType.DEFAULT) {
+        slots.put(join.getTarget().toString(), i);
+      } else {
+        slots.put(((Operation<?>) join.getTarget()).getArg(1).toString(), i);
+      }
+    }
+    try {
+      ExpressionInterpreter interpreter = new ExpressionInterpreter(templates, metadata, slots);
+      Source[] sources = new Source[joins.size()];
+      int iterables = 0;
+      for (int i = 0; i < sources.length; i++) {
+        JoinExpression join = joins.get(i);
+        switch (join.getType()) {
+          case DEFAULT:
+            sources[i] = new Source(iterables++, null, false, false);
+            break;
+
+          case INNERJOIN:
+          case LEFTJOIN:
+            if (join.getCondition() != null && join.getCondition().toString().equals("any")) {
+              // collection any joins are left to the compiled evaluator
+              throw new UnsupportedExpressionException(join);
+            }
+            Expression<?> collection = ((Operation<?>) join.getTarget()).getArg(0);
+            sources[i] =
+                new Source(
+                    -1,
+                    interpreter.create(collection),
+                    collection.getType().equals(Map.class),
+                    join.getType() == JoinType.LEFTJOIN);
+            break;
+
+          default:
+            throw new IllegalArgumentException("Illegal join expression " + join);
+        }
+      }
+      Node condition = filter != null ? interpreter.create(filter) : null;
+      return new InterpretedEvaluator<>(
+          (Class) List.class,
+          args -> {
+            List<Object[]> rv = new ArrayList<>();
+            join(sources, condition, args, new Object[sources.length], 0, rv);
+            return rv;
+          });
+    } catch (UnsupportedExpressionException e) {
+      return super.createEvaluator(metadata, joins, filter);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void join(
+      Source[] sources,
+      @Nullable Node condition,
+      Object[] iterables,
+      Object[] row,
+      int index,
+      List<Object[]> rv) {
+    if (index == sources.length) {
+      if (condition == null || matches(condition, row)) {
+        rv.add(row.clone());
+      }
+      return;
+    }
+    Source source = sources[index];
+    Iterable<?> iterable;
+    if (source.collection == null) {
+      iterable = (Iterable<?>) iterables[source.iterable];
+    } else {
+      Object value = source.collection.eval(row);
+      if (source.map) {
+        value = ((Map<?, ?>) value).values();
+      }
+      if (source.leftJoin) {
+        value = CollQueryFunctions.leftJoin((Collection<Object>) value);
+      }
+      iterable = (Iterable<?>) value;
+    }
+    for (Object value : iterable) {
+      row[index] = value;
+      join(sources, condition, iterables, row, index + 1, rv);
+    }
+    row[index] = null;
+  }
+
+  /** Evaluates the condition like the generated filters, which skip rows causing NPEs */
+  private static boolean matches(Node condition, Object[] row) {
+    try {
+      return Boolean.TRUE.equals(condition.eval(row));
+    } catch (NullPointerException npe) {
+      return false;
+    }
+  }
+
+  /** Join source with either an iterable argument position or a collection expression */
+  private static final class Source {
+
+    private final int iterable;
+
+    @Nullable private final Node collection;
+
+    private final boolean map;
+
+    private final boolean leftJoin;
+
+    Source(int iterable, @Nullable Node collection, boolean map, boolean leftJoin) {
+      this.iterable = iterable;
+      this.collection = collection;
+      this.map = map;
+      this.leftJoin = leftJoin;
+    }
+  }
+
+  /** Evaluator backed by a closure */
+  private static final class InterpretedEvaluator<T> implements Evaluator<T> {
+
+    private final Class<? extends T> type;
+
+    private final Function<Object[], T> function;
+
+    InterpretedEvaluator(Class<? extends T> type, Function<Object[], T> function) {
+      this.type = type;
+      this.function = function;
+    }
+
+    @Override
+    public T evaluate(Object... args) {
+      try {
+        return function.apply(args);
+      } catch (RuntimeException e) {
+        // same contract as the compiled evaluators
+        throw new IllegalArgumentException(e);
+      }
+    }
+
+    @Override
+    public Class<? extends T> getType() {
+      return type;
+    }
+  }
+}
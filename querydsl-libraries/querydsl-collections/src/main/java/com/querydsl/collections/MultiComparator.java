@@ -46,16 +46,25 @@ public class MultiComparator<T> implements Comparator<T>, Serializable {
   @Override
   public int compare(T o1, T o2) {
     if (o1 instanceof Object[]) {
-      return innerCompare(ev.evaluate((Object[]) o1), ev.evaluate((Object[]) o2));
+      return compareKeys(ev.evaluate((Object[]) o1), ev.evaluate((Object[]) o2));
     } else {
-      return innerCompare(ev.evaluate(o1), ev.evaluate(o2));
+      return compareKeys(ev.evaluate(o1), ev.evaluate(o2));
     }
   }
 
-  private int innerCompare(Object[] o1, Object[] o2) {
+  /**
+   * Compare the given evaluated sort keys
+   *
+   * @param o1 first sort key
+   * @param o2 second sort key
+   * @return comparison result
+   */
+  int compareKeys(Object[] o1, Object[] o2) {
     for (int i = 0; i < o1.length; i++) {
       if (o1[i] == null) {
-        return o2[i] == null ? 0 : nullsLast[i] ? 1 : -1;
+        if (o2[i] != null) {
+          return nullsLast[i] ? 1 : -1;
+        }
       } else if (o2[i] == null) {
         return nullsLast[i] ? -1 : 1;
       } else {
@@ -17,6 +17,7 @@ import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.Expression;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * {@code QueryEngine} defines an interface for the evaluation of ColQuery queries
@@ -52,4 +53,19 @@ public interface QueryEngine {
    * @return true, if at least one row was matched
    */
   boolean exists(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables);
+
+  /**
+   * Evaluate the given query and return the projection as a stream
+   *
+   * <p>The default implementation streams the result of {@link #list(QueryMetadata, Map,
+   * Expression)}. Implementations may evaluate the query lazily instead.
+   *
+   * @param metadata query metadata
+   * @param iterables source contents
+   * @return matching rows
+   */
+  default <T> Stream<T> stream(
+      QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables, Expression<T> projection) {
+    return list(metadata, iterables, projection).stream();
+  }
 }
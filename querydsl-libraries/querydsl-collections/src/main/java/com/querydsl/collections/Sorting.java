@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * {@code Sorting} provides sorting of query results with sort keys which are evaluated once per
+ * element
+ *
+ * <p>Each element is decorated with its sort key and position, the decorated elements are sorted
+ * and the elements are extracted again. The position keeps the sort stable. When only the first
+ * elements are needed, they are selected with a bounded heap instead of sorting all elements.
+ */
+final class Sorting {
+
+  /** Element with its sort key and position */
+  private static final class Entry {
+
+    private final Object[] key;
+
+    private final int index;
+
+    private final Object value;
+
+    Entry(Object[] key, int index, Object value) {
+      this.key = key;
+      this.index = index;
+      this.value = value;
+    }
+  }
+
+  private Sorting() {}
+
+  /**
+   * Sort the given elements
+   *
+   * @param list elements
+   * @param keys sort key function
+   * @param comparator sort key comparator
+   * @param parallel true, to evaluate the keys and sort in parallel
+   * @return sorted elements
+   */
+  static <T> List<T> sort(
+      List<T> list,
+      Function<? super T, Object[]> keys,
+      MultiComparator<?> comparator,
+      boolean parallel) {
+    IntStream indexes = IntStream.range(0, list.size());
+    if (parallel) {
+      indexes = indexes.parallel();
+    }
+    Entry[] entries =
+        indexes
+            .mapToObj(
+                i -> {
+                  T value = list.get(i);
+                  return new Entry(keys.apply(value), i, value);
+                })
+            .toArray(Entry[]::new);
+    if (parallel) {
+      Arrays.parallelSort(entries, entryComparator(comparator));
+    } else {
+      Arrays.sort(entries, entryComparator(comparator));
+    }
+    return values(Arrays.asList(entries));
+  }
+
+  /**
+   * Get the first elements of the given elements in sort order
+   *
+   * @param list elements
+   * @param keys sort key function
+   * @param comparator sort key comparator
+   * @param size amount of elements to return
+   * @return first elements in sort order
+   */
+  static <T> List<T> top(
+      List<T> list, Function<? super T, Object[]> keys, MultiComparator<?> comparator, int size) {
+    if (size <= 0) {
+      return new ArrayList<>();
+    }
+    Comparator<Entry> entryComparator = entryComparator(comparator);
+    // max heap which holds the smallest entries seen so far
+    PriorityQueue<Entry> heap = new PriorityQueue<>(size, entryComparator.reversed());
+    for (int i = 0; i < list.size(); i++) {
+      T value = list.get(i);
+      Object[] key = keys.apply(value);
+      if (heap.size() < size) {
+        heap.add(new Entry(key, i, value));
+      } else if (comparator.compareKeys(key, heap.peek().key) < 0) {
+        // later elements only replace strictly greater ones to keep the sort stable
+        heap.poll();
+        heap.add(new Entry(key, i, value));
+      }
+    }
+    List<Entry> entries = new ArrayList<>(heap);
+    entries.sort(entryComparator);
+    return values(entries);
+  }
+
+  private static Comparator<Entry> entryComparator(MultiComparator<?> comparator) {
+    return (e1, e2) -> {
+      int res = comparator.compareKeys(e1.key, e2.key);
+      return res != 0 ? res : Integer.compare(e1.index, e2.index);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> values(List<Entry> entries) {
+    List<T> rv = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      rv.add((T) entry.value);
+    }
+    return rv;
+  }
+}
@@ -0,0 +1,77 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class DefaultEvaluatorFactoryTest {
+
+  private static final QCat cat = QCat.cat;
+
+  private final DefaultEvaluatorFactory evaluatorFactory =
+      new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT);
+
+  private final QueryEngine queryEngine = new DefaultQueryEngine(evaluatorFactory);
+
+  private final List<Cat> cats =
+      Arrays.asList(new Cat("Bob", 1), new Cat("Ruth", 2), new Cat("Felix", 3));
+
+  private List<Integer> ids(Predicate where) {
+    return CollQueryFactory.from(queryEngine, cat, cats).where(where).select(cat.id).fetch();
+  }
+
+  @Test
+  public void constants_are_bound_at_evaluation() {
+    assertThat(ids(cat.name.eq("Bob"))).containsExactly(1);
+    assertThat(ids(cat.name.eq("Ruth"))).containsExactly(2);
+    assertThat(ids(cat.name.eq("Felix"))).containsExactly(3);
+    assertThat(evaluatorFactory.getCompilationCount()).isEqualTo(2);
+    assertThat(evaluatorFactory.getCacheSize()).isEqualTo(2);
+  }
+
+  @Test
+  public void equal_constants() {
+    assertThat(ids(cat.name.eq("Bob").or(cat.name.eq("Bob")))).containsExactly(1);
+    assertThat(ids(cat.name.eq("Bob").or(cat.name.eq("Ruth")))).containsExactly(1, 2);
+    assertThat(evaluatorFactory.getCompilationCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void collection_types() {
+    assertThat(ids(cat.name.in(Arrays.asList("Bob", "Ruth")))).containsExactly(1, 2);
+    assertThat(ids(cat.name.in(new HashSet<>(Arrays.asList("Felix"))))).containsExactly(3);
+    assertThat(ids(cat.name.in(Collections.singletonList("Ruth")))).containsExactly(2);
+    assertThat(evaluatorFactory.getCompilationCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void anonymous_params() {
+    List<String> names = Arrays.asList("Bob", "Ruth", "Felix");
+    for (int i = 0; i < names.size(); i++) {
+      Param<String> param = new Param<>(String.class);
+      assertThat(
+              CollQueryFactory.from(queryEngine, cat, cats)
+                  .where(cat.name.eq(param))
+                  .set(param, names.get(i))
+                  .select(cat.id)
+                  .fetch())
+          .containsExactly(i + 1);
+    }
+    assertThat(ids(cat.name.eq("Bob"))).containsExactly(1);
+    assertThat(evaluatorFactory.getCompilationCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void compile_time_histogram() {
+    ids(cat.name.eq("Bob"));
+    ids(cat.id.gt(1));
+    assertThat(evaluatorFactory.getCompileTimeHistogram().values().stream().mapToLong(l -> l).sum())
+        .isEqualTo(evaluatorFactory.getCompilationCount());
+  }
+}
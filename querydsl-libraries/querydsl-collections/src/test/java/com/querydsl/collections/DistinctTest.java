@@ -15,8 +15,11 @@ package com.querydsl.collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberPath;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
@@ -79,4 +82,59 @@ public class DistinctTest extends AbstractQueryTest {
     assertThat(CollQueryFactory.<Integer>from(intVar1, Arrays.asList(null, 1)).distinct().fetch())
         .isEqualTo(Arrays.asList(null, 1));
   }
+
+  @Test
+  public void limit_and_offset() {
+    assertThat(CollQueryFactory.from(intVar1, list1).distinct().limit(2).fetch())
+        .isEqualTo(Arrays.asList(1, 2));
+    assertThat(CollQueryFactory.from(intVar1, list1).distinct().offset(1).limit(2).fetch())
+        .isEqualTo(Arrays.asList(2, 3));
+    assertThat(
+            CollQueryFactory.from(intVar1, list1)
+                .orderBy(intVar1.desc())
+                .distinct()
+                .limit(2)
+                .fetch())
+        .isEqualTo(Arrays.asList(4, 3));
+    assertThat(CollQueryFactory.from(intVar1, list1).distinct().offset(4).fetch()).isEmpty();
+  }
+
+  @Test
+  public void tuples() {
+    List<Tuple> tuples =
+        CollQueryFactory.from(intVar1, list1)
+            .from(intVar2, list2)
+            .where(intVar1.goe(3))
+            .distinct()
+            .select(intVar1, intVar2.multiply(0))
+            .fetch();
+    assertThat(tuples).hasSize(2);
+    assertThat(tuples.get(0).get(intVar1)).isEqualTo(3);
+    assertThat(tuples.get(1).get(intVar1)).isEqualTo(4);
+  }
+
+  @Test
+  public void arrays() {
+    List<Integer[]> rows =
+        CollQueryFactory.from(intVar1, list1)
+            .distinct()
+            .select(Projections.array(Integer[].class, intVar1.divide(2), intVar1.mod(2)))
+            .fetch();
+    assertThat(rows)
+        .containsExactly(
+            new Integer[] {0, 1}, new Integer[] {1, 0}, new Integer[] {1, 1}, new Integer[] {2, 0});
+  }
+
+  @Test
+  public void many_rows() {
+    List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 200000; i++) {
+      values.add(i % 1000);
+    }
+    List<Integer> distinct = CollQueryFactory.from(intVar1, values).distinct().fetch();
+    assertThat(distinct).hasSize(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(distinct.get(i)).isEqualTo(i);
+    }
+  }
 }
@@ -0,0 +1,189 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class HashJoinTest {
+
+  private final QCat cat = new QCat("cat");
+
+  private final QCat other = new QCat("other");
+
+  private final QCat third = new QCat("third");
+
+  private static List<Cat> cats(int size, int modulo) {
+    List<Cat> cats = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Cat cat = new Cat("cat" + (i % modulo), i);
+      cat.setBreed(i % modulo);
+      cats.add(cat);
+    }
+    return cats;
+  }
+
+  private static List<String> names(List<Tuple> tuples, QCat... cats) {
+    return tuples.stream()
+        .map(
+            t -> {
+              StringBuilder b = new StringBuilder();
+              for (QCat c : cats) {
+                b.append(t.get(c.id)).append(' ');
+              }
+              return b.toString().trim();
+            })
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> nestedLoops(
+      List<Cat> left, List<Cat> right, java.util.function.BiPredicate<Cat, Cat> condition) {
+    List<String> rv = new ArrayList<>();
+    for (Cat l : left) {
+      for (Cat r : right) {
+        if (condition.test(l, r)) {
+          rv.add(l.getId() + " " + r.getId());
+        }
+      }
+    }
+    return rv;
+  }
+
+  @Test
+  public void build_on_right() {
+    List<Cat> left = cats(50, 7);
+    List<Cat> right = cats(20, 5);
+    List<Tuple> result =
+        CollQueryFactory.from(cat, left)
+            .from(other, right)
+            .where(cat.breed.eq(other.breed))
+            .select(cat.id, other.id)
+            .fetch();
+    assertThat(names(result, cat, other))
+        .isEqualTo(nestedLoops(left, right, (l, r) -> l.getBreed() == r.getBreed()));
+  }
+
+  @Test
+  public void build_on_left() {
+    List<Cat> left = cats(20, 5);
+    List<Cat> right = cats(50, 7);
+    List<Tuple> result =
+        CollQueryFactory.from(cat, left)
+            .from(other, right)
+            .where(other.breed.eq(cat.breed))
+            .select(cat.id, other.id)
+            .fetch();
+    assertThat(names(result, cat, other))
+        .isEqualTo(nestedLoops(left, right, (l, r) -> l.getBreed() == r.getBreed()));
+  }
+
+  @Test
+  public void composite_keys_and_filters() {
+    List<Cat> left = cats(60, 6);
+    List<Cat> right = cats(40, 4);
+    List<Tuple> result =
+        CollQueryFactory.from(cat, left)
+            .from(other, right)
+            .where(
+                cat.breed.eq(other.breed),
+                other.name.eq(cat.name),
+                cat.id.gt(10),
+                other.id.lt(cat.id))
+            .select(cat.id, other.id)
+            .fetch();
+    assertThat(names(result, cat, other))
+        .isEqualTo(
+            nestedLoops(
+                left,
+                right,
+                (l, r) ->
+                    l.getBreed() == r.getBreed()
+                        && l.getName().equals(r.getName())
+                        && l.getId() > 10
+                        && r.getId() < l.getId()));
+  }
+
+  @Test
+  public void three_sources() {
+    List<Cat> cats = cats(30, 3);
+    List<Tuple> result =
+        CollQueryFactory.from(cat, cats)
+            .from(other, cats)
+            .from(third, cats)
+            .where(cat.id.eq(other.id), third.breed.eq(other.breed), third.id.lt(5))
+            .select(cat.id, other.id, third.id)
+            .fetch();
+    List<String> expected = new ArrayList<>();
+    for (Cat c : cats) {
+      for (Cat o : cats) {
+        for (Cat t : cats) {
+          if (c.getId() == o.getId() && t.getBreed() == o.getBreed() && t.getId() < 5) {
+            expected.add(c.getId() + " " + o.getId() + " " + t.getId());
+          }
+        }
+      }
+    }
+    assertThat(names(result, cat, other, third)).isEqualTo(expected);
+  }
+
+  @Test
+  public void null_keys() {
+    List<Cat> left = cats(4, 4);
+    List<Cat> right = cats(4, 4);
+    left.get(1).setName(null);
+    right.get(2).setName(null);
+    left.get(3).setMate(new Cat("cat0", 0));
+    List<Tuple> result =
+        CollQueryFactory.from(cat, left)
+            .from(other, right)
+            .where(cat.name.eq(other.name))
+            .select(cat.id, other.id)
+            .fetch();
+    // null matches null like CollQueryFunctions.equals
+    assertThat(names(result, cat, other)).containsExactly("0 0", "1 2", "3 3");
+
+    result =
+        CollQueryFactory.from(cat, left)
+            .from(other, right)
+            .where(cat.mate.name.eq(other.name))
+            .select(cat.id, other.id)
+            .fetch();
+    // rows causing NPEs are skipped
+    assertThat(names(result, cat, other)).containsExactly("3 0");
+  }
+
+  @Test
+  public void count_and_exists() {
+    List<Cat> left = cats(100, 10);
+    List<Cat> right = cats(100, 10);
+    assertThat(
+            CollQueryFactory.from(cat, left)
+                .from(other, right)
+                .where(cat.breed.eq(other.breed))
+                .fetchCount())
+        .isEqualTo(1000);
+    assertThat(
+            CollQueryFactory.from(cat, left)
+                .from(other, right)
+                .where(cat.breed.eq(other.breed), other.breed.eq(11))
+                .fetchFirst())
+        .isNull();
+  }
+
+  @Test
+  public void large() {
+    List<Cat> left = cats(20000, 20000);
+    List<Cat> right = cats(20000, 20000);
+    assertThat(
+            CollQueryFactory.from(cat, left)
+                .from(other, right)
+                .where(cat.id.eq(other.id))
+                .orderBy(cat.id.desc())
+                .select(cat.id)
+                .fetchFirst())
+        .isEqualTo(19999);
+  }
+}
@@ -0,0 +1,162 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class IndexedListTest {
+
+  private static final QCat cat = QCat.cat;
+
+  private final List<Cat> data = new ArrayList<>();
+
+  {
+    Random random = new Random(3);
+    for (int i = 0; i < 2000; i++) {
+      Cat c = new Cat(random.nextInt(10) == 0 ? null : "cat" + random.nextInt(100), i);
+      c.setBodyWeight(random.nextInt(50));
+      data.add(c);
+    }
+  }
+
+  private final IndexedList<Cat> cats =
+      new IndexedList<>(cat, data).addHashIndex(cat.name).addSortedIndex(cat.bodyWeight);
+
+  private void assertSameResults(Predicate... where) {
+    assertThat(CollQueryFactory.from(cat, cats).where(where).fetch())
+        .isEqualTo(CollQueryFactory.from(cat, data).where(where).fetch());
+    assertThat(CollQueryFactory.from(cat, cats).where(where).limit(5).fetch())
+        .isEqualTo(CollQueryFactory.from(cat, data).where(where).limit(5).fetch());
+    assertThat(CollQueryFactory.from(cat, cats).where(where).fetchCount())
+        .isEqualTo(CollQueryFactory.from(cat, data).where(where).fetchCount());
+  }
+
+  private int candidates(Predicate... where) {
+    CollQuery<Cat> query = CollQueryFactory.from(cat, cats).where(where);
+    List<Cat> candidates =
+        IndexLookup.getCandidates(cats, CollQueryTemplates.DEFAULT, query.getMetadata(), cat);
+    return candidates != null ? candidates.size() : -1;
+  }
+
+  @Test
+  public void index_usage() {
+    int named = (int) CollQueryFactory.from(cat, data).where(cat.name.eq("cat7")).fetchCount();
+    assertThat(candidates(cat.name.eq("cat7"))).isEqualTo(named);
+    assertThat(candidates(cat.bodyWeight.goe(0), cat.name.eq("cat7"))).isEqualTo(named);
+    assertThat(candidates(cat.bodyWeight.goe(100))).isZero();
+    assertThat(candidates(cat.name.isNull())).isEqualTo(-1);
+    assertThat(candidates(cat.id.eq(5))).isEqualTo(-1);
+    assertThat(candidates(cat.name.eq("cat7").or(cat.id.eq(5)))).isEqualTo(-1);
+  }
+
+  @Test
+  public void hash_index() {
+    assertSameResults(cat.name.eq("cat7"));
+    assertSameResults(cat.name.in("cat1", "cat2", "cat1"));
+    assertSameResults(cat.name.eq("unknown"));
+    assertSameResults(cat.name.eq("cat3"), cat.id.gt(1000));
+  }
+
+  @Test
+  public void sorted_index() {
+    assertSameResults(cat.bodyWeight.between(10, 20));
+    assertSameResults(cat.bodyWeight.goe(45));
+    assertSameResults(cat.bodyWeight.gt(45));
+    assertSameResults(cat.bodyWeight.lt(3));
+    assertSameResults(cat.bodyWeight.loe(3));
+    assertSameResults(cat.bodyWeight.eq(7));
+    assertSameResults(cat.bodyWeight.in(7, 9));
+    assertSameResults(cat.bodyWeight.between(20, 10));
+  }
+
+  @Test
+  public void constant_on_left_side() {
+    assertSameResults(Expressions.ONE.add(40).lt(cat.bodyWeight), cat.name.isNotNull());
+    Param<Integer> weight = new Param<>(Integer.class, "weight");
+    assertThat(
+            CollQueryFactory.from(cat, cats)
+                .where(cat.bodyWeight.eq(weight))
+                .set(weight, 5)
+                .fetch())
+        .isEqualTo(
+            CollQueryFactory.from(cat, data)
+                .where(cat.bodyWeight.eq(weight))
+                .set(weight, 5)
+                .fetch());
+  }
+
+  @Test
+  public void most_selective_index() {
+    assertSameResults(cat.bodyWeight.goe(0), cat.name.eq("cat5"));
+    assertSameResults(cat.name.isNotNull(), cat.bodyWeight.eq(5).or(cat.bodyWeight.eq(6)));
+  }
+
+  @Test
+  public void modifications() {
+    Cat added = new Cat("cat7", 5000);
+    cats.add(added);
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.name.eq("cat7")).fetch()).endsWith(added);
+    cats.remove(0);
+    cats.set(0, new Cat("replaced", 6000));
+    data.add(added);
+    data.remove(0);
+    data.set(0, cats.get(0));
+    assertSameResults(cat.name.eq("cat7"));
+    assertSameResults(cat.name.eq("replaced"));
+    cats.clear();
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.name.eq("cat7")).fetch()).isEmpty();
+  }
+
+  @Test
+  public void update_clause() {
+    long updated =
+        CollQueryFactory.update(cat, cats)
+            .where(cat.name.eq("cat1"))
+            .set(cat.name, "renamed")
+            .execute();
+    assertThat(updated).isPositive();
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.name.eq("cat1")).fetch()).isEmpty();
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.name.eq("renamed")).fetch())
+        .hasSize((int) updated);
+  }
+
+  @Test
+  public void delete_clause() {
+    long deleted = CollQueryFactory.delete(cat, cats).where(cat.bodyWeight.lt(10)).execute();
+    assertThat(deleted).isPositive();
+    assertThat(cats).hasSize(data.size() - (int) deleted);
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.bodyWeight.lt(10)).fetch()).isEmpty();
+    assertThat(CollQueryFactory.from(cat, cats).where(cat.bodyWeight.lt(11)).fetch())
+        .isEqualTo(CollQueryFactory.from(cat, data).where(cat.bodyWeight.eq(10)).fetch());
+  }
+
+  @Test
+  public void isIndexed() {
+    QCat other = new QCat("other");
+    assertThat(cats.isIndexed(cat.name)).isTrue();
+    assertThat(cats.isIndexed(other.name)).isTrue();
+    assertThat(cats.isIndexed(cat.id)).isFalse();
+    assertThat(CollQueryFactory.from(other, cats).where(other.name.eq("cat7")).fetch())
+        .isEqualTo(CollQueryFactory.from(cat, data).where(cat.name.eq("cat7")).fetch());
+  }
+
+  @Test
+  public void floating_point_properties() {
+    assertThatThrownBy(() -> cats.addHashIndex(Expressions.numberPath(Double.class, cat, "weight")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void list_semantics() {
+    assertThat(cats).isEqualTo(data);
+    assertThat(new IndexedList<>(cat, Arrays.asList(data.get(0))).get(0)).isSameAs(data.get(0));
+  }
+}
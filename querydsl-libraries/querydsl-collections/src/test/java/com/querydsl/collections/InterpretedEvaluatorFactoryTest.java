@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.codegen.utils.EvaluatorFactory;
+import com.querydsl.codegen.utils.model.ClassType;
+import com.querydsl.codegen.utils.model.Type;
+import com.querydsl.core.Fetchable;
+import com.querydsl.core.QueryExecution;
+import com.querydsl.core.QuerydslModule;
+import com.querydsl.core.Target;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class InterpretedEvaluatorFactoryTest {
+
+  private static class NoCompilation implements EvaluatorFactory {
+
+    private final List<String> sources = new ArrayList<>();
+
+    @Override
+    public <T> Evaluator<T> createEvaluator(
+        String source,
+        Class<? extends T> projectionType,
+        String[] names,
+        Class<?>[] classes,
+        Map<String, Object> constants) {
+      sources.add(source);
+      throw new UnsupportedOperationException(source);
+    }
+
+    @Override
+    public <T> Evaluator<T> createEvaluator(
+        String source,
+        ClassType projection,
+        String[] names,
+        Type[] types,
+        Class<?>[] classes,
+        Map<String, Object> constants) {
+      sources.add(source);
+      throw new UnsupportedOperationException(source);
+    }
+  }
+
+  private final Date birthDate = new Date();
+
+  private final QCat cat = new QCat("cat");
+
+  private final QCat otherCat = new QCat("otherCat");
+
+  private final QCat kitten = new QCat("kitten");
+
+  private final List<Cat> data =
+      Arrays.asList(
+          new Cat("Bob", 1, birthDate),
+          new Cat("Ruth", 2, birthDate),
+          new Cat("Felix", 3, birthDate),
+          new Cat("Allen", 4, birthDate),
+          new Cat("Mary", 5, birthDate));
+
+  private final NoCompilation noCompilation = new NoCompilation();
+
+  private final QueryEngine interpreted = DefaultQueryEngine.getInterpreted();
+
+  private final QueryEngine strict =
+      new DefaultQueryEngine(
+          new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, noCompilation));
+
+  private final QueryEngine compiled = DefaultQueryEngine.getDefault();
+
+  private <T> void assertSameResults(Function<QueryEngine, List<T>> query) {
+    assertThat(query.apply(strict)).isEqualTo(query.apply(compiled));
+    assertThat(noCompilation.sources).isEmpty();
+  }
+
+  @Test
+  public void standard() {
+    QueryExecution standardTest =
+        new QueryExecution(QuerydslModule.COLLECTIONS, Target.MEM) {
+          @Override
+          protected Fetchable<?> createQuery() {
+            return CollQueryFactory.from(strict, cat, data).from(otherCat, data);
+          }
+
+          @Override
+          protected Fetchable<?> createQuery(Predicate filter) {
+            return CollQueryFactory.from(strict, cat, data)
+                .from(otherCat, data)
+                .where(filter)
+                .select(cat.name);
+          }
+        };
+    Cat kitten = data.getFirst().getKittens().get(0);
+    java.sql.Date date = new java.sql.Date(birthDate.getTime());
+    java.sql.Time time = new java.sql.Time(birthDate.getTime());
+    standardTest.runArrayTests(cat.kittenArray, otherCat.kittenArray, kitten, new Cat());
+    standardTest.runBooleanTests(cat.name.isNull(), otherCat.kittens.isEmpty());
+    standardTest.runCollectionTests(cat.kittens, otherCat.kittens, kitten, new Cat());
+    standardTest.runDateTests(cat.dateField, otherCat.dateField, date);
+    standardTest.runDateTimeTests(cat.birthdate, otherCat.birthdate, birthDate);
+    standardTest.runListTests(cat.kittens, otherCat.kittens, kitten, new Cat());
+    standardTest.runMapTests(
+        cat.kittensByName, otherCat.kittensByName, "Kitty", kitten, "NoName", new Cat());
+    standardTest.runNumericCasts(cat.id, otherCat.id, 1);
+    standardTest.runNumericTests(cat.id, otherCat.id, 1);
+    standardTest.runStringTests(cat.name, otherCat.name, "Bob");
+    standardTest.runTimeTests(cat.timeField, otherCat.timeField, time);
+    standardTest.report();
+    assertThat(noCompilation.sources).isEmpty();
+  }
+
+  @Test
+  public void filter() {
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .where(cat.name.startsWith("M").or(cat.id.goe(4)), cat.mate.isNull())
+                .fetch());
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .where(cat.name.likeIgnoreCase("%L%"), cat.bodyWeight.between(0, 10))
+                .fetch());
+    assertSameResults(
+        qe -> CollQueryFactory.from(qe, cat, data).where(cat.mate.name.eq("Bob")).fetch());
+  }
+
+  @Test
+  public void projection() {
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .select(cat.name.concat("!").toUpperCase(), cat.id.multiply(2).add(1))
+                .fetch());
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .select(
+                    new CaseBuilder()
+                        .when(cat.id.eq(1))
+                        .then("one")
+                        .when(cat.id.eq(2))
+                        .then("two")
+                        .otherwise(cat.name.substring(0, 2)))
+                .fetch());
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .select(Projections.constructor(Projection.class, cat.name, cat))
+                .fetch()
+                .stream()
+                .map(p -> p.getClass())
+                .collect(java.util.stream.Collectors.toList()));
+  }
+
+  @Test
+  public void order_and_aggregate() {
+    assertSameResults(qe -> CollQueryFactory.from(qe, cat, data).orderBy(cat.name.desc()).fetch());
+    assertSameResults(
+        qe -> CollQueryFactory.from(qe, cat, data).select(cat.id.sumAggregate()).fetch());
+    assertSameResults(
+        qe ->
+            Collections.singletonList(
+                CollQueryFactory.from(qe, cat, data).where(cat.id.lt(3)).fetchCount()));
+  }
+
+  @Test
+  public void joins() {
+    List<Cat> cats = new ArrayList<>(data);
+    cats.add(new Cat("Childless"));
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, cats)
+                .innerJoin(cat.kittens, kitten)
+                .where(kitten.name.eq(cat.name))
+                .select(cat.name, kitten.id)
+                .fetch());
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, cats)
+                .leftJoin(cat.kittensByName, kitten)
+                .select(cat.name, kitten.name)
+                .fetch());
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .from(otherCat, data)
+                .where(cat.id.eq(otherCat.id.add(1)))
+                .select(cat.name, otherCat.name)
+                .fetch());
+  }
+
+  @Test
+  public void params() {
+    Param<String> name = new Param<String>(String.class, "name");
+    assertSameResults(
+        qe ->
+            CollQueryFactory.from(qe, cat, data)
+                .where(cat.name.eq(name))
+                .set(name, "Bob")
+                .select(cat.name)
+                .fetch());
+  }
+
+  @Test
+  public void null_safety() {
+    List<Cat> cats = Arrays.asList(new Cat(), new Cat("Bob"));
+    assertSameResults(
+        qe -> CollQueryFactory.from(qe, cat, cats).where(cat.name.length().gt(1)).fetch());
+  }
+
+  @Test
+  public void unsupported_expressions_are_compiled() {
+    List<Tuple> expected =
+        CollQueryFactory.from(compiled, cat, data)
+            .select(cat.name, Expressions.numberTemplate(Integer.class, "{0}.length()", cat.name))
+            .fetch();
+    List<Tuple> actual =
+        CollQueryFactory.from(interpreted, cat, data)
+            .select(cat.name, Expressions.numberTemplate(Integer.class, "{0}.length()", cat.name))
+            .fetch();
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void customized_templates_are_compiled() {
+    CollQueryTemplates templates =
+        new CollQueryTemplates() {
+          {
+            add(com.querydsl.core.types.Ops.STRING_LENGTH, "{0}.length() * 2");
+          }
+        };
+    QueryEngine engine =
+        new DefaultQueryEngine(new InterpretedEvaluatorFactory(templates, noCompilation));
+    try {
+      CollQueryFactory.from(engine, cat, data).select(cat.name.length()).fetch();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    assertThat(noCompilation.sources).hasSize(1);
+  }
+}
@@ -0,0 +1,97 @@
+package com.querydsl.collections;
+
+import com.querydsl.core.testutil.Performance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/** Compares the compiled and the interpreted evaluators for first and repeated executions */
+@Ignore
+@Category(Performance.class)
+@State(Scope.Benchmark)
+public class InterpretedQueryPerformanceTest {
+
+  private static final int size = 1000;
+
+  private static final List<Cat> cats = new ArrayList<Cat>(size);
+
+  static {
+    for (int i = 0; i < size; i++) {
+      cats.add(new Cat(String.valueOf(i), i));
+    }
+  }
+
+  private final QueryEngine compiled = DefaultQueryEngine.getDefault();
+
+  private final QueryEngine interpreted = DefaultQueryEngine.getInterpreted();
+
+  private static List<String> query(QueryEngine queryEngine) {
+    QCat cat = QCat.cat;
+    return CollQueryFactory.from(queryEngine, cat, cats)
+        .where(
+            cat.id.goe(ThreadLocalRandom.current().nextInt(size)),
+            cat.name.startsWith("1").or(cat.bodyWeight.eq(0)))
+        .orderBy(cat.name.desc())
+        .select(cat.name.concat("-").concat(cat.id.stringValue()))
+        .fetch();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public List<String> compiled_first() {
+    return query(new DefaultQueryEngine(new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT)));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public List<String> interpreted_first() {
+    return query(
+        new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT)));
+  }
+
+  @Benchmark
+  public List<String> compiled_repeated() {
+    return query(compiled);
+  }
+
+  @Benchmark
+  public List<String> interpreted_repeated() {
+    return query(interpreted);
+  }
+
+  @Test
+  public void launchBenchmark() throws Exception {
+    Options opt =
+        new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .threads(2)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,131 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class LazyEvaluationTest {
+
+  private final NumberPath<Integer> var1 = Expressions.numberPath(Integer.class, "var1");
+
+  private final NumberPath<Integer> var2 = Expressions.numberPath(Integer.class, "var2");
+
+  private int pulled;
+
+  /** Infinite sequence 0, 1, 2, ... which counts the pulled elements */
+  private final Iterable<Integer> numbers =
+      () ->
+          new Iterator<Integer>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+              return true;
+            }
+
+            @Override
+            public Integer next() {
+              pulled++;
+              return next++;
+            }
+          };
+
+  @Test
+  public void fetchFirst() {
+    assertThat(CollQueryFactory.from(var1, numbers).where(var1.gt(10)).fetchFirst()).isEqualTo(11);
+    assertThat(pulled).isEqualTo(12);
+  }
+
+  @Test
+  public void exists() {
+    CollQuery<?> query = CollQueryFactory.from(var1, numbers).where(var1.mod(7).eq(6));
+    assertThat(
+            DefaultQueryEngine.getDefault()
+                .exists(query.getMetadata(), Collections.singletonMap(var1, numbers)))
+        .isTrue();
+    assertThat(pulled).isEqualTo(7);
+  }
+
+  @Test
+  public void limit() {
+    List<Integer> rv =
+        CollQueryFactory.from(var1, numbers)
+            .where(var1.mod(2).eq(0))
+            .offset(2)
+            .limit(3)
+            .select(var1.multiply(10))
+            .fetch();
+    assertThat(rv).containsExactly(40, 60, 80);
+    assertThat(pulled).isEqualTo(9);
+  }
+
+  @Test
+  public void distinct() {
+    List<Integer> rv =
+        CollQueryFactory.from(var1, numbers).distinct().limit(4).select(var1.divide(3)).fetch();
+    assertThat(rv).containsExactly(0, 1, 2, 3);
+    assertThat(pulled).isEqualTo(10);
+  }
+
+  @Test
+  public void stream() {
+    List<Integer> rv =
+        CollQueryFactory.from(var1, numbers).where(var1.lt(100)).stream()
+            .limit(5)
+            .collect(Collectors.toList());
+    assertThat(rv).containsExactly(0, 1, 2, 3, 4);
+    assertThat(pulled).isEqualTo(5);
+  }
+
+  @Test
+  public void iterate() {
+    Iterator<Integer> rows = CollQueryFactory.from(var1, numbers).where(var1.gt(5)).iterate();
+    assertThat(rows.next()).isEqualTo(6);
+    assertThat(rows.next()).isEqualTo(7);
+    assertThat(pulled).isEqualTo(8);
+  }
+
+  @Test
+  public void multiple_sources() {
+    List<Integer> small = Arrays.asList(1, 2, 3);
+    List<Integer> rv =
+        CollQueryFactory.from(var1, small)
+            .from(var2, numbers)
+            .where(var2.gt(var1))
+            .limit(2)
+            .select(var1.add(var2))
+            .fetch();
+    assertThat(rv).containsExactly(3, 4);
+    assertThat(pulled).isEqualTo(4);
+  }
+
+  @Test
+  public void same_results_as_eager_evaluation() {
+    List<Integer> values = Arrays.asList(5, null, 3, 5, 8, null, 1);
+    for (int limit = 1; limit < 8; limit++) {
+      List<Integer> lazy =
+          CollQueryFactory.from(var1, values)
+              .where(var1.gt(2))
+              .distinct()
+              .limit(limit)
+              .select(var1)
+              .fetch();
+      List<Integer> eager =
+          CollQueryFactory.from(var1, values)
+              .where(var1.gt(2))
+              .distinct()
+              .orderBy(Expressions.ONE.asc())
+              .limit(limit)
+              .select(var1)
+              .fetch();
+      assertThat(lazy).isEqualTo(eager);
+    }
+  }
+}
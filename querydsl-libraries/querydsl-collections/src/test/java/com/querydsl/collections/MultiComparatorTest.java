@@ -42,4 +42,13 @@ public class MultiComparatorTest {
     assertThat(comparator.compare(new Object[] {"b", "a"}, new Object[] {"a", "b"}) > 0).isTrue();
     assertThat(comparator.compare(new Object[] {"b", "b"}, new Object[] {"b", "b"}) == 0).isTrue();
   }
+
+  @Test
+  public void nulls_are_compared_by_next_key() {
+    MultiComparator<Object[]> comparator =
+        new MultiComparator<Object[]>(
+            evaluator, new boolean[] {true, true}, new boolean[] {true, true});
+    assertThat(comparator.compare(new Object[] {null, "b"}, new Object[] {null, "c"}) < 0).isTrue();
+    assertThat(comparator.compare(new Object[] {null, "b"}, new Object[] {"a", "a"}) > 0).isTrue();
+  }
 }
@@ -0,0 +1,114 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.dsl.NumberPath;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ParallelQueryTest {
+
+  private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+  private static final QueryEngine parallel =
+      new DefaultQueryEngine(new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT), pool);
+
+  private static final QCat cat = QCat.cat;
+
+  private static final QCat otherCat = new QCat("otherCat");
+
+  private final List<Cat> cats = new ArrayList<>();
+
+  {
+    Random random = new Random(7);
+    for (int i = 0; i < 50000; i++) {
+      Cat c = new Cat(random.nextInt(20) == 0 ? null : "cat" + random.nextInt(1000), i);
+      c.setBodyWeight(random.nextInt(100));
+      cats.add(c);
+    }
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    pool.shutdown();
+  }
+
+  private <T> void assertSameResults(Function<CollQuery<Cat>, CollQuery<T>> query) {
+    List<T> expected = query.apply(CollQueryFactory.from(cat, cats)).fetch();
+    List<T> actual = query.apply(CollQueryFactory.from(parallel, cat, cats)).fetch();
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void filter() {
+    assertSameResults(q -> q.where(cat.bodyWeight.gt(50)));
+    assertSameResults(q -> q.where(cat.name.startsWith("cat1")));
+  }
+
+  @Test
+  public void projection() {
+    assertSameResults(q -> q.where(cat.bodyWeight.lt(20)).select(cat.name.concat("!")));
+    assertSameResults(q -> q.select(cat.id.multiply(2)));
+  }
+
+  @Test
+  public void order() {
+    assertSameResults(q -> q.orderBy(cat.bodyWeight.desc(), cat.name.asc()));
+    assertSameResults(
+        q -> q.orderBy(cat.name.asc().nullsFirst()).offset(100).limit(20000).select(cat.id));
+  }
+
+  @Test
+  public void distinct() {
+    assertSameResults(q -> q.distinct().select(cat.bodyWeight));
+    assertSameResults(q -> q.distinct().offset(5).limit(10).select(cat.name));
+  }
+
+  @Test
+  public void aggregates() {
+    assertSameResults(q -> q.select(cat.bodyWeight.sumAggregate()));
+    assertSameResults(q -> q.select(cat.bodyWeight.avg()));
+    assertSameResults(q -> q.select(cat.bodyWeight.min()));
+    assertSameResults(q -> q.select(cat.bodyWeight.max()));
+    assertSameResults(q -> q.select(cat.bodyWeight.count()));
+    assertSameResults(q -> q.select(cat.bodyWeight.countDistinct()));
+    assertSameResults(q -> q.where(cat.bodyWeight.gt(90)).select(cat.id.sumAggregate()));
+    // floating point sums depend on the summation order
+    assertSameResults(q -> q.select(cat.bodyWeight.divide(7.0).sumAggregate()));
+    assertSameResults(q -> q.select(cat.id.divide(3.0).avg()));
+  }
+
+  @Test
+  public void multiple_sources() {
+    List<Cat> others = cats.subList(0, 3);
+    NumberPath<Integer> weight = cat.bodyWeight;
+    assertSameResults(
+        q ->
+            q.from(otherCat, others)
+                .where(weight.lt(otherCat.bodyWeight))
+                .select(cat.id.stringValue().concat(":").concat(otherCat.id.stringValue())));
+  }
+
+  @Test
+  public void small_sources_are_evaluated_sequentially() {
+    List<Cat> few = cats.subList(0, 10);
+    assertThat(
+            CollQueryFactory.from(parallel, cat, few)
+                .where(cat.bodyWeight.gt(50))
+                .select(cat.id)
+                .fetch())
+        .isEqualTo(
+            CollQueryFactory.from(cat, few).where(cat.bodyWeight.gt(50)).select(cat.id).fetch());
+  }
+
+  @Test
+  public void parallelFrom() {
+    assertThat(CollQueryFactory.parallelFrom(cat, cats).where(cat.bodyWeight.eq(3)).fetch())
+        .isEqualTo(CollQueryFactory.from(cat, cats).where(cat.bodyWeight.eq(3)).fetch());
+  }
+}
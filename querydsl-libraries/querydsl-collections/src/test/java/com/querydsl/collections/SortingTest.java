@@ -0,0 +1,139 @@
+package com.querydsl.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class SortingTest {
+
+  private static final QCat cat = QCat.cat;
+
+  private static final QCat otherCat = new QCat("otherCat");
+
+  private final List<Cat> cats = new ArrayList<>();
+
+  {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      Cat c = new Cat(random.nextInt(10) == 0 ? null : "cat" + random.nextInt(50), i);
+      c.setBodyWeight(random.nextInt(20));
+      cats.add(c);
+    }
+  }
+
+  private List<Integer> fullSort(OrderSpecifier<?>... order) {
+    return CollQueryFactory.from(cat, cats).orderBy(order).select(cat.id).fetch();
+  }
+
+  private List<Integer> topN(long offset, long limit, OrderSpecifier<?>... order) {
+    return CollQueryFactory.from(cat, cats)
+        .orderBy(order)
+        .offset(offset)
+        .limit(limit)
+        .select(cat.id)
+        .fetch();
+  }
+
+  private void assertTopN(OrderSpecifier<?>... order) {
+    List<Integer> all = fullSort(order);
+    for (long offset : new long[] {0, 3, 100}) {
+      for (long limit : new long[] {1, 5, 20, 200}) {
+        assertThat(topN(offset, limit, order))
+            .isEqualTo(all.subList((int) offset, (int) (offset + limit)));
+      }
+    }
+  }
+
+  @Test
+  public void single_key() {
+    assertTopN(cat.bodyWeight.asc());
+    assertTopN(cat.bodyWeight.desc());
+  }
+
+  @Test
+  public void multiple_keys() {
+    assertTopN(cat.bodyWeight.desc(), cat.name.asc());
+    assertTopN(cat.name.asc(), cat.bodyWeight.asc(), cat.id.desc());
+  }
+
+  @Test
+  public void nulls() {
+    assertTopN(cat.name.asc().nullsFirst(), cat.id.asc());
+    assertTopN(cat.name.asc().nullsLast(), cat.id.asc());
+    assertTopN(cat.name.desc().nullsLast());
+  }
+
+  @Test
+  public void stable() {
+    List<Integer> ids = topN(0, 30, cat.bodyWeight.asc());
+    List<Integer> expected =
+        cats.stream()
+            .sorted((c1, c2) -> Integer.compare(c1.getBodyWeight(), c2.getBodyWeight()))
+            .limit(30)
+            .map(Cat::getId)
+            .collect(Collectors.toList());
+    assertThat(ids).isEqualTo(expected);
+  }
+
+  @Test
+  public void join() {
+    List<Cat> source = cats.subList(0, 100);
+    NumberPath<Integer> weight = otherCat.bodyWeight;
+    StringPath name = cat.name;
+    List<String> all =
+        CollQueryFactory.from(cat, source)
+            .from(otherCat, source)
+            .where(otherCat.id.lt(50))
+            .orderBy(weight.desc(), name.asc(), cat.id.asc(), otherCat.id.asc())
+            .select(cat.id.stringValue().concat(":").concat(otherCat.id.stringValue()))
+            .fetch();
+    List<String> top =
+        CollQueryFactory.from(cat, source)
+            .from(otherCat, source)
+            .where(otherCat.id.lt(50))
+            .orderBy(weight.desc(), name.asc(), cat.id.asc(), otherCat.id.asc())
+            .offset(10)
+            .limit(25)
+            .select(cat.id.stringValue().concat(":").concat(otherCat.id.stringValue()))
+            .fetch();
+    assertThat(top).isEqualTo(all.subList(10, 35));
+  }
+
+  @Test
+  public void source_is_not_modified() {
+    List<Cat> copy = new ArrayList<>(cats);
+    fullSort(cat.bodyWeight.asc());
+    topN(0, 10, cat.bodyWeight.asc());
+    assertThat(cats).isEqualTo(copy);
+  }
+
+  @Test
+  public void null_elements() {
+    StringPath str = Expressions.stringPath("str");
+    List<String> source = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      source.add(i % 4 == 0 ? null : "s" + (char) ('a' + i));
+    }
+    List<String> all =
+        CollQueryFactory.from(str, source).orderBy(str.asc().nullsFirst()).select(str).fetch();
+    assertThat(all.subList(0, 6)).isEqualTo(Arrays.asList(null, null, null, null, null, "sb"));
+    assertThat(all).endsWith("st");
+    assertThat(
+            CollQueryFactory.from(str, source)
+                .orderBy(str.asc().nullsFirst())
+                .offset(2)
+                .limit(4)
+                .select(str)
+                .fetch())
+        .isEqualTo(all.subList(2, 6));
+  }
+}
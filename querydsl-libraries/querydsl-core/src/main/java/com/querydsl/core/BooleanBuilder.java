@@ -15,8 +15,13 @@ package com.querydsl.core;
 
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Visitor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,6 +47,11 @@ public final class BooleanBuilder implements Predicate, Cloneable {
 
   @Nullable private Predicate predicate;
 
+  // operands of the pending n-ary operation, combined into predicate on access
+  @Nullable private Operator operator;
+
+  @Nullable private List<Expression<?>> operands;
+
   /** Create an empty BooleanBuilder */
   public BooleanBuilder() {}
 
@@ -56,6 +66,7 @@ public final class BooleanBuilder implements Predicate, Cloneable {
 
   @Override
   public <R, C> R accept(Visitor<R, C> v, C context) {
+    Predicate predicate = getValue();
     if (predicate != null) {
       return predicate.accept(v, context);
     } else {
@@ -70,14 +81,7 @@ public final class BooleanBuilder implements Predicate, Cloneable {
    * @return the current object
    */
   public BooleanBuilder and(@Nullable Predicate right) {
-    if (right != null) {
-      if (predicate == null) {
-        predicate = right;
-      } else {
-        predicate = ExpressionUtils.and(predicate, right);
-      }
-    }
-    return this;
+    return append(Ops.AND, right);
   }
 
   /**
@@ -106,7 +110,11 @@ public final class BooleanBuilder implements Predicate, Cloneable {
 
   @Override
   public BooleanBuilder clone() throws CloneNotSupportedException {
-    return (BooleanBuilder) super.clone();
+    BooleanBuilder clone = (BooleanBuilder) super.clone();
+    if (operands != null) {
+      clone.operands = new ArrayList<>(operands);
+    }
+    return clone;
   }
 
   @Override
@@ -114,7 +122,7 @@ public final class BooleanBuilder implements Predicate, Cloneable {
     if (o == this) {
       return true;
     } else if (o instanceof BooleanBuilder) {
-      return Objects.equals(((BooleanBuilder) o).getValue(), predicate);
+      return Objects.equals(((BooleanBuilder) o).getValue(), getValue());
     } else {
       return false;
     }
@@ -122,11 +130,18 @@ public final class BooleanBuilder implements Predicate, Cloneable {
 
   @Nullable
   public Predicate getValue() {
+    if (predicate == null && operands != null && !operands.isEmpty()) {
+      predicate =
+          operands.size() == 1
+              ? (Predicate) operands.get(0)
+              : ExpressionUtils.predicate(operator, operands);
+    }
     return predicate;
   }
 
   @Override
   public int hashCode() {
+    Predicate predicate = getValue();
     return predicate != null ? predicate.hashCode() : 0;
   }
 
@@ -136,13 +151,16 @@ public final class BooleanBuilder implements Predicate, Cloneable {
    * @return true if initialized and false if not
    */
   public boolean hasValue() {
-    return predicate != null;
+    return predicate != null || (operands != null && !operands.isEmpty());
   }
 
   @Override
   public BooleanBuilder not() {
+    Predicate predicate = getValue();
     if (predicate != null) {
-      predicate = predicate.not();
+      this.predicate = predicate.not();
+      operator = null;
+      operands = null;
     }
     return this;
   }
@@ -154,12 +172,25 @@ public final class BooleanBuilder implements Predicate, Cloneable {
    * @return the current object
    */
   public BooleanBuilder or(@Nullable Predicate right) {
-    if (right != null) {
-      if (predicate == null) {
-        predicate = right;
-      } else {
-        predicate = ExpressionUtils.or(predicate, right);
+    return append(Ops.OR, right);
+  }
+
+  private BooleanBuilder append(Operator op, @Nullable Predicate right) {
+    if (right == null) {
+      return this;
+    } else if (predicate == null && operands == null) {
+      predicate = right;
+    } else {
+      if (operator != op) {
+        // collect the operands and create the operation only once when the value is requested
+        operands = ExpressionUtils.flatten(op, Collections.singletonList(getValue()));
+        operator = op;
+      }
+      Expression<?> expr = ExpressionUtils.extract(right);
+      if (expr != null) {
+        operands.add(expr);
       }
+      predicate = null;
     }
     return this;
   }
@@ -195,6 +226,7 @@ public final class BooleanBuilder implements Predicate, Cloneable {
 
   @Override
   public String toString() {
+    Predicate predicate = getValue();
     return predicate != null ? predicate.toString() : super.toString();
   }
 }
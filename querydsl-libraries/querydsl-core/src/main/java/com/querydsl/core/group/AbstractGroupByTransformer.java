@@ -63,6 +63,8 @@ public abstract class AbstractGroupByTransformer<K, T> implements ResultTransfor
 
   protected final Expression<?>[] expressions;
 
+  private final GroupLayout layout;
+
   @SuppressWarnings("unchecked")
   protected AbstractGroupByTransformer(Expression<K> key, Expression<?>... expressions) {
     List<Expression<?>> projection = new ArrayList<Expression<?>>(expressions.length);
@@ -90,6 +92,16 @@ public abstract class AbstractGroupByTransformer<K, T> implements ResultTransfor
     }
 
     this.expressions = projection.toArray(new Expression[0]);
+    this.layout = new GroupLayout(groupExpressions, maps);
+  }
+
+  /**
+   * Create a new empty group for the projection of this transformer
+   *
+   * @return new group
+   */
+  protected GroupImpl newGroup() {
+    return new GroupImpl(layout);
   }
 
   protected static FactoryExpression<Tuple> withoutGroupExpressions(
@@ -39,25 +39,39 @@ public class GAvg<T extends Number> extends AbstractGroupExpression<T, T> {
     this.mathContext = mathContext;
   }
 
-  @Override
-  public GroupCollector<T, T> createGroupCollector() {
-    return new GroupCollector<T, T>() {
-      private int count = 0;
-      private BigDecimal sum = BigDecimal.ZERO;
-
-      @Override
-      public void add(T t) {
-        count++;
-        if (t != null) {
-          sum = sum.add(new BigDecimal(t.toString()));
-        }
+  private class AvgCollector implements GroupCollector<T, T> {
+
+    private int count = 0;
+
+    private final NumberSum sum = NumberSum.of(getType());
+
+    @Override
+    public void add(T t) {
+      count++;
+      if (t != null) {
+        sum.add(t);
       }
+    }
 
-      @Override
-      public T get() {
-        BigDecimal avg = sum.divide(BigDecimal.valueOf(count), mathContext);
-        return MathUtils.cast(avg, getType());
+    @Override
+    public T get() {
+      if (!sum.isFinite()) {
+        return MathUtils.cast(sum.get(Double.class) / count, getType());
       }
-    };
+      BigDecimal avg = sum.toBigDecimal().divide(BigDecimal.valueOf(count), mathContext);
+      return MathUtils.cast(avg, getType());
+    }
+
+    @Override
+    public void combine(GroupCollector<T, T> other) {
+      AvgCollector collector = (AvgCollector) other;
+      count += collector.count;
+      sum.combine(collector.sum);
+    }
+  }
+
+  @Override
+  public GroupCollector<T, T> createGroupCollector() {
+    return new AvgCollector();
   }
 }
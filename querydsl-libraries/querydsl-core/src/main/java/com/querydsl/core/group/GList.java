@@ -47,6 +47,11 @@ public class GList<T> extends AbstractGroupExpression<T, List<T>> {
       public List<T> get() {
         return list;
       }
+
+      @Override
+      public void combine(GroupCollector<T, List<T>> other) {
+        list.addAll(other.get());
+      }
     };
   }
 }
@@ -78,6 +78,11 @@ public abstract class GMap<K, V, M extends Map<K, V>>
       public M get() {
         return map;
       }
+
+      @Override
+      public void combine(GroupCollector<Pair<K, V>, M> other) {
+        map.putAll(other.get());
+      }
     };
   }
 
@@ -138,6 +143,24 @@ public abstract class GMap<K, V, M extends Map<K, V>>
         keyCollectors.clear();
         return groupCollector.get();
       }
+
+      @Override
+      public void combine(GroupCollector<Pair<K, V>, R> other) {
+        GroupCollectorImpl collector = (GroupCollectorImpl) other;
+        for (Map.Entry<K, GroupCollector<K, T>> entry : collector.keyCollectors.entrySet()) {
+          GroupCollector<K, T> otherKeyCollector = entry.getValue();
+          GroupCollector<V, U> otherValueCollector =
+              collector.valueCollectors.get(otherKeyCollector);
+          GroupCollector<K, T> keyCollector = keyCollectors.get(entry.getKey());
+          if (keyCollector == null) {
+            keyCollectors.put(entry.getKey(), otherKeyCollector);
+            valueCollectors.put(otherKeyCollector, otherValueCollector);
+          } else {
+            keyCollector.combine(otherKeyCollector);
+            valueCollectors.get(keyCollector).combine(otherValueCollector);
+          }
+        }
+      }
     }
 
     private final GroupExpression<Pair<T, U>, R> mixin;
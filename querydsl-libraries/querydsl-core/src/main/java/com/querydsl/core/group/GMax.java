@@ -47,6 +47,14 @@ public class GMax<T extends Comparable<? super T>> extends AbstractGroupExpressi
       public T get() {
         return max;
       }
+
+      @Override
+      public void combine(GroupCollector<T, T> other) {
+        T o = other.get();
+        if (o != null) {
+          add(o);
+        }
+      }
     };
   }
 }
@@ -47,6 +47,14 @@ public class GMin<T extends Comparable<? super T>> extends AbstractGroupExpressi
       public T get() {
         return min;
       }
+
+      @Override
+      public void combine(GroupCollector<T, T> other) {
+        T o = other.get();
+        if (o != null) {
+          add(o);
+        }
+      }
     };
   }
 }
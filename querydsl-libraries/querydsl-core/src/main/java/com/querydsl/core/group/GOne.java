@@ -29,25 +29,36 @@ public class GOne<T> extends AbstractGroupExpression<T, T> {
     super((Class) expr.getType(), expr);
   }
 
-  @Override
-  public GroupCollector<T, T> createGroupCollector() {
-    return new GroupCollector<T, T>() {
-      private boolean first = true;
+  private class OneCollector implements GroupCollector<T, T> {
 
-      private T val;
+    private boolean first = true;
 
-      @Override
-      public void add(T o) {
-        if (first) {
-          val = o;
-          first = false;
-        }
+    private T val;
+
+    @Override
+    public void add(T o) {
+      if (first) {
+        val = o;
+        first = false;
       }
+    }
+
+    @Override
+    public T get() {
+      return val;
+    }
 
-      @Override
-      public T get() {
-        return val;
+    @Override
+    public void combine(GroupCollector<T, T> other) {
+      OneCollector collector = (OneCollector) other;
+      if (!collector.first) {
+        add(collector.val);
       }
-    };
+    }
+  }
+
+  @Override
+  public GroupCollector<T, T> createGroupCollector() {
+    return new OneCollector();
   }
 }
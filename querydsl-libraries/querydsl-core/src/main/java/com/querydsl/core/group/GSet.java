@@ -78,6 +78,11 @@ public abstract class GSet<T, S extends Set<T>> extends AbstractGroupExpression<
       public S get() {
         return set;
       }
+
+      @Override
+      public void combine(GroupCollector<T, S> other) {
+        set.addAll(other.get());
+      }
     };
   }
 }
@@ -14,8 +14,6 @@
 package com.querydsl.core.group;
 
 import com.querydsl.core.types.Expression;
-import com.querydsl.core.util.MathUtils;
-import java.math.BigDecimal;
 
 /**
  * GSum
@@ -31,22 +29,30 @@ public class GSum<T extends Number> extends AbstractGroupExpression<T, T> {
     super((Class) expr.getType(), expr);
   }
 
-  @Override
-  public GroupCollector<T, T> createGroupCollector() {
-    return new GroupCollector<T, T>() {
-      private BigDecimal sum = BigDecimal.ZERO;
-
-      @Override
-      public void add(T t) {
-        if (t != null) {
-          sum = sum.add(new BigDecimal(t.toString()));
-        }
-      }
+  private class SumCollector implements GroupCollector<T, T> {
 
-      @Override
-      public T get() {
-        return MathUtils.cast(sum, getType());
+    private final NumberSum sum = NumberSum.of(getType());
+
+    @Override
+    public void add(T t) {
+      if (t != null) {
+        sum.add(t);
       }
-    };
+    }
+
+    @Override
+    public T get() {
+      return sum.get(getType());
+    }
+
+    @Override
+    public void combine(GroupCollector<T, T> other) {
+      sum.combine(((SumCollector) other).sum);
+    }
+  }
+
+  @Override
+  public GroupCollector<T, T> createGroupCollector() {
+    return new SumCollector();
   }
 }
@@ -14,11 +14,13 @@
 package com.querydsl.core.group;
 
 import com.mysema.commons.lang.Pair;
+import com.querydsl.core.FetchableQuery;
 import com.querydsl.core.ResultTransformer;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Projections;
 import java.math.MathContext;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * {@code GroupBy} provides factory methods for {@link ResultTransformer} and {@link
@@ -57,6 +59,35 @@ public class GroupBy {
     return new GroupByBuilder<List<?>>(Projections.list(keys));
   }
 
+  /**
+   * Aggregate the results of several queries concurrently with a map transformer, merging the
+   * groups of keys which occur in more than one query
+   *
+   * <p>Example: Group employees of several shards by department
+   *
+   * <pre>{@code
+   * Map<Department, Group> results = GroupBy.transform(
+   *     GroupBy.groupBy(employee.department).as(GroupBy.list(employee.id)),
+   *     executor,
+   *     shardQueries);
+   * }</pre>
+   *
+   * @param transformer transformer created by {@link GroupByBuilder#as}
+   * @param executor executor to run the queries with
+   * @param queries queries to aggregate
+   * @return merged results
+   * @throws IllegalArgumentException if the transformer doesn't support merging
+   */
+  public static <K, V> Map<K, V> transform(
+      ResultTransformer<Map<K, V>> transformer,
+      Executor executor,
+      Collection<? extends FetchableQuery<?, ?>> queries) {
+    if (!(transformer instanceof GroupByMap)) {
+      throw new IllegalArgumentException("Unsupported transformer " + transformer);
+    }
+    return ((GroupByMap<K, V>) transformer).transform(executor, queries);
+  }
+
   /**
    * Create a new aggregating min expression
    *
@@ -18,7 +18,7 @@ import com.querydsl.core.ResultTransformer;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.FactoryExpressionUtils;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -77,6 +77,20 @@ public class GroupByBuilder<K> {
     return new GroupByIterate<K, Group>(key, expressions);
   }
 
+  /**
+   * Get the results of unsorted rows as a closeable iterator. Rows of groups exceeding the given
+   * amount of groups held in memory are spilled to temporary files.
+   *
+   * @param maxGroupsInMemory maximum amount of groups held in memory
+   * @param expressions projection
+   * @return new result transformer
+   * @see GroupByHashIterate
+   */
+  public ResultTransformer<CloseableIterator<Group>> iterateUnsorted(
+      int maxGroupsInMemory, Expression<?>... expressions) {
+    return new GroupByHashIterate<K, Group>(maxGroupsInMemory, key, expressions);
+  }
+
   /**
    * Get the results as a list
    *
@@ -158,6 +172,26 @@ public class GroupByBuilder<K> {
     };
   }
 
+  /**
+   * Get the results of unsorted rows as a closeable iterator. Rows of groups exceeding the given
+   * amount of groups held in memory are spilled to temporary files.
+   *
+   * @param maxGroupsInMemory maximum amount of groups held in memory
+   * @param expression projection
+   * @return new result transformer
+   * @see GroupByHashIterate
+   */
+  public <V> ResultTransformer<CloseableIterator<V>> iterateUnsorted(
+      int maxGroupsInMemory, Expression<V> expression) {
+    final Expression<V> lookup = getLookup(expression);
+    return new GroupByHashIterate<K, V>(maxGroupsInMemory, key, expression) {
+      @Override
+      protected V transform(Group group) {
+        return group.getOne(lookup);
+      }
+    };
+  }
+
   /**
    * Get the results as a list
    *
@@ -223,12 +257,9 @@ public class GroupByBuilder<K> {
 
       @SuppressWarnings("unchecked")
       protected V transform(Group group) {
-        // XXX Isn't group.toArray() suitable here?
-        List<Object> args = new ArrayList<Object>(groupExpressions.size() - 1);
-        for (int i = 1; i < groupExpressions.size(); i++) {
-          args.add(group.getGroup(groupExpressions.get(i)));
-        }
-        return (V) transformation.newInstance(args.toArray());
+        // the first column is the group key
+        Object[] args = group.toArray();
+        return (V) transformation.newInstance(Arrays.copyOfRange(args, 1, args.length));
       }
     };
   }
@@ -245,12 +276,33 @@ public class GroupByBuilder<K> {
     return new GroupByIterate<K, V>(key, args.toArray(new Expression<?>[0])) {
       @Override
       protected V transform(Group group) {
-        // XXX Isn't group.toArray() suitable here?
-        List<Object> args = new ArrayList<Object>(groupExpressions.size() - 1);
-        for (int i = 1; i < groupExpressions.size(); i++) {
-          args.add(group.getGroup(groupExpressions.get(i)));
-        }
-        return transformation.newInstance(args.toArray());
+        // the first column is the group key
+        Object[] args = group.toArray();
+        return transformation.newInstance(Arrays.copyOfRange(args, 1, args.length));
+      }
+    };
+  }
+
+  /**
+   * Get the results of unsorted rows as a closeable iterator. Rows of groups exceeding the given
+   * amount of groups held in memory are spilled to temporary files.
+   *
+   * @param maxGroupsInMemory maximum amount of groups held in memory
+   * @param expression projection
+   * @return new result transformer
+   * @see GroupByHashIterate
+   */
+  public <V> ResultTransformer<CloseableIterator<V>> iterateUnsorted(
+      int maxGroupsInMemory, FactoryExpression<V> expression) {
+    final FactoryExpression<V> transformation = FactoryExpressionUtils.wrap(expression);
+    List<Expression<?>> args = transformation.getArgs();
+    return new GroupByHashIterate<K, V>(
+        maxGroupsInMemory, key, args.toArray(new Expression<?>[0])) {
+      @Override
+      protected V transform(Group group) {
+        // the first column is the group key
+        Object[] args = group.toArray();
+        return transformation.newInstance(Arrays.copyOfRange(args, 1, args.length));
       }
     };
   }
@@ -267,12 +319,9 @@ public class GroupByBuilder<K> {
     return new GroupByList<K, V>(key, args.toArray(new Expression<?>[0])) {
       @Override
       protected V transform(Group group) {
-        // XXX Isn't group.toArray() suitable here?
-        List<Object> args = new ArrayList<Object>(groupExpressions.size() - 1);
-        for (int i = 1; i < groupExpressions.size(); i++) {
-          args.add(group.getGroup(groupExpressions.get(i)));
-        }
-        return transformation.newInstance(args.toArray());
+        // the first column is the group key
+        Object[] args = group.toArray();
+        return transformation.newInstance(Arrays.copyOfRange(args, 1, args.length));
       }
     };
   }
@@ -291,12 +340,9 @@ public class GroupByBuilder<K> {
         resultFactory, key, args.toArray(new Expression<?>[args.size()])) {
       @Override
       protected V transform(Group group) {
-        // XXX Isn't group.toArray() suitable here?
-        List<Object> args = new ArrayList<Object>(groupExpressions.size() - 1);
-        for (int i = 1; i < groupExpressions.size(); i++) {
-          args.add(group.getGroup(groupExpressions.get(i)));
-        }
-        return transformation.newInstance(args.toArray());
+        // the first column is the group key
+        Object[] args = group.toArray();
+        return transformation.newInstance(Arrays.copyOfRange(args, 1, args.length));
       }
     };
   }
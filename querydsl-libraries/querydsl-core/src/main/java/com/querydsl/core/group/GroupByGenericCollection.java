@@ -60,15 +60,16 @@ public class GroupByGenericCollection<K, V, RES extends Collection<V>>
     GroupImpl group = null;
     K groupId = null;
     while (iter.hasNext()) {
+      Tuple row = iter.next();
       @SuppressWarnings("unchecked") // This type is mandated by the key type
-      K[] row = (K[]) iter.next().toArray();
+      K key = (K) row.get(0, Object.class);
       if (group == null) {
-        group = new GroupImpl(groupExpressions, maps);
-        groupId = row[0];
-      } else if (!Objects.equals(groupId, row[0])) {
+        group = newGroup();
+        groupId = key;
+      } else if (!Objects.equals(groupId, key)) {
         list.add(transform(group));
-        group = new GroupImpl(groupExpressions, maps);
-        groupId = row[0];
+        group = newGroup();
+        groupId = key;
       }
       group.add(row);
     }
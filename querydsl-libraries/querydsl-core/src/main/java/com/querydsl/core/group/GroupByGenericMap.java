@@ -57,12 +57,12 @@ public class GroupByGenericMap<K, V, RES extends Map<K, V>>
     CloseableIterator<Tuple> iter = query.select(expr).iterate();
     try {
       while (iter.hasNext()) {
+        Tuple row = iter.next();
         @SuppressWarnings("unchecked") // This type is mandated by the key type
-        K[] row = (K[]) iter.next().toArray();
-        K groupId = row[0];
+        K groupId = (K) row.get(0, Object.class);
         GroupImpl group = (GroupImpl) groups.get(groupId);
         if (group == null) {
-          group = new GroupImpl(groupExpressions, maps);
+          group = newGroup();
           groups.put(groupId, group);
         }
         group.add(row);
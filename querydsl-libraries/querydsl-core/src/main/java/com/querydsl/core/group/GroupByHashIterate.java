@@ -0,0 +1,392 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionUtils;
+import com.querydsl.core.types.Projections;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides aggregated results of unsorted rows as an iterator
+ *
+ * <p>Rows are grouped in a hash table. Once the table holds the configured maximum amount of
+ * groups, rows of groups not yet in the table are written to temporary partition files, which are
+ * grouped the same way after the groups in memory have been returned. Spilled rows are written with
+ * Java serialization, so the projected values need to be {@link java.io.Serializable}. Each
+ * partition file is deleted once it has been read back, remaining files when the iterator is
+ * closed. Files of iterators which are dropped without being closed are deleted once the iterator
+ * has been garbage collected.
+ *
+ * <p>Groups are returned in order of their first row as long as no rows are spilled, otherwise in
+ * no particular order.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class GroupByHashIterate<K, V> extends AbstractGroupByTransformer<K, CloseableIterator<V>> {
+
+  private static final int PARTITIONS = 16;
+
+  // partitions deeper than this are grouped in memory regardless of the budget
+  private static final int MAX_DEPTH = 4;
+
+  // rows written between resets of the serialization handle table
+  private static final int RESET_INTERVAL = 1024;
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int maxGroupsInMemory;
+
+  GroupByHashIterate(int maxGroupsInMemory, Expression<K> key, Expression<?>... expressions) {
+    super(key, expressions);
+    if (maxGroupsInMemory < 1) {
+      throw new IllegalArgumentException("maxGroupsInMemory needs to be positive");
+    }
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  @Override
+  public CloseableIterator<V> transform(FetchableQuery<?, ?> query) {
+    FactoryExpression<Tuple> expr = FactoryExpressionUtils.wrap(Projections.tuple(expressions));
+    boolean hasGroups = false;
+    for (Expression<?> e : expr.getArgs()) {
+      hasGroups |= e instanceof GroupExpression;
+    }
+    if (hasGroups) {
+      expr = withoutGroupExpressions(expr);
+    }
+
+    final Deque<Partition> partitions = new ArrayDeque<Partition>();
+    final List<GroupImpl> groups;
+    try (CloseableIterator<Tuple> iter = query.select(expr).iterate()) {
+      groups =
+          group(
+              new Iterator<Object[]>() {
+                @Override
+                public boolean hasNext() {
+                  return iter.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                  return iter.next().toArray();
+                }
+              },
+              0,
+              partitions);
+    } catch (RuntimeException e) {
+      delete(partitions);
+      throw e;
+    }
+
+    return new CloseableIterator<V>() {
+
+      private Iterator<GroupImpl> current = groups.iterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!current.hasNext() && !partitions.isEmpty()) {
+          Partition partition = partitions.pop();
+          try {
+            current = group(partition.read(), partition.depth, partitions).iterator();
+          } catch (RuntimeException e) {
+            partition.delete();
+            close();
+            throw e;
+          }
+        }
+        return current.hasNext();
+      }
+
+      @Override
+      public V next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return transform(current.next());
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void close() {
+        current = Collections.emptyIterator();
+        delete(partitions);
+      }
+    };
+  }
+
+  private List<GroupImpl> group(Iterator<Object[]> rows, int depth, Deque<Partition> partitions) {
+    int budget = depth < MAX_DEPTH ? maxGroupsInMemory : Integer.MAX_VALUE;
+    GroupTable table = new GroupTable();
+    Partition[] spilled = null;
+    while (rows.hasNext()) {
+      Object[] row = rows.next();
+      int hash = GroupTable.hash(row[0]);
+      GroupImpl group = table.get(row[0], hash);
+      if (group == null) {
+        if (table.size() < budget) {
+          group = newGroup();
+          table.put(row[0], hash, group);
+        } else {
+          if (spilled == null) {
+            spilled = new Partition[PARTITIONS];
+          }
+          int index = partition(hash, depth);
+          if (spilled[index] == null) {
+            spilled[index] = new Partition(depth + 1);
+            partitions.push(spilled[index]);
+          }
+          spilled[index].write(row);
+          continue;
+        }
+      }
+      group.add(row);
+    }
+    if (spilled != null) {
+      for (Partition partition : spilled) {
+        if (partition != null) {
+          partition.finish();
+        }
+      }
+    }
+    return table.groups;
+  }
+
+  private static int partition(int hash, int depth) {
+    // use different bits of a rehashed value on each level, so that a partition is split again
+    int h = (hash + depth) * 0x9E3779B9;
+    h ^= h >>> 15;
+    h *= 0x85EBCA6B;
+    return (h >>> 16) & (PARTITIONS - 1);
+  }
+
+  private static void delete(Deque<Partition> partitions) {
+    while (!partitions.isEmpty()) {
+      partitions.pop().delete();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected V transform(Group group) {
+    return (V) group;
+  }
+
+  /** Open addressing hash table from group keys to groups in insertion order */
+  private static final class GroupTable {
+
+    private static final Object NULL = new Object();
+
+    private final List<GroupImpl> groups = new ArrayList<GroupImpl>();
+
+    private Object[] keys = new Object[16];
+
+    private int[] indexes = new int[16];
+
+    static int hash(Object key) {
+      int h = key != null ? key.hashCode() : 0;
+      return h ^ (h >>> 16);
+    }
+
+    int size() {
+      return groups.size();
+    }
+
+    GroupImpl get(Object key, int hash) {
+      Object k = key != null ? key : NULL;
+      int mask = keys.length - 1;
+      for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+        if (keys[i] == k || keys[i].equals(k)) {
+          return groups.get(indexes[i]);
+        }
+      }
+      return null;
+    }
+
+    void put(Object key, int hash, GroupImpl group) {
+      if ((groups.size() + 1) * 2 > keys.length) {
+        resize();
+      }
+      insert(key != null ? key : NULL, hash, groups.size());
+      groups.add(group);
+    }
+
+    private void insert(Object key, int hash, int index) {
+      int mask = keys.length - 1;
+      int i = hash & mask;
+      while (keys[i] != null) {
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      indexes[i] = index;
+    }
+
+    private void resize() {
+      Object[] oldKeys = keys;
+      int[] oldIndexes = indexes;
+      keys = new Object[oldKeys.length * 2];
+      indexes = new int[oldKeys.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != null) {
+          Object key = oldKeys[i];
+          insert(key, hash(key != NULL ? key : null), oldIndexes[i]);
+        }
+      }
+    }
+  }
+
+  /** Temporary file holding the rows of spilled groups */
+  private static final class Partition {
+
+    private final int depth;
+
+    private final Path file;
+
+    private ObjectOutputStream out;
+
+    private ObjectInputStream in;
+
+    private int rows;
+
+    private final Cleaner.Cleanable cleanable;
+
+    Partition(int depth) {
+      this.depth = depth;
+      try {
+        this.file = Files.createTempFile("querydsl-groupby", ".tmp");
+        // backstop for iterators which are dropped without being closed
+        this.cleanable = CLEANER.register(this, new Deletion(file));
+        this.out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+      } catch (IOException e) {
+        throw new QueryException("Failed to create spill file", e);
+      }
+    }
+
+    void write(Object[] row) {
+      try {
+        out.writeObject(row);
+        if (++rows % RESET_INTERVAL == 0) {
+          out.reset();
+        }
+      } catch (IOException e) {
+        throw new QueryException("Failed to spill rows to " + file, e);
+      }
+    }
+
+    void finish() {
+      try {
+        out.close();
+        out = null;
+      } catch (IOException e) {
+        throw new QueryException("Failed to spill rows to " + file, e);
+      }
+    }
+
+    Iterator<Object[]> read() {
+      try {
+        in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)));
+      } catch (IOException e) {
+        delete();
+        throw new QueryException("Failed to read spilled rows from " + file, e);
+      }
+      return new Iterator<Object[]>() {
+
+        private int remaining = rows;
+
+        @Override
+        public boolean hasNext() {
+          return remaining > 0;
+        }
+
+        @Override
+        public Object[] next() {
+          if (remaining <= 0) {
+            throw new NoSuchElementException();
+          }
+          try {
+            Object[] row = (Object[]) in.readObject();
+            if (--remaining == 0) {
+              delete();
+            }
+            return row;
+          } catch (IOException | ClassNotFoundException e) {
+            remaining = 0;
+            delete();
+            throw new QueryException("Failed to read spilled rows from " + file, e);
+          }
+        }
+      };
+    }
+
+    void delete() {
+      try {
+        if (out != null) {
+          out.close();
+          out = null;
+        }
+        if (in != null) {
+          in.close();
+          in = null;
+        }
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        throw new QueryException("Failed to delete " + file, e);
+      } finally {
+        cleanable.clean();
+      }
+    }
+  }
+
+  /** Deletes the file of a partition which became unreachable */
+  private static final class Deletion implements Runnable {
+
+    private final Path file;
+
+    Deletion(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public void run() {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // do nothing
+      }
+    }
+  }
+}
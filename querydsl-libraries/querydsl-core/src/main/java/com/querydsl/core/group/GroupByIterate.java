@@ -73,18 +73,19 @@ public class GroupByIterate<K, V> extends AbstractGroupByTransformer<K, Closeabl
         }
 
         while (iter.hasNext()) {
+          Tuple row = iter.next();
           @SuppressWarnings("unchecked") // This type is mandated by the key type
-          K[] row = (K[]) iter.next().toArray();
+          K key = (K) row.get(0, Object.class);
           if (group == null) {
-            group = new GroupImpl(groupExpressions, maps);
-            groupId = row[0];
+            group = newGroup();
+            groupId = key;
             group.add(row);
-          } else if (Objects.equals(groupId, row[0])) {
+          } else if (Objects.equals(groupId, key)) {
             group.add(row);
           } else {
             Group current = group;
-            group = new GroupImpl(groupExpressions, maps);
-            groupId = row[0];
+            group = newGroup();
+            groupId = key;
             group.add(row);
             return transform(current);
           }
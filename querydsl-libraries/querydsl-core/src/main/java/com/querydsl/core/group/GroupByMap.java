@@ -15,13 +15,20 @@ package com.querydsl.core.group;
 
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.QueryException;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.FactoryExpressionUtils;
 import com.querydsl.core.types.Projections;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Provides aggregated results as a map
@@ -38,6 +45,60 @@ public class GroupByMap<K, V> extends AbstractGroupByTransformer<K, Map<K, V>> {
 
   @Override
   public Map<K, V> transform(FetchableQuery<?, ?> query) {
+    return transform(groups(query));
+  }
+
+  /**
+   * Aggregate the results of several queries concurrently and merge the groups of keys occurring in
+   * more than one of them. The keys are ordered by the first query they occur in. If one of the
+   * queries fails, the ones which haven't started yet are cancelled and its exception is rethrown.
+   *
+   * @param executor executor to run the queries with
+   * @param queries queries with the same projection
+   * @return merged results
+   * @throws UnsupportedOperationException if a group expression doesn't support merging
+   */
+  public Map<K, V> transform(
+      Executor executor, Collection<? extends FetchableQuery<?, ?>> queries) {
+    List<CompletableFuture<Map<K, Group>>> partials =
+        new ArrayList<CompletableFuture<Map<K, Group>>>(queries.size());
+    for (FetchableQuery<?, ?> query : queries) {
+      partials.add(CompletableFuture.supplyAsync(() -> groups(query), executor));
+    }
+    Map<K, Group> groups = null;
+    for (CompletableFuture<Map<K, Group>> partial : partials) {
+      Map<K, Group> result;
+      try {
+        result = partial.join();
+      } catch (CompletionException e) {
+        for (CompletableFuture<Map<K, Group>> other : partials) {
+          other.cancel(false);
+        }
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new QueryException(cause);
+      }
+      if (groups == null) {
+        groups = result;
+      } else {
+        for (Map.Entry<K, Group> entry : result.entrySet()) {
+          GroupImpl group = (GroupImpl) groups.get(entry.getKey());
+          if (group != null) {
+            group.combine((GroupImpl) entry.getValue());
+          } else {
+            groups.put(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+    }
+    return transform(groups != null ? groups : new LinkedHashMap<K, Group>());
+  }
+
+  private Map<K, Group> groups(FetchableQuery<?, ?> query) {
     Map<K, Group> groups = new LinkedHashMap<K, Group>();
 
     // create groups
@@ -51,20 +112,18 @@ public class GroupByMap<K, V> extends AbstractGroupByTransformer<K, Map<K, V>> {
     }
     try (CloseableIterator<Tuple> iter = query.select(expr).iterate()) {
       while (iter.hasNext()) {
+        Tuple row = iter.next();
         @SuppressWarnings("unchecked") // This type is mandated by the key type
-        K[] row = (K[]) iter.next().toArray();
-        K groupId = row[0];
+        K groupId = (K) row.get(0, Object.class);
         GroupImpl group = (GroupImpl) groups.get(groupId);
         if (group == null) {
-          group = new GroupImpl(groupExpressions, maps);
+          group = newGroup();
           groups.put(groupId, group);
         }
         group.add(row);
       }
     }
-
-    // transform groups
-    return transform(groups);
+    return groups;
   }
 
   @SuppressWarnings("unchecked")
@@ -35,4 +35,15 @@ public interface GroupCollector<T, R> {
    * @return value of this group.
    */
   R get();
+
+  /**
+   * Merge the values of another collector of the same group expression into this collector. The
+   * other collector is not to be used afterwards.
+   *
+   * @param other collector created by the same group expression
+   * @throws UnsupportedOperationException if the values of this collector can't be merged
+   */
+  default void combine(GroupCollector<T, R> other) {
+    throw new UnsupportedOperationException(getClass().getName() + " can't be combined");
+  }
 }
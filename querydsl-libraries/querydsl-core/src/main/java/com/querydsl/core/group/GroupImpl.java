@@ -13,9 +13,8 @@
  */
 package com.querydsl.core.group;
 
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
-import com.querydsl.core.types.Operation;
-import com.querydsl.core.types.Ops;
 import java.util.*;
 
 /**
@@ -26,47 +25,53 @@ import java.util.*;
  */
 public class GroupImpl implements Group {
 
-  private final Map<Expression<?>, GroupCollector<?, ?>> groupCollectorMap =
-      new LinkedHashMap<Expression<?>, GroupCollector<?, ?>>();
+  private final GroupLayout layout;
 
-  private final List<GroupExpression<?, ?>> groupExpressions;
+  private final GroupCollector<?, ?>[] groupCollectors;
 
-  private final List<GroupCollector<?, ?>> groupCollectors = new ArrayList<GroupCollector<?, ?>>();
+  public GroupImpl(List<GroupExpression<?, ?>> columnDefinitions, List<QPair<?, ?>> maps) {
+    this(new GroupLayout(columnDefinitions, maps));
+  }
 
-  private final List<QPair<?, ?>> maps;
+  GroupImpl(GroupLayout layout) {
+    this.layout = layout;
+    this.groupCollectors = layout.createCollectors();
+  }
 
-  public GroupImpl(List<GroupExpression<?, ?>> columnDefinitions, List<QPair<?, ?>> maps) {
-    this.groupExpressions = columnDefinitions;
-    this.maps = maps;
-    for (GroupExpression<?, ?> coldef : columnDefinitions) {
-      GroupCollector<?, ?> collector = groupCollectorMap.get(coldef.getExpression());
-      if (collector == null) {
-        collector = coldef.createGroupCollector();
-        Expression<?> coldefExpr = coldef.getExpression();
-        groupCollectorMap.put(coldefExpr, collector);
-        if (coldefExpr instanceof Operation
-            && ((Operation) coldefExpr).getOperator() == Ops.ALIAS) {
-          groupCollectorMap.put(((Operation) coldefExpr).getArg(1), collector);
-        }
-      }
-      groupCollectors.add(collector);
+  @SuppressWarnings("unchecked")
+  public void add(Object[] row) {
+    int[] columns = layout.columns;
+    for (int i = 0; i < columns.length; i++) {
+      ((GroupCollector<Object, ?>) groupCollectors[columns[i]]).add(row[i]);
     }
   }
 
   @SuppressWarnings("unchecked")
-  public void add(Object[] row) {
-    int i = 0;
-    for (GroupCollector groupCollector : groupCollectors) {
-      groupCollector.add(row[i]);
-      i++;
+  void add(Tuple row) {
+    int[] columns = layout.columns;
+    for (int i = 0; i < columns.length; i++) {
+      ((GroupCollector<Object, ?>) groupCollectors[columns[i]]).add(row.get(i, Object.class));
+    }
+  }
+
+  /**
+   * Merge the values collected by another group of the same layout into this group
+   *
+   * @param other group to merge
+   */
+  @SuppressWarnings("unchecked")
+  void combine(GroupImpl other) {
+    for (int i = 0; i < groupCollectors.length; i++) {
+      ((GroupCollector<Object, Object>) groupCollectors[i])
+          .combine((GroupCollector<Object, Object>) other.groupCollectors[i]);
     }
   }
 
   @SuppressWarnings("unchecked")
   private <T, R> R get(Expression<T> expr) {
-    GroupCollector<T, R> col = (GroupCollector<T, R>) groupCollectorMap.get(expr);
-    if (col != null) {
-      return col.get();
+    int position = layout.getPosition(expr);
+    if (position >= 0) {
+      return (R) groupCollectors[position].get();
     }
     throw new NoSuchElementException(expr.toString());
   }
@@ -74,9 +79,9 @@ public class GroupImpl implements Group {
   @Override
   @SuppressWarnings("unchecked")
   public <T, R> R getGroup(GroupExpression<T, R> definition) {
-    for (GroupExpression<?, ?> def : groupExpressions) {
+    for (GroupExpression<?, ?> def : layout.groupExpressions) {
       if (def.equals(definition)) {
-        return (R) groupCollectorMap.get(def.getExpression()).get();
+        return (R) groupCollectors[layout.getPosition(def.getExpression())].get();
       }
     }
     throw new NoSuchElementException(definition.toString());
@@ -90,9 +95,9 @@ public class GroupImpl implements Group {
   @Override
   @SuppressWarnings("unchecked")
   public <K, V> Map<K, V> getMap(Expression<K> key, Expression<V> value) {
-    for (QPair<?, ?> pair : maps) {
+    for (QPair<?, ?> pair : layout.maps) {
       if (pair.equals(key, value)) {
-        return (Map<K, V>) groupCollectorMap.get(pair).get();
+        return (Map<K, V>) groupCollectors[layout.getPosition(pair)].get();
       }
     }
     throw new NoSuchElementException("GMap(" + key + ", " + value + ")");
@@ -101,9 +106,9 @@ public class GroupImpl implements Group {
   @SuppressWarnings("unchecked")
   @Override
   public <K, V> SortedMap<K, V> getSortedMap(Expression<K> key, Expression<V> value) {
-    for (QPair<?, ?> pair : maps) {
+    for (QPair<?, ?> pair : layout.maps) {
       if (pair.equals(key, value)) {
-        return (SortedMap<K, V>) groupCollectorMap.get(pair).get();
+        return (SortedMap<K, V>) groupCollectors[layout.getPosition(pair)].get();
       }
     }
     throw new NoSuchElementException("GMap(" + key + ", " + value + ")");
@@ -126,10 +131,11 @@ public class GroupImpl implements Group {
 
   @Override
   public Object[] toArray() {
-    List<Object> arr = new ArrayList<Object>(groupCollectors.size());
-    for (GroupCollector<?, ?> col : groupCollectors) {
-      arr.add(col.get());
+    int[] columns = layout.columns;
+    Object[] arr = new Object[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      arr[i] = groupCollectors[columns[i]].get();
     }
-    return arr.toArray();
+    return arr;
   }
 }
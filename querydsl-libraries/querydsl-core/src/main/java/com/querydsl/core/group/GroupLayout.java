@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GroupLayout} maps the columns of a group by projection to the positions of their
+ * collectors. It is computed once per transformer and shared by all groups.
+ */
+final class GroupLayout {
+
+  final List<GroupExpression<?, ?>> groupExpressions;
+
+  final List<QPair<?, ?>> maps;
+
+  // collector position for each column
+  final int[] columns;
+
+  // column definitions creating the collector at each position
+  final GroupExpression<?, ?>[] definitions;
+
+  // collector position for each column expression and alias
+  final Map<Expression<?>, Integer> positions = new HashMap<Expression<?>, Integer>();
+
+  GroupLayout(List<GroupExpression<?, ?>> groupExpressions, List<QPair<?, ?>> maps) {
+    this.groupExpressions = groupExpressions;
+    this.maps = maps;
+    this.columns = new int[groupExpressions.size()];
+    GroupExpression<?, ?>[] definitions = new GroupExpression<?, ?>[groupExpressions.size()];
+    int size = 0;
+    for (int i = 0; i < columns.length; i++) {
+      GroupExpression<?, ?> coldef = groupExpressions.get(i);
+      Expression<?> coldefExpr = coldef.getExpression();
+      Integer position = positions.get(coldefExpr);
+      if (position == null) {
+        position = size++;
+        definitions[position] = coldef;
+        positions.put(coldefExpr, position);
+        if (coldefExpr instanceof Operation
+            && ((Operation<?>) coldefExpr).getOperator() == Ops.ALIAS) {
+          positions.put(((Operation<?>) coldefExpr).getArg(1), position);
+        }
+      }
+      columns[i] = position;
+    }
+    this.definitions = Arrays.copyOf(definitions, size);
+  }
+
+  GroupCollector<?, ?>[] createCollectors() {
+    GroupCollector<?, ?>[] collectors = new GroupCollector<?, ?>[definitions.length];
+    for (int i = 0; i < collectors.length; i++) {
+      collectors[i] = definitions[i].createGroupCollector();
+    }
+    return collectors;
+  }
+
+  int getPosition(Expression<?> expr) {
+    Integer position = positions.get(expr);
+    return position != null ? position : -1;
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import com.querydsl.core.util.MathUtils;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * {@code NumberSum} is a running sum of numbers specialized on the declared value type. Integral
+ * types are accumulated in a {@code long} and switch to {@link BigDecimal} on overflow, floating
+ * point types use compensated summation and all other types are summed as {@link BigDecimal}.
+ */
+abstract class NumberSum {
+
+  static NumberSum of(Class<?> type) {
+    if (isIntegral(type)) {
+      return new LongSum();
+    } else if (type.equals(Double.class) || type.equals(Float.class)) {
+      return new DoubleSum();
+    } else {
+      return new DecimalSum();
+    }
+  }
+
+  private static boolean isIntegral(Class<?> type) {
+    return type.equals(Long.class)
+        || type.equals(Integer.class)
+        || type.equals(Short.class)
+        || type.equals(Byte.class);
+  }
+
+  private static BigDecimal toBigDecimal(Number num) {
+    if (num instanceof BigDecimal) {
+      return (BigDecimal) num;
+    } else if (num instanceof BigInteger) {
+      return new BigDecimal((BigInteger) num);
+    } else if (num instanceof Long || num instanceof Integer) {
+      return BigDecimal.valueOf(num.longValue());
+    } else {
+      return new BigDecimal(num.toString());
+    }
+  }
+
+  abstract void add(Number num);
+
+  /**
+   * Add the sum of another accumulator of the same value type
+   *
+   * @param other accumulator created for the same type
+   */
+  abstract void combine(NumberSum other);
+
+  abstract BigDecimal toBigDecimal();
+
+  /** Whether the sum can be represented as a {@link BigDecimal} */
+  boolean isFinite() {
+    return true;
+  }
+
+  <T extends Number> T get(Class<T> type) {
+    return MathUtils.cast(toBigDecimal(), type);
+  }
+
+  private static final class LongSum extends NumberSum {
+
+    private long sum;
+
+    private BigDecimal exact;
+
+    @Override
+    void add(Number num) {
+      if (exact != null) {
+        exact = exact.add(NumberSum.toBigDecimal(num));
+      } else if (isIntegral(num.getClass())) {
+        long value = num.longValue();
+        long result = sum + value;
+        if (((sum ^ result) & (value ^ result)) < 0) {
+          exact = BigDecimal.valueOf(sum).add(BigDecimal.valueOf(value));
+        } else {
+          sum = result;
+        }
+      } else {
+        exact = BigDecimal.valueOf(sum).add(NumberSum.toBigDecimal(num));
+      }
+    }
+
+    @Override
+    void combine(NumberSum other) {
+      LongSum o = (LongSum) other;
+      if (exact == null && o.exact == null) {
+        add(o.sum);
+      } else {
+        exact = toBigDecimal().add(o.toBigDecimal());
+      }
+    }
+
+    @Override
+    BigDecimal toBigDecimal() {
+      return exact != null ? exact : BigDecimal.valueOf(sum);
+    }
+
+    @Override
+    <T extends Number> T get(Class<T> type) {
+      if (exact != null) {
+        return MathUtils.cast(exact, type);
+      } else if (type.equals(Long.class)) {
+        return type.cast(sum);
+      } else if (type.equals(Integer.class)) {
+        return type.cast((int) sum);
+      } else if (type.equals(Short.class)) {
+        return type.cast((short) sum);
+      } else if (type.equals(Byte.class)) {
+        return type.cast((byte) sum);
+      } else {
+        return MathUtils.cast(sum, type);
+      }
+    }
+  }
+
+  private static final class DoubleSum extends NumberSum {
+
+    private double sum;
+
+    private double compensation;
+
+    private double simpleSum;
+
+    @Override
+    void add(Number num) {
+      double value = num.doubleValue();
+      simpleSum += value;
+      // Neumaier's variant of Kahan summation
+      double result = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensation += (sum - result) + value;
+      } else {
+        compensation += (value - result) + sum;
+      }
+      sum = result;
+    }
+
+    @Override
+    void combine(NumberSum other) {
+      DoubleSum o = (DoubleSum) other;
+      double simple = simpleSum + o.simpleSum;
+      add(o.sum);
+      simpleSum = simple;
+      compensation += o.compensation;
+    }
+
+    private double value() {
+      double result = sum + compensation;
+      // the compensation is NaN once infinities are involved, use the plain sum instead
+      return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+    }
+
+    @Override
+    BigDecimal toBigDecimal() {
+      return BigDecimal.valueOf(value());
+    }
+
+    @Override
+    boolean isFinite() {
+      double value = value();
+      return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    @Override
+    <T extends Number> T get(Class<T> type) {
+      if (type.equals(Double.class)) {
+        return type.cast(value());
+      } else if (type.equals(Float.class)) {
+        return type.cast((float) value());
+      } else {
+        return super.get(type);
+      }
+    }
+  }
+
+  private static final class DecimalSum extends NumberSum {
+
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    @Override
+    void add(Number num) {
+      sum = sum.add(NumberSum.toBigDecimal(num));
+    }
+
+    @Override
+    void combine(NumberSum other) {
+      sum = sum.add(other.toBigDecimal());
+    }
+
+    @Override
+    BigDecimal toBigDecimal() {
+      return sum;
+    }
+  }
+}
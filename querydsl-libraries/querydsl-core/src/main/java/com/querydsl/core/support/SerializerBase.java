@@ -17,6 +17,7 @@ import com.querydsl.core.JoinFlag;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.core.types.Constant;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Operator;
@@ -210,10 +211,19 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
 
   @Override
   public final Void visit(Constant<?> expr, Void context) {
+    onConstant(expr);
     visitConstant(expr.getConstant());
     return null;
   }
 
+  /**
+   * Called before the value of the given constant expression is passed to {@link
+   * #visitConstant(Object)}. The default implementation does nothing.
+   *
+   * @param expr constant expression
+   */
+  protected void onConstant(Constant<?> expr) {}
+
   public void visitConstant(Object constant) {
     final String constantLabel =
         getConstantToLabel().computeIfAbsent(constant, this::getConstantLabel);
@@ -300,26 +310,40 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
   protected void visitOperation(
       Class<?> type, Operator operator, final List<? extends Expression<?>> args) {
     final Template template = templates.getTemplate(operator);
-    if (template != null) {
+    final String[] parts =
+        template != null && (operator == Ops.AND || operator == Ops.OR)
+            ? template.getBinaryParts()
+            : null;
+    if (parts != null) {
+      // serialize nested and n-ary junctions in one pass like the equivalent left-deep operation
+      final List<Expression<?>> operands = ExpressionUtils.flatten(operator, args);
+      final int precedence = templates.getPrecedence(operator);
+      for (int i = 1; i < operands.size(); i++) {
+        append(parts[0]);
+      }
+      for (int i = 0; i < operands.size(); i++) {
+        if (i > 0) {
+          append(parts[1]);
+        }
+        handleOperand(operands.get(i), precedence, i == 0);
+        if (i > 0) {
+          append(parts[2]);
+        }
+      }
+    } else if (template != null && args.size() > 2 && (operator == Ops.AND || operator == Ops.OR)) {
+      // fold n-ary junctions into a left-deep operation for templates of other forms
+      Expression<?> left = args.get(0);
+      for (int i = 1; i < args.size() - 1; i++) {
+        left = ExpressionUtils.predicate(operator, left, args.get(i));
+      }
+      visitOperation(type, operator, Arrays.asList(left, args.get(args.size() - 1)));
+    } else if (template != null) {
       final int precedence = templates.getPrecedence(operator);
       boolean first = true;
       for (final Template.Element element : template.getElements()) {
         final Object rv = element.convert(args);
         if (rv instanceof Expression) {
-          final Expression<?> expr = (Expression<?>) rv;
-          if (precedence > -1 && expr instanceof Operation) {
-            Operator op = ((Operation<?>) expr).getOperator();
-            int opPrecedence = templates.getPrecedence(op);
-            if (precedence < opPrecedence) {
-              append("(").handle(expr).append(")");
-            } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
-              append("(").handle(expr).append(")");
-            } else {
-              handle(expr);
-            }
-          } else {
-            handle(expr);
-          }
+          handleOperand((Expression<?>) rv, precedence, first);
           first = false;
         } else if (element.isString()) {
           append(rv.toString());
@@ -339,4 +363,20 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
       append(")");
     }
   }
+
+  private void handleOperand(Expression<?> expr, int precedence, boolean first) {
+    if (precedence > -1 && expr instanceof Operation) {
+      Operator op = ((Operation<?>) expr).getOperator();
+      int opPrecedence = templates.getPrecedence(op);
+      if (precedence < opPrecedence) {
+        append("(").handle(expr).append(")");
+      } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
+        append("(").handle(expr).append(")");
+      } else {
+        handle(expr);
+      }
+    } else {
+      handle(expr);
+    }
+  }
 }
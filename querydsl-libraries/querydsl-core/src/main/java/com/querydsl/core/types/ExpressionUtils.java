@@ -283,13 +283,7 @@ public final class ExpressionUtils {
    */
   @Nullable
   public static Predicate allOf(Collection<Predicate> exprs) {
-    Predicate rv = null;
-    for (Predicate b : exprs) {
-      if (b != null) {
-        rv = rv == null ? b : ExpressionUtils.and(rv, b);
-      }
-    }
-    return rv;
+    return combine(Ops.AND, exprs);
   }
 
   /**
@@ -300,13 +294,7 @@ public final class ExpressionUtils {
    */
   @Nullable
   public static Predicate allOf(Predicate... exprs) {
-    Predicate rv = null;
-    for (Predicate b : exprs) {
-      if (b != null) {
-        rv = rv == null ? b : ExpressionUtils.and(rv, b);
-      }
-    }
-    return rv;
+    return combine(Ops.AND, Arrays.asList(exprs));
   }
 
   /**
@@ -336,13 +324,7 @@ public final class ExpressionUtils {
    */
   @Nullable
   public static Predicate anyOf(Collection<Predicate> exprs) {
-    Predicate rv = null;
-    for (Predicate b : exprs) {
-      if (b != null) {
-        rv = rv == null ? b : ExpressionUtils.or(rv, b);
-      }
-    }
-    return rv;
+    return combine(Ops.OR, exprs);
   }
 
   /**
@@ -353,10 +335,54 @@ public final class ExpressionUtils {
    */
   @Nullable
   public static Predicate anyOf(Predicate... exprs) {
-    Predicate rv = null;
+    return combine(Ops.OR, Arrays.asList(exprs));
+  }
+
+  @Nullable
+  private static Predicate combine(Operator operator, Collection<Predicate> exprs) {
+    List<Expression<?>> args = new ArrayList<>(exprs.size());
+    Predicate first = null;
     for (Predicate b : exprs) {
       if (b != null) {
-        rv = rv == null ? b : ExpressionUtils.or(rv, b);
+        args.add(b);
+        first = first == null ? b : first;
+      }
+    }
+    if (args.size() < 2) {
+      return first;
+    }
+    args = flatten(operator, args);
+    if (args.size() < 2) {
+      return args.isEmpty() ? null : (Predicate) args.get(0);
+    }
+    return predicate(operator, args);
+  }
+
+  /**
+   * Get the operands of an associative operation like {@link Ops#AND} or {@link Ops#OR}. Nested
+   * operations of the same operator are expanded into the result in order, so that a deep {@code a
+   * && b && c} tree yields {@code [a, b, c]}. The tree is traversed iteratively, which makes it
+   * safe to use on wide predicates.
+   *
+   * @param operator associative operator
+   * @param args operation arguments
+   * @return operands
+   */
+  public static List<Expression<?>> flatten(Operator operator, List<? extends Expression<?>> args) {
+    List<Expression<?>> rv = new ArrayList<>(args.size());
+    Deque<Expression<?>> stack = new ArrayDeque<>();
+    for (int i = args.size() - 1; i >= 0; i--) {
+      stack.push(args.get(i));
+    }
+    while (!stack.isEmpty()) {
+      Expression<?> expr = extract(stack.pop());
+      if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == operator) {
+        List<Expression<?>> nested = ((Operation<?>) expr).getArgs();
+        for (int i = nested.size() - 1; i >= 0; i--) {
+          stack.push(nested.get(i));
+        }
+      } else if (expr != null) {
+        rv.add(expr);
       }
     }
     return rv;
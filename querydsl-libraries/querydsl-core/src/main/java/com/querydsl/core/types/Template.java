@@ -24,6 +24,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * {@code Template} provides serialization templates for {@link Operation}, {@link
@@ -341,6 +342,34 @@ public final class Template implements Serializable {
     return elements;
   }
 
+  /**
+   * Get the static parts of a binary template of the form {@code prefix {0} infix {1} suffix}.
+   * Operations of associative operators with more than two arguments are serialized by repeating
+   * the infix and suffix for each further argument.
+   *
+   * @return prefix, infix and suffix or null, if the template has a different form
+   */
+  @Nullable
+  public String[] getBinaryParts() {
+    StringBuilder[] parts = {new StringBuilder(), new StringBuilder(), new StringBuilder()};
+    int part = 0;
+    for (Element element : elements) {
+      if (element instanceof StaticText) {
+        parts[part].append(((StaticText) element).getText());
+      } else if (element instanceof ByIndex && ((ByIndex) element).getIndex() == part) {
+        if (++part > 2) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    }
+    if (part != 2) {
+      return null;
+    }
+    return new String[] {parts[0].toString(), parts[1].toString(), parts[2].toString()};
+  }
+
   @Override
   public String toString() {
     return template;
@@ -15,6 +15,7 @@ package com.querydsl.core.types;
 
 import com.querydsl.core.types.Template.Element;
 import com.querydsl.core.util.CollectionUtils;
+import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,7 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -30,6 +31,11 @@ import java.util.regex.Pattern;
 /**
  * {@code TemplateFactory} is a factory for {@link Template} instances
  *
+ * <p>Parsed templates are kept in a concurrent cache which is bounded by {@link
+ * #getMaxCacheSize()}. When the bound is reached the cache is cleared, so applications which create
+ * an unbounded amount of distinct templates don't retain them. Optionally the templates can be held
+ * via soft references, so that they can be reclaimed under memory pressure.
+ *
  * @author tiwe
  */
 public class TemplateFactory {
@@ -45,6 +51,9 @@ public class TemplateFactory {
     OPERATORS = Collections.unmodifiableMap(operators);
   }
 
+  /** Default maximum amount of cached templates */
+  public static final int DEFAULT_MAX_CACHE_SIZE = 10000;
+
   public static final TemplateFactory DEFAULT = new TemplateFactory('\\');
 
   private static final Constant<String> PERCENT = ConstantImpl.create("%");
@@ -58,7 +67,12 @@ public class TemplateFactory {
               + "([slu%]?%?)"
               + "\\}");
 
-  private final Map<String, Template> cache = Collections.synchronizedMap(new WeakHashMap<>());
+  /** cached templates, either {@link Template} or {@code SoftReference<Template>} instances */
+  private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+  private final int maxCacheSize;
+
+  private final boolean softValues;
 
   private final char escape;
 
@@ -185,91 +199,142 @@ public class TemplateFactory {
       };
 
   public TemplateFactory(char escape) {
+    this(escape, DEFAULT_MAX_CACHE_SIZE, false);
+  }
+
+  /**
+   * Create a new TemplateFactory instance
+   *
+   * @param escape escape character for like patterns
+   * @param maxCacheSize maximum amount of cached templates
+   * @param softValues true, to hold cached templates via soft references
+   */
+  public TemplateFactory(char escape, int maxCacheSize, boolean softValues) {
+    if (maxCacheSize <= 0) {
+      throw new IllegalArgumentException(
+          "maxCacheSize needs to be positive, but was " + maxCacheSize);
+    }
     this.escape = escape;
+    this.maxCacheSize = maxCacheSize;
+    this.softValues = softValues;
   }
 
   public Template create(String template) {
-    if (cache.containsKey(template)) {
-      return cache.get(template);
+    Template rv = getCached(template);
+    if (rv == null) {
+      rv = parse(template);
+      if (cache.size() >= maxCacheSize) {
+        cache.clear();
+      }
+      cache.put(template, softValues ? new SoftReference<>(rv) : rv);
+    }
+    return rv;
+  }
+
+  /**
+   * Get the maximum amount of cached templates
+   *
+   * @return maximum cache size
+   */
+  public int getMaxCacheSize() {
+    return maxCacheSize;
+  }
+
+  /**
+   * Get the amount of cached templates
+   *
+   * @return cache size
+   */
+  public int getCacheSize() {
+    return cache.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Template getCached(String template) {
+    Object cached = cache.get(template);
+    if (cached instanceof SoftReference) {
+      return ((SoftReference<Template>) cached).get();
     } else {
-      Matcher m = elementPattern.matcher(template);
-      final List<Element> elements = new ArrayList<>();
-      int end = 0;
-      while (m.find()) {
-        if (m.start() > end) {
-          elements.add(new Template.StaticText(template.substring(end, m.start())));
-        }
-        String premodifiers = m.group(1).toLowerCase(Locale.ENGLISH);
-        int index = Integer.parseInt(m.group(2));
-        String postmodifiers = m.group(6).toLowerCase(Locale.ENGLISH);
-        boolean asString = false;
-        Function<Object, Object> transformer = null;
-        switch (premodifiers.length()) {
-          case 1:
-            transformer = toEndsWithViaLike;
-            break;
-          case 2:
-            transformer = toEndsWithViaLikeLower;
-            break;
-        }
-        switch (postmodifiers.length()) {
-          case 1:
-            switch (postmodifiers.charAt(0)) {
-              case '%':
-                if (transformer == null) {
-                  transformer = toStartsWithViaLike;
-                } else {
-                  transformer = toContainsViaLike;
-                }
-                break;
-              case 'l':
-                transformer = toLowerCase;
-                break;
-              case 'u':
-                transformer = toUpperCase;
-                break;
-              case 's':
-                asString = true;
-                break;
-            }
-            break;
-          case 2:
-            if (transformer == null) {
-              transformer = toStartsWithViaLikeLower;
-            } else {
-              transformer = toContainsViaLikeLower;
-            }
-            break;
-        }
-        if (m.group(4) != null) {
-          Operator operator = OPERATORS.get(m.group(3));
-          int index2 = Integer.parseInt(m.group(4));
-          elements.add(new Template.Operation(index, index2, operator, asString));
-        } else if (m.group(5) != null) {
-          Operator operator = OPERATORS.get(m.group(3));
-          Number number;
-          if (m.group(5).contains(".")) {
-            number = new BigDecimal(m.group(5));
+      return (Template) cached;
+    }
+  }
+
+  private Template parse(String template) {
+    Matcher m = elementPattern.matcher(template);
+    final List<Element> elements = new ArrayList<>();
+    int end = 0;
+    while (m.find()) {
+      if (m.start() > end) {
+        elements.add(new Template.StaticText(template.substring(end, m.start())));
+      }
+      String premodifiers = m.group(1).toLowerCase(Locale.ENGLISH);
+      int index = Integer.parseInt(m.group(2));
+      String postmodifiers = m.group(6).toLowerCase(Locale.ENGLISH);
+      boolean asString = false;
+      Function<Object, Object> transformer = null;
+      switch (premodifiers.length()) {
+        case 1:
+          transformer = toEndsWithViaLike;
+          break;
+        case 2:
+          transformer = toEndsWithViaLikeLower;
+          break;
+      }
+      switch (postmodifiers.length()) {
+        case 1:
+          switch (postmodifiers.charAt(0)) {
+            case '%':
+              if (transformer == null) {
+                transformer = toStartsWithViaLike;
+              } else {
+                transformer = toContainsViaLike;
+              }
+              break;
+            case 'l':
+              transformer = toLowerCase;
+              break;
+            case 'u':
+              transformer = toUpperCase;
+              break;
+            case 's':
+              asString = true;
+              break;
+          }
+          break;
+        case 2:
+          if (transformer == null) {
+            transformer = toStartsWithViaLikeLower;
           } else {
-            number = Integer.valueOf(m.group(5));
+            transformer = toContainsViaLikeLower;
           }
-          elements.add(new Template.OperationConst(index, number, operator, asString));
-        } else if (asString) {
-          elements.add(new Template.AsString(index));
-        } else if (transformer != null) {
-          elements.add(new Template.Transformed(index, transformer));
+          break;
+      }
+      if (m.group(4) != null) {
+        Operator operator = OPERATORS.get(m.group(3));
+        int index2 = Integer.parseInt(m.group(4));
+        elements.add(new Template.Operation(index, index2, operator, asString));
+      } else if (m.group(5) != null) {
+        Operator operator = OPERATORS.get(m.group(3));
+        Number number;
+        if (m.group(5).contains(".")) {
+          number = new BigDecimal(m.group(5));
         } else {
-          elements.add(new Template.ByIndex(index));
+          number = Integer.valueOf(m.group(5));
         }
-        end = m.end();
-      }
-      if (end < template.length()) {
-        elements.add(new Template.StaticText(template.substring(end)));
+        elements.add(new Template.OperationConst(index, number, operator, asString));
+      } else if (asString) {
+        elements.add(new Template.AsString(index));
+      } else if (transformer != null) {
+        elements.add(new Template.Transformed(index, transformer));
+      } else {
+        elements.add(new Template.ByIndex(index));
       }
-      Template rv = new Template(template, CollectionUtils.unmodifiableList(elements));
-      cache.put(template, rv);
-      return rv;
+      end = m.end();
+    }
+    if (end < template.length()) {
+      elements.add(new Template.StaticText(template.substring(end)));
     }
+    return new Template(template, CollectionUtils.unmodifiableList(elements));
   }
 
   public String escapeForLike(String str) {
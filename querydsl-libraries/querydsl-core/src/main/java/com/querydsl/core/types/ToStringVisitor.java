@@ -52,7 +52,46 @@ public final class ToStringVisitor implements Visitor<String, Templates> {
   @Override
   public String visit(Operation<?> o, Templates templates) {
     final Template template = templates.getTemplate(o.getOperator());
-    if (template != null) {
+    final String[] parts =
+        template != null && (o.getOperator() == Ops.AND || o.getOperator() == Ops.OR)
+            ? template.getBinaryParts()
+            : null;
+    if (parts != null) {
+      // render nested and n-ary junctions in one pass like the equivalent left-deep operation
+      final List<Expression<?>> args = ExpressionUtils.flatten(o.getOperator(), o.getArgs());
+      final int precedence = templates.getPrecedence(o.getOperator());
+      final StringBuilder builder = new StringBuilder();
+      for (int i = 1; i < args.size(); i++) {
+        builder.append(parts[0]);
+      }
+      for (int i = 0; i < args.size(); i++) {
+        if (i > 0) {
+          builder.append(parts[1]);
+        }
+        final Expression<?> arg = args.get(i);
+        if (precedence > -1
+            && arg instanceof Operation
+            && precedence < templates.getPrecedence(((Operation<?>) arg).getOperator())) {
+          builder.append("(").append(arg.accept(this, templates)).append(")");
+        } else {
+          builder.append(arg.accept(this, templates));
+        }
+        if (i > 0) {
+          builder.append(parts[2]);
+        }
+      }
+      return builder.toString();
+    } else if (template != null
+        && o.getArgs().size() > 2
+        && (o.getOperator() == Ops.AND || o.getOperator() == Ops.OR)) {
+      // fold n-ary junctions into a left-deep operation for templates of other forms
+      final List<Expression<?>> args = o.getArgs();
+      Expression<?> left = args.get(0);
+      for (int i = 1; i < args.size(); i++) {
+        left = ExpressionUtils.predicate(o.getOperator(), left, args.get(i));
+      }
+      return left.accept(this, templates);
+    } else if (template != null) {
       final int precedence = templates.getPrecedence(o.getOperator());
       final StringBuilder builder = new StringBuilder();
       for (Template.Element element : template.getElements()) {
@@ -180,4 +180,13 @@ public class BooleanBuilderTest {
     assertThat(builder.accept(ToStringVisitor.DEFAULT, Templates.DEFAULT))
         .isEqualTo("true || condition");
   }
+
+  @Test
+  public void clone_pending_operands() throws CloneNotSupportedException {
+    BooleanBuilder builder = new BooleanBuilder(first).or(second).or(first);
+    BooleanBuilder clone = builder.clone();
+    clone.or(second);
+    assertThat(builder.toString()).isEqualTo("true || false || true");
+    assertThat(clone.toString()).isEqualTo("true || false || true || false");
+  }
 }
@@ -0,0 +1,123 @@
+package com.querydsl.core.group;
+
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.util.MathUtils;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+@Ignore
+@Category(Performance.class)
+@State(Scope.Benchmark)
+public class GroupByAggregatePerformanceTest {
+
+  private static final int SIZE = 100_000;
+
+  private static final Expression<Long> longs = Expressions.numberPath(Long.class, "longs");
+
+  private static final Expression<Double> doubles = Expressions.numberPath(Double.class, "doubles");
+
+  private final Long[] longValues = new Long[SIZE];
+
+  private final Double[] doubleValues = new Double[SIZE];
+
+  public GroupByAggregatePerformanceTest() {
+    Random random = new Random(0);
+    for (int i = 0; i < SIZE; i++) {
+      longValues[i] = (long) random.nextInt(1_000_000);
+      doubleValues[i] = random.nextDouble() * 1_000;
+    }
+  }
+
+  private static <T extends Number> T aggregate(GroupCollector<T, T> collector, T[] values) {
+    for (T value : values) {
+      collector.add(value);
+    }
+    return collector.get();
+  }
+
+  /** The string based accumulation used before the collectors were specialized */
+  private static <T extends Number> T legacySum(Class<T> type, T[] values) {
+    BigDecimal sum = BigDecimal.ZERO;
+    for (T value : values) {
+      sum = sum.add(new BigDecimal(value.toString()));
+    }
+    return MathUtils.cast(sum, type);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Long sumLong() {
+    return aggregate(new GSum<>(longs).createGroupCollector(), longValues);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Long sumLongLegacy() {
+    return legacySum(Long.class, longValues);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Double sumDouble() {
+    return aggregate(new GSum<>(doubles).createGroupCollector(), doubleValues);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Double sumDoubleLegacy() {
+    return legacySum(Double.class, doubleValues);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Long avgLong() {
+    return aggregate(new GAvg<>(longs).createGroupCollector(), longValues);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Double avgDouble() {
+    return aggregate(new GAvg<>(doubles).createGroupCollector(), doubleValues);
+  }
+
+  @Test
+  public void launchBenchmark() throws Exception {
+    Options opt =
+        new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.SECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
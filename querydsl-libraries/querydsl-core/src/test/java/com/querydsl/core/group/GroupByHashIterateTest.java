@@ -0,0 +1,143 @@
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static com.querydsl.core.group.GroupBy.max;
+import static com.querydsl.core.group.GroupBy.sum;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.DummyFetchableQuery;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.SimplePath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class GroupByHashIterateTest {
+
+  private static final NumberPath<Integer> key = Expressions.numberPath(Integer.class, "key");
+
+  private static final NumberPath<Integer> value = Expressions.numberPath(Integer.class, "value");
+
+  private static final NumberPath<Integer> other = Expressions.numberPath(Integer.class, "other");
+
+  private static DummyFetchableQuery<Tuple> rows(int size, int groups) {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      rows.add(new Object[] {i % groups == 0 ? null : i % groups, i, i});
+    }
+    Collections.shuffle(rows, new Random(0));
+    return new DummyFetchableQuery<Tuple>(
+        AbstractGroupByTest.toTuples(rows.toArray(new Object[0][])));
+  }
+
+  private static Map<Integer, Group> toMap(CloseableIterator<Group> groups) {
+    Map<Integer, Group> results = new HashMap<>();
+    for (Group group : IteratorAdapter.asList(groups)) {
+      assertThat(results.put(group.getOne(key), group)).isNull();
+    }
+    return results;
+  }
+
+  @Test
+  public void unsorted() {
+    DummyFetchableQuery<Tuple> query =
+        new DummyFetchableQuery<Tuple>(
+            AbstractGroupByTest.toTuples(
+                new Object[] {2, 1, 1},
+                new Object[] {1, 2, 2},
+                new Object[] {2, 3, 3},
+                new Object[] {null, 4, 4}));
+    List<Group> groups =
+        IteratorAdapter.asList(
+            query.transform(groupBy(key).iterateUnsorted(10, list(value), sum(other))));
+    assertThat(groups).hasSize(3);
+    assertThat(groups.get(0).getOne(key)).isEqualTo(2);
+    assertThat(groups.get(0).getList(value)).containsExactly(1, 3);
+    assertThat(groups.get(1).getOne(key)).isEqualTo(1);
+    assertThat(groups.get(2).getOne(key)).isNull();
+  }
+
+  @Test
+  public void same_as_map() {
+    DummyFetchableQuery<Tuple> query = rows(2000, 100);
+    Map<Integer, Group> expected = query.transform(groupBy(key).as(list(value), sum(other)));
+    Map<Integer, Group> results =
+        toMap(query.transform(groupBy(key).iterateUnsorted(1000, list(value), sum(other))));
+    assertThat(results.keySet()).isEqualTo(expected.keySet());
+    for (Map.Entry<Integer, Group> entry : expected.entrySet()) {
+      Group group = results.get(entry.getKey());
+      assertThat(group.getList(value)).isEqualTo(entry.getValue().getList(value));
+      assertThat(group.getGroup(sum(other))).isEqualTo(entry.getValue().getGroup(sum(other)));
+    }
+  }
+
+  @Test
+  public void spill() {
+    DummyFetchableQuery<Tuple> query = rows(20000, 1000);
+    Map<Integer, Group> expected = query.transform(groupBy(key).as(list(value), sum(other)));
+    for (int maxGroups : new int[] {1, 10, 999}) {
+      Map<Integer, Group> results =
+          toMap(query.transform(groupBy(key).iterateUnsorted(maxGroups, list(value), sum(other))));
+      assertThat(results).hasSize(1000);
+      for (Map.Entry<Integer, Group> entry : expected.entrySet()) {
+        assertThat(results.get(entry.getKey()).getList(value))
+            .containsExactlyInAnyOrderElementsOf(entry.getValue().getList(value));
+      }
+    }
+  }
+
+  @Test
+  public void spill_projection() {
+    DummyFetchableQuery<Tuple> query = rows(5000, 100);
+    Map<Integer, Integer> expected = query.transform(groupBy(key).as(sum(value)));
+    List<Integer> sums = new ArrayList<>();
+    try (CloseableIterator<Integer[]> iter =
+        query.transform(
+            groupBy(key)
+                .iterateUnsorted(7, Projections.array(Integer[].class, sum(value), max(other))))) {
+      while (iter.hasNext()) {
+        Integer[] row = iter.next();
+        sums.add(row[0]);
+      }
+    }
+    assertThat(sums).containsExactlyInAnyOrderElementsOf(expected.values());
+  }
+
+  @Test
+  public void close_before_end() {
+    CloseableIterator<Integer> iter =
+        rows(1000, 100).transform(groupBy(key).iterateUnsorted(5, value));
+    assertThat(iter.hasNext()).isTrue();
+    iter.next();
+    iter.close();
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void not_serializable() {
+    SimplePath<Object> object = Expressions.path(Object.class, "object");
+    DummyFetchableQuery<Tuple> query =
+        new DummyFetchableQuery<Tuple>(
+            AbstractGroupByTest.toTuples(
+                new Object[] {1, new Object()}, new Object[] {2, new Object()}));
+    assertThatThrownBy(() -> query.transform(groupBy(key).iterateUnsorted(1, list(object))))
+        .isInstanceOf(QueryException.class);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalid_budget() {
+    groupBy(key).iterateUnsorted(0, value);
+  }
+}
@@ -0,0 +1,217 @@
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.GroupBy.avg;
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static com.querydsl.core.group.GroupBy.map;
+import static com.querydsl.core.group.GroupBy.max;
+import static com.querydsl.core.group.GroupBy.min;
+import static com.querydsl.core.group.GroupBy.set;
+import static com.querydsl.core.group.GroupBy.sum;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.Pair;
+import com.querydsl.core.ResultTransformer;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.DummyFetchableQuery;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+public class GroupByMergeTest {
+
+  private static final NumberPath<Integer> key = Expressions.numberPath(Integer.class, "key");
+
+  private static final NumberPath<Integer> listed = Expressions.numberPath(Integer.class, "listed");
+
+  private static final NumberPath<Integer> distinct =
+      Expressions.numberPath(Integer.class, "distinct");
+
+  private static final NumberPath<Long> summed = Expressions.numberPath(Long.class, "summed");
+
+  private static final NumberPath<Double> averaged =
+      Expressions.numberPath(Double.class, "averaged");
+
+  private static final NumberPath<Integer> minimum =
+      Expressions.numberPath(Integer.class, "minimum");
+
+  private static final NumberPath<Integer> maximum =
+      Expressions.numberPath(Integer.class, "maximum");
+
+  private static final StringPath first = Expressions.stringPath("first");
+
+  private static final StringPath mapKey = Expressions.stringPath("mapKey");
+
+  private static final NumberPath<Integer> mapValue =
+      Expressions.numberPath(Integer.class, "mapValue");
+
+  private static final StringPath mixinKey = Expressions.stringPath("mixinKey");
+
+  private static final NumberPath<Integer> mixinValue =
+      Expressions.numberPath(Integer.class, "mixinValue");
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  private static List<Object[]> rows(Random random, int size) {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      int value = random.nextInt(100);
+      rows.add(
+          new Object[] {
+            random.nextInt(20),
+            value,
+            value % 7,
+            (long) value,
+            (double) value,
+            value,
+            value,
+            "first " + value,
+            Pair.of("k" + value % 5, value),
+            Pair.of("m" + value % 3, value)
+          });
+    }
+    return rows;
+  }
+
+  private static DummyFetchableQuery<Tuple> query(List<Object[]> rows) {
+    return new DummyFetchableQuery<Tuple>(
+        AbstractGroupByTest.toTuples(rows.toArray(new Object[0][])));
+  }
+
+  @Test
+  public void merge() {
+    Random random = new Random(0);
+    List<List<Object[]>> shards = new ArrayList<>();
+    List<Object[]> all = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      List<Object[]> rows = rows(random, 250);
+      shards.add(rows);
+      all.addAll(rows);
+    }
+
+    ResultTransformer<Map<Integer, Group>> transformer =
+        groupBy(key)
+            .as(
+                list(listed),
+                set(distinct),
+                sum(summed),
+                avg(averaged),
+                min(minimum),
+                max(maximum),
+                first,
+                map(mapKey, mapValue),
+                map(mixinKey, sum(mixinValue)));
+
+    List<DummyFetchableQuery<Tuple>> queries = new ArrayList<>();
+    for (List<Object[]> rows : shards) {
+      queries.add(query(rows));
+    }
+    Map<Integer, Group> merged = GroupBy.transform(transformer, executor, queries);
+    Map<Integer, Group> expected = query(all).transform(transformer);
+
+    assertThat(merged.keySet()).containsExactlyElementsOf(expected.keySet());
+    for (Map.Entry<Integer, Group> entry : expected.entrySet()) {
+      Group group = merged.get(entry.getKey());
+      assertThat(group.getList(listed)).isEqualTo(entry.getValue().getList(listed));
+      assertThat(group.getSet(distinct)).isEqualTo(entry.getValue().getSet(distinct));
+      assertThat(group.getOne(summed)).isEqualTo(entry.getValue().getOne(summed));
+      assertThat(group.getOne(averaged)).isEqualTo(entry.getValue().getOne(averaged));
+      assertThat(group.getOne(minimum)).isEqualTo(entry.getValue().getOne(minimum));
+      assertThat(group.getOne(maximum)).isEqualTo(entry.getValue().getOne(maximum));
+      assertThat(group.getOne(first)).isEqualTo(entry.getValue().getOne(first));
+      assertThat(group.getMap(mapKey, mapValue))
+          .containsExactlyEntriesOf(entry.getValue().getMap(mapKey, mapValue));
+      assertThat(group.toArray()[9]).isEqualTo(entry.getValue().toArray()[9]);
+    }
+  }
+
+  @Test
+  public void merge_projection() {
+    Random random = new Random(1);
+    List<Object[]> first = rows(random, 100);
+    List<Object[]> second = rows(random, 100);
+    List<Object[]> all = new ArrayList<>(first);
+    all.addAll(second);
+
+    ResultTransformer<Map<Integer, Integer>> transformer = groupBy(key).as(sum(listed));
+    assertThat(GroupBy.transform(transformer, executor, Arrays.asList(query(first), query(second))))
+        .isEqualTo(query(all).transform(transformer));
+  }
+
+  @Test
+  public void no_queries() {
+    assertThat(GroupBy.transform(groupBy(key).as(list(listed)), executor, Collections.emptyList()))
+        .isEmpty();
+  }
+
+  @Test
+  public void unsupported_transformer() {
+    assertThatThrownBy(
+            () ->
+                GroupBy.transform(
+                    groupBy(key).as(HashMap::new, list(listed)), executor, Collections.emptyList()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void failing_query() {
+    Error error = new Error("shard failed");
+    DummyFetchableQuery<Tuple> failing =
+        new DummyFetchableQuery<Tuple>(Collections.emptyList()) {
+          @Override
+          public CloseableIterator<Tuple> iterate() {
+            throw error;
+          }
+        };
+    AtomicBoolean executed = new AtomicBoolean();
+    DummyFetchableQuery<Tuple> pending =
+        new DummyFetchableQuery<Tuple>(Collections.emptyList()) {
+          @Override
+          public CloseableIterator<Tuple> iterate() {
+            executed.set(true);
+            return super.iterate();
+          }
+        };
+
+    // runs the first query in the calling thread and defers the others
+    AtomicBoolean started = new AtomicBoolean();
+    List<Runnable> deferred = new ArrayList<>();
+    Executor deferring =
+        command -> {
+          if (started.getAndSet(true)) {
+            deferred.add(command);
+          } else {
+            command.run();
+          }
+        };
+
+    assertThatThrownBy(
+            () ->
+                GroupBy.transform(
+                    groupBy(key).as(sum(listed)), deferring, Arrays.asList(failing, pending)))
+        .isSameAs(error);
+    assertThat(deferred).hasSize(1);
+    deferred.get(0).run();
+    assertThat(executed).isFalse();
+  }
+}
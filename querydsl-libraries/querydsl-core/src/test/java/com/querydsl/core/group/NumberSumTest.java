@@ -0,0 +1,103 @@
+package com.querydsl.core.group;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.junit.Test;
+
+public class NumberSumTest {
+
+  @SafeVarargs
+  private static <T extends Number> T sum(Class<T> type, T... values) {
+    Expression<T> expr = Expressions.path(type, "num");
+    GroupCollector<T, T> collector = new GSum<T>(expr).createGroupCollector();
+    for (T value : values) {
+      collector.add(value);
+    }
+    return collector.get();
+  }
+
+  @SafeVarargs
+  private static <T extends Number> T avg(Class<T> type, T... values) {
+    Expression<T> expr = Expressions.path(type, "num");
+    GroupCollector<T, T> collector = new GAvg<T>(expr).createGroupCollector();
+    for (T value : values) {
+      collector.add(value);
+    }
+    return collector.get();
+  }
+
+  private static <T extends Number> T combine(GroupExpression<T, T> expr, T first, T second) {
+    GroupCollector<T, T> collector = expr.createGroupCollector();
+    GroupCollector<T, T> other = expr.createGroupCollector();
+    collector.add(first);
+    other.add(second);
+    collector.combine(other);
+    return collector.get();
+  }
+
+  @Test
+  public void combine() {
+    Expression<Long> longs = Expressions.path(Long.class, "longs");
+    Expression<Double> doubles = Expressions.path(Double.class, "doubles");
+    assertThat(combine(new GSum<>(longs), 1L, 2L)).isEqualTo(3L);
+    assertThat(combine(new GAvg<>(longs), Long.MAX_VALUE, Long.MAX_VALUE))
+        .isEqualTo(Long.MAX_VALUE);
+    assertThat(combine(new GSum<>(doubles), 1e100, -1e100)).isEqualTo(0.0);
+    assertThat(combine(new GAvg<>(doubles), 1.0, 2.0)).isEqualTo(1.5);
+    assertThat(combine(new GSum<>(doubles), Double.POSITIVE_INFINITY, 1.0))
+        .isEqualTo(Double.POSITIVE_INFINITY);
+  }
+
+  @Test
+  public void integral() {
+    assertThat(sum(Integer.class, 1, 2, null, 3)).isEqualTo(6);
+    assertThat(sum(Short.class, (short) 1, (short) 2)).isEqualTo((short) 3);
+    assertThat(sum(Byte.class, (byte) 1, (byte) 2)).isEqualTo((byte) 3);
+    assertThat(sum(Long.class, 1L, -2L)).isEqualTo(-1L);
+    assertThat(sum(Integer.class)).isEqualTo(0);
+  }
+
+  @Test
+  public void integral_overflow() {
+    assertThat(sum(Integer.class, Integer.MAX_VALUE, 1)).isEqualTo(Integer.MIN_VALUE);
+    assertThat(avg(Long.class, Long.MAX_VALUE, Long.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+    assertThat(avg(Long.class, Long.MIN_VALUE, Long.MIN_VALUE, 2L))
+        .isEqualTo(-6148914691236517204L);
+    assertThat(sum(Long.class, Long.MAX_VALUE, 1L, -1L)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void floating_point() {
+    Double[] values = new Double[10];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 0.1;
+    }
+    assertThat(sum(Double.class, values)).isEqualTo(1.0);
+    assertThat(sum(Double.class, 1e100, 1.0, -1e100)).isEqualTo(1.0);
+    assertThat(sum(Float.class, 0.1f, 0.2f)).isEqualTo(0.3f);
+    assertThat(avg(Double.class, 1.5, 2.0, 0.5)).isEqualTo(4.0 / 3);
+  }
+
+  @Test
+  public void floating_point_non_finite() {
+    assertThat(sum(Double.class, 1.0, Double.POSITIVE_INFINITY))
+        .isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(sum(Double.class, 1.0, Double.NaN)).isNaN();
+    assertThat(avg(Double.class, 1.0, Double.NEGATIVE_INFINITY))
+        .isEqualTo(Double.NEGATIVE_INFINITY);
+  }
+
+  @Test
+  public void big_numbers() {
+    assertThat(sum(BigDecimal.class, new BigDecimal("0.1"), new BigDecimal("0.2")))
+        .isEqualTo(new BigDecimal("0.3"));
+    assertThat(sum(BigInteger.class, BigInteger.valueOf(Long.MAX_VALUE), BigInteger.ONE))
+        .isEqualTo(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+    assertThat(avg(BigDecimal.class, new BigDecimal("1"), new BigDecimal("2")))
+        .isEqualTo(new BigDecimal("1.5"));
+  }
+}
@@ -13,12 +13,18 @@
  */
 package com.querydsl.core.serialization;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.querydsl.core.types.ConstantImpl;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.JavaTemplates;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanPath;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.junit.Test;
 
@@ -39,4 +45,26 @@ public class SerializerBaseTest {
     //  custom
     serializer.handle(ExpressionUtils.template(Object.class, "xxx", ConstantImpl.create("")));
   }
+
+  @Test
+  public void wide_predicate() {
+    List<Predicate> predicates = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      predicates.add(Expressions.booleanPath("p" + i));
+    }
+    DummySerializer serializer = new DummySerializer(new JavaTemplates());
+    serializer.handle(ExpressionUtils.anyOf(predicates));
+    assertThat(serializer.toString()).startsWith("p0 || p1 || ").endsWith(" || p19999");
+  }
+
+  @Test
+  public void nested_predicate() {
+    BooleanPath a = Expressions.booleanPath("a");
+    BooleanPath b = Expressions.booleanPath("b");
+    BooleanPath c = Expressions.booleanPath("c");
+    BooleanPath d = Expressions.booleanPath("d");
+    DummySerializer serializer = new DummySerializer(new JavaTemplates());
+    serializer.handle(a.or(b).and(c).and(d.not()));
+    assertThat(serializer.toString()).isEqualTo("(a || b) && c && !d");
+  }
 }
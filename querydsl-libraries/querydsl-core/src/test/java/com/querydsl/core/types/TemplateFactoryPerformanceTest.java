@@ -0,0 +1,71 @@
+package com.querydsl.core.types;
+
+import com.querydsl.core.testutil.Performance;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+@Ignore
+@Category(Performance.class)
+@State(Scope.Benchmark)
+public class TemplateFactoryPerformanceTest {
+
+  private static final String[] templates = new String[256];
+
+  static {
+    for (int i = 0; i < templates.length; i++) {
+      templates[i] = "coalesce({0}, {1}) + " + i;
+    }
+  }
+
+  private final TemplateFactory factory = new TemplateFactory('\\');
+
+  private final TemplateFactory softFactory =
+      new TemplateFactory('\\', TemplateFactory.DEFAULT_MAX_CACHE_SIZE, true);
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Template create() {
+    return factory.create(templates[ThreadLocalRandom.current().nextInt(templates.length)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Template createSoft() {
+    return softFactory.create(templates[ThreadLocalRandom.current().nextInt(templates.length)]);
+  }
+
+  @Test
+  public void launchBenchmark() throws Exception {
+    Options opt =
+        new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .threads(Runtime.getRuntime().availableProcessors())
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,72 @@
+package com.querydsl.core.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TemplateFactoryTest {
+
+  @Test
+  public void cached() {
+    TemplateFactory factory = new TemplateFactory('\\');
+    Template template = factory.create("{0} + {1}");
+    assertThat(factory.create("{0} + {1}")).isSameAs(template);
+    assertThat(factory.getCacheSize()).isEqualTo(1);
+  }
+
+  @Test
+  public void bounded() {
+    TemplateFactory factory = new TemplateFactory('\\', 10, false);
+    for (int i = 0; i < 25; i++) {
+      factory.create("{0} + " + i);
+    }
+    assertThat(factory.getCacheSize()).isLessThanOrEqualTo(10);
+    assertThat(factory.create("{0} + 3").toString()).isEqualTo("{0} + 3");
+  }
+
+  @Test
+  public void soft_values() {
+    TemplateFactory factory = new TemplateFactory('\\', 10, true);
+    Template template = factory.create("{0}.{1s}");
+    assertThat(factory.create("{0}.{1s}")).isSameAs(template);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalid_cache_size() {
+    new TemplateFactory('\\', 0, false);
+  }
+
+  @Test
+  public void concurrent() throws Exception {
+    TemplateFactory factory = new TemplateFactory('\\', 50, false);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(
+            executor.submit(
+                (Callable<Boolean>)
+                    () -> {
+                      for (int j = 0; j < 1000; j++) {
+                        String str = "{0} = " + (j % 100);
+                        if (!factory.create(str).toString().equals(str)) {
+                          return false;
+                        }
+                      }
+                      return true;
+                    }));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get()).isTrue();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
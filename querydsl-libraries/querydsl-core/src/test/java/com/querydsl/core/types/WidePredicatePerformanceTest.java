@@ -0,0 +1,112 @@
+package com.querydsl.core.types;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+@Ignore
+@Category(Performance.class)
+@State(Scope.Benchmark)
+public class WidePredicatePerformanceTest {
+
+  @Param({"100", "10000"})
+  private int width;
+
+  private final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+  private List<Predicate> predicates;
+
+  private Predicate predicate;
+
+  @Setup
+  public void setup() {
+    predicates = new ArrayList<>(width);
+    for (int i = 0; i < width; i++) {
+      predicates.add(id.eq(i));
+    }
+    predicate = ExpressionUtils.anyOf(predicates);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Predicate anyOf() {
+    return ExpressionUtils.anyOf(predicates);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Predicate booleanBuilder() {
+    BooleanBuilder builder = new BooleanBuilder();
+    for (Predicate predicate : predicates) {
+      builder.or(predicate);
+    }
+    return builder.getValue();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Predicate chain() {
+    BooleanExpression rv = id.eq(0);
+    for (int i = 1; i < width; i++) {
+      rv = rv.or(id.eq(i));
+    }
+    return rv;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String render() {
+    return predicate.accept(ToStringVisitor.DEFAULT, Templates.DEFAULT);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int hash() {
+    return ExpressionUtils.anyOf(predicates).hashCode();
+  }
+
+  @Test
+  public void launchBenchmark() throws Exception {
+    Options opt =
+        new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
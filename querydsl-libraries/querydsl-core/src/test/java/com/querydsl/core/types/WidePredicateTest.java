@@ -0,0 +1,104 @@
+package com.querydsl.core.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class WidePredicateTest {
+
+  private static final int WIDTH = 20000;
+
+  private static final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+  private static final BooleanExpression a = Expressions.booleanPath("a");
+
+  private static final BooleanExpression b = Expressions.booleanPath("b");
+
+  private static final BooleanExpression c = Expressions.booleanPath("c");
+
+  private static List<Predicate> predicates() {
+    List<Predicate> predicates = new ArrayList<>(WIDTH);
+    for (int i = 0; i < WIDTH; i++) {
+      predicates.add(id.eq(i));
+    }
+    return predicates;
+  }
+
+  @Test
+  public void flatten() {
+    assertThat(ExpressionUtils.flatten(Ops.AND, ((Operation<?>) a.and(b).and(c)).getArgs()))
+        .containsExactly(a, b, c);
+    assertThat(ExpressionUtils.flatten(Ops.AND, ((Operation<?>) a.and(b.and(c))).getArgs()))
+        .containsExactly(a, b, c);
+    assertThat(ExpressionUtils.flatten(Ops.AND, ((Operation<?>) a.or(b).and(c)).getArgs()))
+        .containsExactly(a.or(b), c);
+  }
+
+  @Test
+  public void nested_rendering() {
+    assertThat(a.and(b).and(c).toString()).isEqualTo("a && b && c");
+    assertThat(a.and(b.and(c)).toString()).isEqualTo("a && b && c");
+    assertThat(ExpressionUtils.or(ExpressionUtils.or(a, b), c).toString()).isEqualTo("a || b || c");
+    assertThat(a.or(b).and(c).toString()).isEqualTo("(a || b) && c");
+  }
+
+  @Test
+  public void deep_chain() {
+    BooleanExpression predicate = id.eq(0);
+    for (int i = 1; i < WIDTH; i++) {
+      predicate = predicate.or(id.eq(i));
+    }
+    assertThat(predicate.toString()).startsWith("id = 0 || id = 1 || ").endsWith(" || id = 19999");
+  }
+
+  @Test
+  public void anyOf() {
+    Operation<?> predicate = (Operation<?>) ExpressionUtils.anyOf(predicates());
+    assertThat(predicate.getOperator()).isEqualTo(Ops.OR);
+    assertThat(predicate.getArgs()).hasSize(WIDTH);
+    assertThat(predicate.toString()).startsWith("id = 0 || id = 1 || ").endsWith(" || id = 19999");
+  }
+
+  @Test
+  public void allOf() {
+    Operation<?> predicate = (Operation<?>) ExpressionUtils.allOf(predicates());
+    assertThat(predicate.getOperator()).isEqualTo(Ops.AND);
+    assertThat(predicate.getArgs()).hasSize(WIDTH);
+    assertThat(predicate.hashCode()).isEqualTo(ExpressionUtils.allOf(predicates()).hashCode());
+  }
+
+  @Test
+  public void booleanBuilder() {
+    BooleanBuilder builder = new BooleanBuilder();
+    for (Predicate predicate : predicates()) {
+      builder.or(predicate);
+    }
+    Operation<?> predicate = (Operation<?>) builder.getValue();
+    assertThat(predicate.getArgs()).hasSize(WIDTH);
+    assertThat(predicate).isEqualTo(ExpressionUtils.anyOf(predicates()));
+  }
+
+  @Test
+  public void booleanBuilder_mixed() {
+    BooleanBuilder builder = new BooleanBuilder(a);
+    builder.and(b).and(c);
+    assertThat(builder.getValue()).isEqualTo(ExpressionUtils.predicate(Ops.AND, a, b, c));
+    builder.or(id.eq(1)).or(id.eq(2));
+    assertThat(builder.toString()).isEqualTo("a && b && c || id = 1 || id = 2");
+    builder.and(a);
+    assertThat(((Operation<?>) builder.getValue()).getArgs()).hasSize(2);
+    assertThat(builder.getValue())
+        .isEqualTo(
+            ExpressionUtils.predicate(
+                Ops.AND,
+                ExpressionUtils.predicate(
+                    Ops.OR, ExpressionUtils.predicate(Ops.AND, a, b, c), id.eq(1), id.eq(2)),
+                a));
+  }
+}
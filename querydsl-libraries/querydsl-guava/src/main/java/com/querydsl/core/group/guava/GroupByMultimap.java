@@ -61,7 +61,7 @@ public class GroupByMultimap<K, V, R extends Multimap<K, V>>
         @SuppressWarnings("unchecked") // This type is mandated by the key type
         K[] row = (K[]) iter.next().toArray();
         K groupId = row[0];
-        GroupImpl group = new GroupImpl(groupExpressions, maps);
+        GroupImpl group = newGroup();
         groups.put(groupId, group);
         group.add(row);
       }
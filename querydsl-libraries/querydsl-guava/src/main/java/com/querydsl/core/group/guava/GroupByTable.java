@@ -68,7 +68,7 @@ public class GroupByTable<R, C, V, RES extends Table<R, C, V>>
         Object rowId = row[1];
         GroupImpl group = (GroupImpl) groups.get(groupId, rowId);
         if (group == null) {
-          group = new GroupImpl(groupExpressions, maps);
+          group = newGroup();
           groups.put(groupId, rowId, group);
         }
         group.add(row);
@@ -68,9 +68,9 @@ public class LuceneSerializer {
   private Query toQuery(Operation<?> operation, QueryMetadata metadata) {
     Operator op = operation.getOperator();
     if (op == Ops.OR) {
-      return toTwoHandSidedQuery(operation, Occur.SHOULD, metadata);
+      return toBooleanQuery(operation, Occur.SHOULD, metadata);
     } else if (op == Ops.AND) {
-      return toTwoHandSidedQuery(operation, Occur.MUST, metadata);
+      return toBooleanQuery(operation, Occur.MUST, metadata);
     } else if (op == Ops.NOT) {
       BooleanQuery bq = new BooleanQuery();
       bq.add(new BooleanClause(toQuery(operation.getArg(0), metadata), Occur.MUST_NOT));
@@ -120,12 +120,30 @@ public class LuceneSerializer {
     throw new UnsupportedOperationException("Illegal operation " + operation);
   }
 
-  private Query toTwoHandSidedQuery(Operation<?> operation, Occur occur, QueryMetadata metadata) {
-    Query lhs = toQuery(operation.getArg(0), metadata);
-    Query rhs = toQuery(operation.getArg(1), metadata);
+  private Query toBooleanQuery(Operation<?> operation, Occur occur, QueryMetadata metadata) {
+    List<Expression<?>> args = ExpressionUtils.flatten(operation.getOperator(), operation.getArgs());
+    List<Query> queries = new ArrayList<Query>(args.size());
+    for (Expression<?> arg : args) {
+      queries.add(toQuery(arg, metadata));
+    }
+    // nest wide operations to stay within the clause limit
+    int maxClauseCount = BooleanQuery.getMaxClauseCount();
+    while (queries.size() > maxClauseCount) {
+      List<Query> nested = new ArrayList<Query>(queries.size() / maxClauseCount + 1);
+      for (int i = 0; i < queries.size(); i += maxClauseCount) {
+        int end = Math.min(i + maxClauseCount, queries.size());
+        nested.add(toBooleanQuery(queries.subList(i, end), occur));
+      }
+      queries = nested;
+    }
+    return toBooleanQuery(queries, occur);
+  }
+
+  private Query toBooleanQuery(List<Query> queries, Occur occur) {
     BooleanQuery bq = new BooleanQuery();
-    bq.add(createBooleanClause(lhs, occur));
-    bq.add(createBooleanClause(rhs, occur));
+    for (Query query : queries) {
+      bq.add(createBooleanClause(query, occur));
+    }
     return bq;
   }
 
@@ -24,6 +24,7 @@ import com.querydsl.core.QuerydslModule;
 import com.querydsl.core.StringConstant;
 import com.querydsl.core.Target;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Operator;
 import com.querydsl.core.types.Ops;
@@ -35,9 +36,11 @@ import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
@@ -52,6 +55,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
@@ -285,10 +289,37 @@ public class LuceneSerializerTest {
   public void eq_and_eq_and_eq() throws Exception {
     testQuery(
         title.eq("Jurassic Park").and(year.eq(1990)).and(author.eq("Michael Crichton")),
-        "+(+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED + ") +author:\"michael crichton\"",
+        "+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED + " +author:\"michael crichton\"",
         1);
   }
 
+  @Test
+  public void eq_and_eq_and_eq_flat() throws Exception {
+    Predicate predicate =
+        ExpressionUtils.allOf(
+            title.eq("Jurassic Park"), year.eq(1990), author.eq("Michael Crichton"));
+    testQuery(predicate, 1);
+    assertThat(((BooleanQuery) serializer.toQuery(predicate, metadata)).clauses()).hasSize(3);
+  }
+
+  @Test
+  public void wide_or() throws Exception {
+    List<Predicate> predicates = new ArrayList<>();
+    for (int i = 0; i < BooleanQuery.getMaxClauseCount() * 2; i++) {
+      predicates.add(year.eq(i));
+    }
+    testQuery(ExpressionUtils.anyOf(predicates), 1);
+  }
+
+  @Test
+  public void deep_or_chain() throws Exception {
+    BooleanExpression predicate = year.eq(0);
+    for (int i = 1; i < 20000; i++) {
+      predicate = predicate.or(year.eq(i));
+    }
+    testQuery(predicate, 1);
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void equals_ignore_case_and_or() throws Exception {
     testQuery(
@@ -105,17 +105,19 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
       return asDBObject(asDBKey(expr, 0), "");
 
     } else if (op == Ops.AND) {
-      BSONObject lhs = (BSONObject) handle(expr.getArg(0));
-      BSONObject rhs = (BSONObject) handle(expr.getArg(1));
-      if (lhs.keySet().stream().noneMatch(rhs.keySet()::contains)) {
-        lhs.putAll(rhs);
-        return lhs;
-      } else {
-        BasicDBList list = new BasicDBList();
-        list.add(handle(expr.getArg(0)));
-        list.add(handle(expr.getArg(1)));
-        return asDBObject("$and", list);
+      BasicDBList list = new BasicDBList();
+      BasicDBObject merged = new BasicDBObject();
+      boolean disjoint = true;
+      for (Expression<?> arg : ExpressionUtils.flatten(Ops.AND, expr.getArgs())) {
+        BSONObject handled = (BSONObject) handle(arg);
+        list.add(handled);
+        if (disjoint && handled.keySet().stream().noneMatch(merged::containsField)) {
+          merged.putAll(handled);
+        } else {
+          disjoint = false;
+        }
       }
+      return disjoint ? merged : asDBObject("$and", list);
 
     } else if (op == Ops.NOT) {
       // Handle the not's child
@@ -133,8 +135,9 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
 
     } else if (op == Ops.OR) {
       BasicDBList list = new BasicDBList();
-      list.add(handle(expr.getArg(0)));
-      list.add(handle(expr.getArg(1)));
+      for (Expression<?> arg : ExpressionUtils.flatten(Ops.OR, expr.getArgs())) {
+        list.add(handle(arg));
+      }
       return asDBObject("$or", list);
 
     } else if (op == Ops.NE) {
@@ -393,7 +393,8 @@ public abstract class MongodbDocumentSerializer implements Visitor<Object, Void>
   private Queue<Map<Object, Object>> collectConnectorArgs(String operator, Operation<?> operation) {
 
     Queue<Map<Object, Object>> pendingDocuments = new LinkedList<Map<Object, Object>>();
-    for (Expression<?> exp : operation.getArgs()) {
+    for (Expression<?> exp :
+        ExpressionUtils.flatten(operation.getOperator(), operation.getArgs())) {
       Map<Object, Object> document = (Map<Object, Object>) handle(exp);
       if (document.keySet().size() == 1 && document.containsKey(operator)) {
         pendingDocuments.addAll((Collection<Map<Object, Object>>) document.get(operator));
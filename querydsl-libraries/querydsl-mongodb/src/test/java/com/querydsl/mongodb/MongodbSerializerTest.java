@@ -248,6 +248,24 @@ public class MongodbSerializerTest {
         dbo("ctds", dbo("$all", dblist(objectId1, objectId2))));
   }
 
+  @Test
+  public void deep_or_chain() {
+    BooleanExpression predicate = year.eq(0);
+    for (int i = 1; i < 20000; i++) {
+      predicate = predicate.or(year.eq(i));
+    }
+    BasicDBList list = (BasicDBList) ((BasicDBObject) serializer.handle(predicate)).get("$or");
+    assertThat(list).hasSize(20000);
+    assertThat(list.get(19999)).isEqualTo(dbo("year", 19999));
+  }
+
+  @Test
+  public void and_chain() {
+    assertQuery(
+        title.eq("A").and(year.eq(1)).and(year.ne(2)),
+        dbo("$and", dblist(dbo("title", "A"), dbo("year", 1), dbo("year", dbo("$ne", 2)))));
+  }
+
   @Test
   public void not() {
     assertQuery(title.eq("A").not(), dbo("title", dbo("$ne", "A")));
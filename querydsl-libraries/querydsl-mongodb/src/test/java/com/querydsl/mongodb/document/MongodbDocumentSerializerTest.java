@@ -21,6 +21,7 @@ import com.mongodb.DBRef;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.DatePath;
 import com.querydsl.core.types.dsl.DateTimePath;
 import com.querydsl.core.types.dsl.NumberPath;
@@ -286,6 +287,17 @@ public class MongodbDocumentSerializerTest {
     return Arrays.asList(order);
   }
 
+  @Test
+  public void deep_or_chain() {
+    BooleanExpression predicate = year.eq(0);
+    for (int i = 1; i < 20000; i++) {
+      predicate = predicate.or(year.eq(i));
+    }
+    List<?> list = (List<?>) ((Document) serializer.handle(predicate)).get("$or");
+    assertThat(list).hasSize(20000);
+    assertThat(list.get(19999)).isEqualTo(document("year", 19999));
+  }
+
   private void assertQuery(Expression<?> e, Document expected) {
     Document result = (Document) serializer.handle(e);
     assertThat(result.toJson()).isEqualTo(expected.toJson());
@@ -30,7 +30,7 @@ import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.core.util.ResultSetAdapter;
-import java.lang.reflect.InvocationTargetException;
+import com.querydsl.sql.types.Type;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -40,9 +40,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -58,6 +64,9 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
   protected static final String PARENT_CONTEXT =
       AbstractSQLQuery.class.getName() + "#PARENT_CONTEXT";
 
+  /** Default amount of rows per batch of {@link #iterateBatches()} */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
   private static final Logger logger = Logger.getLogger(AbstractSQLQuery.class.getName());
 
   private static final QueryFlag rowCountFlag =
@@ -79,6 +88,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
 
   private StatementOptions statementOptions;
 
+  private boolean streaming;
+
   public AbstractSQLQuery(@Nullable Connection conn, Configuration configuration) {
     this(conn, configuration, new DefaultQueryMetadata());
   }
@@ -204,9 +215,10 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     return serializer;
   }
 
-  @Nullable
-  private <U> U get(ResultSet rs, Expression<?> expr, int i, Class<U> type) throws SQLException {
-    return configuration.get(rs, expr instanceof Path ? (Path<?>) expr : null, i, type);
+  @SuppressWarnings("unchecked")
+  private <U> Type<U> getType(Expression<U> expr) {
+    return (Type<U>)
+        configuration.getType(expr instanceof Path ? (Path<?>) expr : null, expr.getType());
   }
 
   private void set(PreparedStatement stmt, Path<?> path, int i, Object value) throws SQLException {
@@ -345,9 +357,211 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     return iterateSingle(queryMixin.getMetadata(), expr);
   }
 
+  /**
+   * Configure the statements of {@link #stream()} and {@link #publisher()} for streaming large
+   * results as declared by the {@link SQLTemplates}.
+   *
+   * <p>If no fetch size has been set, {@link SQLTemplates#getStreamingFetchSize()} is used. For
+   * MySQL this is the row by row mode of Connector/J, which blocks other statements on the
+   * connection until the stream has been consumed or closed. If {@link
+   * SQLTemplates#isStreamingRequiresTransaction()} is true and the connection is in auto-commit
+   * mode, auto-commit is disabled while the stream is open and enabled again when it is closed, has
+   * been fully consumed or reading fails.
+   *
+   * @return the current object
+   */
+  public Q streaming() {
+    this.streaming = true;
+    return queryMixin.getSelf();
+  }
+
+  /**
+   * Get the projection as a typed closeable Stream
+   *
+   * <p>The statement is configured for streaming large results, if {@link #streaming()} has been
+   * called. The result set and statement are released when the stream is closed, when it has been
+   * fully consumed or when reading fails.
+   *
+   * @return closeable stream
+   */
+  @Override
+  public Stream<T> stream() {
+    if (!streaming) {
+      return super.stream();
+    }
+    CloseableIterator<T> iterator = iterateStreaming();
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+    return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+  }
+
+  /**
+   * Get the projection as a {@link Flow.Publisher}
+   *
+   * <p>The query is executed for each subscriber once rows are requested, with the same statement
+   * configuration as {@link #stream()}. Rows are read as requested by the subscriber, on the
+   * requesting thread. The result set and statement are released on completion, on error and on
+   * cancellation.
+   *
+   * @return publisher
+   */
+  public Flow.Publisher<T> publisher() {
+    return new SQLResultPublisher<T>(() -> streaming ? iterateStreaming() : iterate());
+  }
+
+  private CloseableIterator<T> iterateStreaming() {
+    final Connection connection = connection();
+    final SQLTemplates templates = configuration.getTemplates();
+    final boolean restoreAutoCommit;
+    try {
+      restoreAutoCommit = templates.isStreamingRequiresTransaction() && connection.getAutoCommit();
+      if (restoreAutoCommit) {
+        connection.setAutoCommit(false);
+      }
+    } catch (SQLException e) {
+      throw configuration.translate(e);
+    }
+
+    final CloseableIterator<T> iterator;
+    StatementOptions options = statementOptions;
+    try {
+      if (options.getFetchSize() == null) {
+        statementOptions =
+            StatementOptions.builder()
+                .setFetchSize(templates.getStreamingFetchSize())
+                .setMaxFieldSize(options.getMaxFieldSize())
+                .setMaxRows(options.getMaxRows())
+                .setQueryTimeout(options.getQueryTimeout())
+                .build();
+      }
+      iterator = iterate();
+    } catch (RuntimeException e) {
+      if (restoreAutoCommit) {
+        enableAutoCommit(connection);
+      }
+      throw e;
+    } finally {
+      statementOptions = options;
+    }
+
+    return new CloseableIterator<T>() {
+      private boolean closed;
+
+      @Override
+      public boolean hasNext() {
+        if (closed) {
+          return false;
+        }
+        boolean rv;
+        try {
+          rv = iterator.hasNext();
+        } catch (RuntimeException e) {
+          // the result iterator has closed itself already
+          release();
+          throw e;
+        }
+        if (!rv) {
+          close();
+        }
+        return rv;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        try {
+          return iterator.next();
+        } catch (RuntimeException e) {
+          release();
+          throw e;
+        }
+      }
+
+      @Override
+      public void close() {
+        if (!closed) {
+          try {
+            iterator.close();
+          } finally {
+            release();
+          }
+        }
+      }
+
+      private void release() {
+        if (!closed) {
+          closed = true;
+          if (restoreAutoCommit) {
+            enableAutoCommit(connection);
+          }
+        }
+      }
+    };
+  }
+
+  private void enableAutoCommit(Connection connection) {
+    try {
+      connection.setAutoCommit(true);
+    } catch (SQLException e) {
+      throw configuration.translate(e);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private CloseableIterator<T> iterateSingle(
       QueryMetadata metadata, @Nullable final Expression<T> expr) {
+    return execute(
+        metadata,
+        (stmt, rs, context) -> {
+          if (expr == null) {
+            return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+              @Override
+              public T produceNext(ResultSet rs) throws Exception {
+                return (T) rs.getObject(1);
+              }
+            };
+          } else if (expr instanceof FactoryExpression) {
+            final FactoryExpression<T> fe = (FactoryExpression<T>) expr;
+            final RowReader reader = configuration.getRowReader(fe);
+            return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+              @Override
+              public T produceNext(ResultSet rs) throws Exception {
+                return reader.read(fe, rs);
+              }
+            };
+          } else if (expr.equals(Wildcard.all)) {
+            final WildcardRowReader reader = new WildcardRowReader(configuration, rs);
+            return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+              @Override
+              public T produceNext(ResultSet rs) throws Exception {
+                return (T) reader.read(rs);
+              }
+            };
+          } else {
+            final Type<T> type = getType(expr);
+            return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+              @Override
+              public T produceNext(ResultSet rs) throws Exception {
+                return type.getValue(rs, 1);
+              }
+            };
+          }
+        });
+  }
+
+  /**
+   * Render, prepare and execute the query and wrap the result set via the given factory
+   *
+   * <p>The listener context is ended by the returned iterator or, if preparation, execution or the
+   * factory fails, before the exception is rethrown.
+   *
+   * @param metadata query metadata
+   * @param factory result iterator factory
+   * @return result iterator
+   */
+  private <R> CloseableIterator<R> execute(
+      QueryMetadata metadata, ResultIteratorFactory<R> factory) {
     SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
     String queryString = null;
     List<Object> constants = Collections.emptyList();
@@ -373,39 +587,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
       final ResultSet rs = stmt.executeQuery();
       listeners.executed(context);
 
-      if (expr == null) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return (T) rs.getObject(1);
-          }
-        };
-      } else if (expr instanceof FactoryExpression) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return newInstance((FactoryExpression<T>) expr, rs, 0);
-          }
-        };
-      } else if (expr.equals(Wildcard.all)) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            Object[] rv = new Object[rs.getMetaData().getColumnCount()];
-            for (int i = 0; i < rv.length; i++) {
-              rv[i] = rs.getObject(i + 1);
-            }
-            return (T) rv;
-          }
-        };
-      } else {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return get(rs, expr, 1, expr.getType());
-          }
-        };
-      }
+      return factory.create(stmt, rs, context);
 
     } catch (SQLException e) {
       onException(context, e);
@@ -421,6 +603,55 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     }
   }
 
+  /**
+   * Get the projection as an iterator of row chunks in columnar form
+   *
+   * <p>The batch size is the fetch size of the statement options or {@value #DEFAULT_BATCH_SIZE},
+   * if no fetch size has been set. Numeric columns are read via the primitive {@link ResultSet}
+   * getters without boxing, see {@link ColumnBatch} for details.
+   *
+   * @return batches
+   */
+  public CloseableIterator<ColumnBatch> iterateBatches() {
+    Integer fetchSize = statementOptions.getFetchSize();
+    return iterateBatches(fetchSize != null && fetchSize > 0 ? fetchSize : DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Get the projection as an iterator of row chunks in columnar form
+   *
+   * @param batchSize maximum amount of rows per batch
+   * @return batches
+   */
+  public CloseableIterator<ColumnBatch> iterateBatches(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize needs to be positive, but was " + batchSize);
+    }
+    Expression<?> expr = queryMixin.getMetadata().getProjection();
+    if (expr == null || expr.equals(Wildcard.all)) {
+      throw new IllegalArgumentException("Unsupported projection for batches " + expr);
+    }
+    final ColumnBatchReader reader = new ColumnBatchReader(configuration, expr, batchSize);
+    return execute(
+        queryMixin.getMetadata(),
+        (stmt, rs, context) ->
+            new SQLResultIterator<ColumnBatch>(configuration, stmt, rs, listeners, context) {
+              private boolean exhausted;
+
+              @Override
+              public boolean hasNext() {
+                return !exhausted && super.hasNext();
+              }
+
+              @Override
+              protected ColumnBatch produceNext(ResultSet rs) throws Exception {
+                ColumnBatch batch = reader.read(rs);
+                exhausted = batch.size() < batchSize;
+                return batch;
+              }
+            });
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public List<T> fetch() {
@@ -454,38 +685,34 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
           final List<T> rv = new ArrayList<T>();
           if (expr instanceof FactoryExpression) {
             FactoryExpression<T> fe = (FactoryExpression<T>) expr;
+            RowReader reader = configuration.getRowReader(fe);
             while (rs.next()) {
               if (getLastCell) {
-                lastCell = rs.getObject(fe.getArgs().size() + 1);
+                lastCell = rs.getObject(reader.getColumnCount() + 1);
                 getLastCell = false;
               }
-              rv.add(newInstance(fe, rs, 0));
+              rv.add(reader.read(fe, rs));
             }
           } else if (expr.equals(Wildcard.all)) {
+            WildcardRowReader reader = new WildcardRowReader(configuration, rs);
             while (rs.next()) {
-              Object[] row = new Object[rs.getMetaData().getColumnCount()];
               if (getLastCell) {
-                lastCell = rs.getObject(row.length);
+                lastCell = rs.getObject(reader.getColumnCount());
                 getLastCell = false;
               }
-              for (int i = 0; i < row.length; i++) {
-                row[i] = rs.getObject(i + 1);
-              }
-              rv.add((T) row);
+              rv.add((T) reader.read(rs));
             }
           } else {
+            Type<T> type = getType(expr);
             while (rs.next()) {
               if (getLastCell) {
                 lastCell = rs.getObject(2);
                 getLastCell = false;
               }
-              rv.add(get(rs, expr, 1, expr.getType()));
+              rv.add(type.getValue(rs, 1));
             }
           }
           return rv;
-        } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-          onException(context, e);
-          throw new QueryException(e);
         } catch (SQLException e) {
           onException(context, e);
           throw configuration.translate(queryString, constants, e);
@@ -547,18 +774,6 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     }
   }
 
-  private <RT> RT newInstance(FactoryExpression<RT> c, ResultSet rs, int offset)
-      throws InstantiationException,
-          IllegalAccessException,
-          InvocationTargetException,
-          SQLException {
-    Object[] args = new Object[c.getArgs().size()];
-    for (int i = 0; i < args.length; i++) {
-      args[i] = get(rs, c.getArgs().get(i), offset + i + 1, c.getArgs().get(i).getType());
-    }
-    return c.newInstance(args);
-  }
-
   private void reset() {}
 
   protected void setParameters(
@@ -672,6 +887,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     super.clone(query);
     this.useLiterals = query.useLiterals;
     this.listeners = new SQLListeners(query.listeners);
+    this.streaming = ((AbstractSQLQuery<?, ?>) query).streaming;
   }
 
   @Override
@@ -720,4 +936,10 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
             .build();
     return statementOptions(newStatementOptions);
   }
+
+  private interface ResultIteratorFactory<R> {
+
+    CloseableIterator<R> create(
+        PreparedStatement stmt, ResultSet rs, SQLListenerContextImpl context) throws SQLException;
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.Expression;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@code ColumnBatch} is a chunk of query results in columnar form
+ *
+ * <p>Columns whose {@link com.querydsl.sql.types.Type} implements {@link
+ * com.querydsl.sql.types.PrimitiveLongType}, {@link com.querydsl.sql.types.PrimitiveIntType} or
+ * {@link com.querydsl.sql.types.PrimitiveDoubleType} are stored in primitive arrays with a null
+ * bitmap. All other columns are stored in object arrays. The arrays have exactly {@link #size()}
+ * elements.
+ *
+ * @see AbstractSQLQuery#iterateBatches()
+ */
+public final class ColumnBatch {
+
+  /** Storage of a column */
+  public enum Kind {
+    /** {@code long[]} storage */
+    LONG,
+    /** {@code int[]} storage */
+    INT,
+    /** {@code double[]} storage */
+    DOUBLE,
+    /** {@code Object[]} storage */
+    OBJECT
+  }
+
+  private final List<Expression<?>> columns;
+
+  private final Kind[] kinds;
+
+  private final Object[] values;
+
+  private final BitSet[] nulls;
+
+  private final int size;
+
+  ColumnBatch(
+      List<Expression<?>> columns, Kind[] kinds, Object[] values, BitSet[] nulls, int size) {
+    this.columns = columns;
+    this.kinds = kinds;
+    this.values = values;
+    this.nulls = nulls;
+    this.size = size;
+  }
+
+  /**
+   * Get the amount of rows in this batch
+   *
+   * @return row count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the projected expressions in column order
+   *
+   * @return columns
+   */
+  public List<Expression<?>> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Get the storage kind of the given column
+   *
+   * @param column zero based column index
+   * @return kind
+   */
+  public Kind getKind(int column) {
+    return kinds[column];
+  }
+
+  /**
+   * Get whether the value of the given column and row is null
+   *
+   * @param column zero based column index
+   * @param row zero based row index
+   * @return true, if null
+   */
+  public boolean isNull(int column, int row) {
+    if (kinds[column] == Kind.OBJECT) {
+      return ((Object[]) values[column])[row] == null;
+    } else {
+      return nulls[column].get(row);
+    }
+  }
+
+  /**
+   * Get the values of a {@link Kind#LONG} column, null values are stored as 0
+   *
+   * @param column zero based column index
+   * @return values
+   */
+  public long[] getLongs(int column) {
+    return (long[]) getValues(column, Kind.LONG);
+  }
+
+  /**
+   * Get the values of an {@link Kind#INT} column, null values are stored as 0
+   *
+   * @param column zero based column index
+   * @return values
+   */
+  public int[] getInts(int column) {
+    return (int[]) getValues(column, Kind.INT);
+  }
+
+  /**
+   * Get the values of a {@link Kind#DOUBLE} column, null values are stored as 0
+   *
+   * @param column zero based column index
+   * @return values
+   */
+  public double[] getDoubles(int column) {
+    return (double[]) getValues(column, Kind.DOUBLE);
+  }
+
+  /**
+   * Get the values of an {@link Kind#OBJECT} column
+   *
+   * @param column zero based column index
+   * @return values
+   */
+  public Object[] getObjects(int column) {
+    return (Object[]) getValues(column, Kind.OBJECT);
+  }
+
+  /**
+   * Get the null bitmap of the given column
+   *
+   * @param column zero based column index
+   * @return null bitmap, with bits set for null values
+   */
+  public BitSet getNulls(int column) {
+    if (kinds[column] == Kind.OBJECT) {
+      Object[] objects = (Object[]) values[column];
+      BitSet rv = new BitSet(size);
+      for (int i = 0; i < size; i++) {
+        if (objects[i] == null) {
+          rv.set(i);
+        }
+      }
+      return rv;
+    } else {
+      return (BitSet) nulls[column].clone();
+    }
+  }
+
+  private Object getValues(int column, Kind kind) {
+    if (kinds[column] != kind) {
+      throw new IllegalArgumentException(
+          "Column " + column + " is stored as " + kinds[column] + ", not as " + kind);
+    }
+    return values[column];
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnBatch.Kind;
+import com.querydsl.sql.types.PrimitiveDoubleType;
+import com.querydsl.sql.types.PrimitiveIntType;
+import com.querydsl.sql.types.PrimitiveLongType;
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code ColumnBatchReader} reads result set rows into {@link ColumnBatch} instances
+ *
+ * <p>The storage kind and {@link Type} of each column are resolved once per query.
+ */
+final class ColumnBatchReader {
+
+  private final List<Expression<?>> columns;
+
+  private final Kind[] kinds;
+
+  private final Type<?>[] types;
+
+  private final int batchSize;
+
+  ColumnBatchReader(Configuration configuration, Expression<?> projection, int batchSize) {
+    if (projection instanceof FactoryExpression) {
+      this.columns = ((FactoryExpression<?>) projection).getArgs();
+    } else {
+      this.columns = Collections.<Expression<?>>singletonList(projection);
+    }
+    this.kinds = new Kind[columns.size()];
+    this.types = new Type<?>[columns.size()];
+    this.batchSize = batchSize;
+    for (int i = 0; i < types.length; i++) {
+      Expression<?> column = columns.get(i);
+      if (column instanceof FactoryExpression) {
+        throw new IllegalArgumentException("Nested projections are not supported: " + column);
+      }
+      types[i] =
+          configuration.getType(column instanceof Path ? (Path<?>) column : null, column.getType());
+      kinds[i] = getKind(types[i]);
+    }
+  }
+
+  private static Kind getKind(Type<?> type) {
+    if (type instanceof PrimitiveLongType) {
+      return Kind.LONG;
+    } else if (type instanceof PrimitiveIntType) {
+      return Kind.INT;
+    } else if (type instanceof PrimitiveDoubleType) {
+      return Kind.DOUBLE;
+    } else {
+      return Kind.OBJECT;
+    }
+  }
+
+  /**
+   * Read the current row and up to batch size - 1 following rows
+   *
+   * @param rs result set positioned on a row
+   * @return batch, which is smaller than the batch size if the result set has been exhausted
+   * @throws SQLException
+   */
+  ColumnBatch read(ResultSet rs) throws SQLException {
+    Object[] values = new Object[kinds.length];
+    BitSet[] nulls = new BitSet[kinds.length];
+    for (int i = 0; i < kinds.length; i++) {
+      switch (kinds[i]) {
+        case LONG:
+          values[i] = new long[batchSize];
+          break;
+        case INT:
+          values[i] = new int[batchSize];
+          break;
+        case DOUBLE:
+          values[i] = new double[batchSize];
+          break;
+        default:
+          values[i] = new Object[batchSize];
+      }
+      nulls[i] = kinds[i] != Kind.OBJECT ? new BitSet(batchSize) : null;
+    }
+
+    int row = 0;
+    do {
+      for (int i = 0; i < kinds.length; i++) {
+        int index = i + 1;
+        switch (kinds[i]) {
+          case LONG:
+            ((long[]) values[i])[row] = ((PrimitiveLongType) types[i]).getLong(rs, index);
+            break;
+          case INT:
+            ((int[]) values[i])[row] = ((PrimitiveIntType) types[i]).getInt(rs, index);
+            break;
+          case DOUBLE:
+            ((double[]) values[i])[row] = ((PrimitiveDoubleType) types[i]).getDouble(rs, index);
+            break;
+          default:
+            ((Object[]) values[i])[row] = types[i].getValue(rs, index);
+        }
+        if (nulls[i] != null && rs.wasNull()) {
+          nulls[i].set(row);
+        }
+      }
+      row++;
+    } while (row < batchSize && rs.next());
+
+    if (row < batchSize) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = trim(values[i], row);
+      }
+    }
+    return new ColumnBatch(columns, kinds, values, nulls, row);
+  }
+
+  private static Object trim(Object values, int size) {
+    if (values instanceof long[]) {
+      return Arrays.copyOf((long[]) values, size);
+    } else if (values instanceof int[]) {
+      return Arrays.copyOf((int[]) values, size);
+    } else if (values instanceof double[]) {
+      return Arrays.copyOf((double[]) values, size);
+    } else {
+      return Arrays.copyOf((Object[]) values, size);
+    }
+  }
+}
@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql;
 
+import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.util.PrimitiveUtils;
 import com.querydsl.sql.namemapping.ChainedNameMapping;
@@ -30,6 +31,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import org.jetbrains.annotations.Nullable;
 
@@ -44,6 +46,8 @@ public final class Configuration {
 
   static final Configuration DEFAULT = new Configuration(SQLTemplates.DEFAULT);
 
+  private static final int MAX_ROW_READERS = 1000;
+
   private final JDBCTypeMapping jdbcTypeMapping = new JDBCTypeMapping();
 
   private final JavaTypeMapping javaTypeMapping = new JavaTypeMapping();
@@ -66,8 +70,14 @@ public final class Configuration {
 
   private boolean useLiterals = false;
 
+  private boolean useTypedWildcardRows = false;
+
   private StatementOptions statementOptions;
 
+  @Nullable private SQLStatementCache statementCache;
+
+  private final Map<Object, RowReader> rowReaders = new ConcurrentHashMap<>();
+
   /**
    * Create a new Configuration instance
    *
@@ -214,6 +224,27 @@ public final class Configuration {
     return jdbcTypeMapping.get(sqlType, size, digits);
   }
 
+  /**
+   * Get the type for the given jdbc type, table name and column name
+   *
+   * @param sqlType JDBC type
+   * @param typeName JDBC type name
+   * @param size size
+   * @param digits digits
+   * @param tableName table name
+   * @param columnName column name
+   * @return type
+   */
+  Type<?> getType(
+      int sqlType, String typeName, int size, int digits, String tableName, String columnName) {
+    Type<?> type = javaTypeMapping.getType(tableName, columnName);
+    if (type != null) {
+      return type;
+    }
+    return javaTypeMapping.getType(
+        getJavaType(sqlType, typeName, size, digits, tableName, columnName));
+  }
+
   /**
    * Get the value at the given index from the result set
    *
@@ -270,6 +301,7 @@ public final class Configuration {
     } else {
       this.nameMapping = new ChainedNameMapping(this.internalNameMapping, nameMapping);
     }
+    clearCaches();
   }
 
   /**
@@ -303,7 +335,7 @@ public final class Configuration {
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
-  private <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
+  <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
     if (hasTableColumnTypes
         && path != null
         && !clazz.equals(Null.class)
@@ -356,6 +388,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerSchemaOverride(String oldSchema, String newSchema) {
+    clearCaches();
     return schemaMapping.put(oldSchema, newSchema);
   }
 
@@ -369,6 +402,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerTableOverride(String oldTable, String newTable) {
+    clearCaches();
     return internalNameMapping.registerTableOverride(oldTable, newTable);
   }
 
@@ -414,6 +448,7 @@ public final class Configuration {
    */
   @Deprecated
   public SchemaAndTable registerTableOverride(SchemaAndTable from, SchemaAndTable to) {
+    clearCaches();
     return internalNameMapping.registerTableOverride(from, to);
   }
 
@@ -430,6 +465,7 @@ public final class Configuration {
   @Deprecated
   public String registerColumnOverride(
       String schema, String table, String oldColumn, String newColumn) {
+    clearCaches();
     return internalNameMapping.registerColumnOverride(schema, table, oldColumn, newColumn);
   }
 
@@ -444,6 +480,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerColumnOverride(String table, String oldColumn, String newColumn) {
+    clearCaches();
     return internalNameMapping.registerColumnOverride(table, oldColumn, newColumn);
   }
 
@@ -455,6 +492,7 @@ public final class Configuration {
   public void register(Type<?> type) {
     jdbcTypeMapping.register(type.getSQLTypes()[0], type.getReturnedClass());
     javaTypeMapping.register(type);
+    clearCaches();
   }
 
   /**
@@ -465,6 +503,7 @@ public final class Configuration {
    */
   public void registerType(String typeName, Class<?> clazz) {
     typeToName.put(typeName.toLowerCase(), clazz);
+    clearCaches();
   }
 
   /**
@@ -476,6 +515,7 @@ public final class Configuration {
    */
   public void registerNumeric(int total, int decimal, Class<?> javaType) {
     jdbcTypeMapping.registerNumeric(total, decimal, javaType);
+    clearCaches();
   }
 
   /**
@@ -517,6 +557,7 @@ public final class Configuration {
   public void register(String table, String column, Type<?> type) {
     javaTypeMapping.setType(table, column, type);
     hasTableColumnTypes = true;
+    clearCaches();
   }
 
   /**
@@ -580,6 +621,29 @@ public final class Configuration {
     this.useLiterals = useLiterals;
   }
 
+  /**
+   * Get whether the values of {@code Wildcard.all} rows are read via the registered types
+   *
+   * @return true, if registered types are used
+   */
+  public boolean getUseTypedWildcardRows() {
+    return useTypedWildcardRows;
+  }
+
+  /**
+   * Set whether the values of {@code Wildcard.all} rows are read via the registered types instead
+   * of {@link ResultSet#getObject(int)} (default: false)
+   *
+   * <p>When enabled, the Java type of each column is resolved once per result set from the result
+   * set metadata in the same way as for code generation, and the values are read with the {@link
+   * Type} registered for it.
+   *
+   * @param useTypedWildcardRows true, to use the registered types
+   */
+  public void setUseTypedWildcardRows(boolean useTypedWildcardRows) {
+    this.useTypedWildcardRows = useTypedWildcardRows;
+  }
+
   /**
    * Set the exception translator
    *
@@ -596,5 +660,56 @@ public final class Configuration {
    */
   public void setTemplates(SQLTemplates templates) {
     this.templates = templates;
+    clearCaches();
+  }
+
+  /**
+   * Get the cache for rendered select statements
+   *
+   * @return statement cache or null, if statements are not cached
+   */
+  @Nullable
+  public SQLStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Set the cache for rendered select statements (default: null)
+   *
+   * <p>Queries with the same structure share the rendered SQL string and differ only in their
+   * bindings. Statements are not cached when literals are used.
+   *
+   * @param statementCache statement cache or null to disable caching
+   */
+  public void setStatementCache(@Nullable SQLStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  /**
+   * Get the row reader for the given projection
+   *
+   * <p>Row readers are cached and reused for projections with the same argument types and columns.
+   *
+   * @param expr projection
+   * @return row reader
+   */
+  RowReader getRowReader(FactoryExpression<?> expr) {
+    Object key = RowReader.key(expr);
+    RowReader reader = rowReaders.get(key);
+    if (reader == null) {
+      reader = new RowReader(this, expr);
+      if (rowReaders.size() >= MAX_ROW_READERS) {
+        rowReaders.clear();
+      }
+      rowReaders.put(key, reader);
+    }
+    return reader;
+  }
+
+  private void clearCaches() {
+    rowReaders.clear();
+    if (statementCache != null) {
+      statementCache.clear();
+    }
   }
 }
@@ -59,6 +59,11 @@ public class MySQLTemplates extends SQLTemplates {
     setParameterMetadataAvailable(false);
     setLimitRequired(true);
     setSupportsUnquotedReservedWordsAsIdentifier(true);
+    // row by row streaming of MySQL Connector/J
+    setStreamingFetchSize(Integer.MIN_VALUE);
+    setMaxBindParameters(65535);
+    // default max_allowed_packet of MySQL 5.7, can be raised via Builder.maxPacketSize
+    setMaxPacketSize(4 * 1024 * 1024);
     setNullsFirst(null);
     setNullsLast(null);
 
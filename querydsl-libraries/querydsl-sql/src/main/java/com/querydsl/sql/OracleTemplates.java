@@ -77,6 +77,7 @@ public class OracleTemplates extends SQLTemplates {
     setWithRecursive("with ");
     setCountViaAnalytics(true);
     setListMaxSize(1000);
+    setMaxBindParameters(65535);
 
     setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
     setPrecedence(
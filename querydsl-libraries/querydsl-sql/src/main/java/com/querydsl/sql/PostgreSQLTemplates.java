@@ -54,6 +54,10 @@ public class PostgreSQLTemplates extends SQLTemplates {
     setSupportsUnquotedReservedWordsAsIdentifier(true);
 
     setForShareSupported(true);
+    // cursor based fetching requires auto-commit to be disabled
+    setStreamingRequiresTransaction(true);
+    // bind parameter count is sent as an unsigned 16 bit integer
+    setMaxBindParameters(65535);
 
     setPrecedence(Precedence.COMPARISON - 3, Ops.IS_NULL, Ops.IS_NOT_NULL);
     setPrecedence(Precedence.COMPARISON - 2, Ops.CONCAT, Ops.MATCHES);
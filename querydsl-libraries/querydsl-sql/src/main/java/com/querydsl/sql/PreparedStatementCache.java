@@ -0,0 +1,357 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code PreparedStatementCache} reuses the prepared statements of a single {@link Connection}
+ *
+ * <p>The cache wraps the connection. Statements prepared via the wrapped connection are returned to
+ * the cache when they are closed and handed out again for the same SQL string and key generation
+ * mode. Parameters, batches, statement options and open result sets of returned statements are
+ * reset, statements with options which can't be reset are closed instead. The least recently used
+ * statements are closed when the cache is full, and all cached statements are closed together with
+ * the connection.
+ *
+ * <p>Since queries and DML clauses prepare and close their statements via the connection, they use
+ * the cache without further configuration.
+ *
+ * <p>Usage
+ *
+ * <pre>{@code
+ * PreparedStatementCache cache = new PreparedStatementCache(connection, 100);
+ * SQLQueryFactory queryFactory = new SQLQueryFactory(configuration, cache::getConnection);
+ * }</pre>
+ *
+ * <p>The cache can also be obtained from the wrapped connection via {@code
+ * connection.unwrap(PreparedStatementCache.class)}.
+ */
+public final class PreparedStatementCache {
+
+  private final Connection connection;
+
+  private final Connection proxy;
+
+  private final int maxSize;
+
+  private final Map<Key, CachedStatement> statements;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create a new PreparedStatementCache instance
+   *
+   * @param connection connection to wrap
+   * @param maxSize maximum amount of idle statements kept open
+   */
+  public PreparedStatementCache(Connection connection, int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize needs to be positive, but was " + maxSize);
+    }
+    this.connection = connection;
+    this.maxSize = maxSize;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    this.proxy =
+        (Connection)
+            Proxy.newProxyInstance(
+                PreparedStatementCache.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                new ConnectionHandler());
+  }
+
+  /**
+   * Get the wrapped connection, which prepares statements via this cache
+   *
+   * @return connection
+   */
+  public Connection getConnection() {
+    return proxy;
+  }
+
+  /** Close and remove all idle statements */
+  public void clear() {
+    List<CachedStatement> removed;
+    synchronized (statements) {
+      removed = new ArrayList<>(statements.values());
+      statements.clear();
+    }
+    for (CachedStatement statement : removed) {
+      statement.closeQuietly();
+    }
+  }
+
+  /**
+   * Get the amount of idle statements
+   *
+   * @return cache size
+   */
+  public int size() {
+    synchronized (statements) {
+      return statements.size();
+    }
+  }
+
+  /**
+   * Get the maximum amount of idle statements
+   *
+   * @return maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Get the amount of statements which were reused
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the amount of statements which were prepared
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Get the amount of statements closed because the cache was full
+   *
+   * @return eviction count
+   */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Get the ratio of reused statements to all statement preparations
+   *
+   * @return reuse rate between 0 and 1
+   */
+  public double getReuseRate() {
+    long h = hits.get();
+    long total = h + misses.get();
+    return total == 0 ? 0.0 : (double) h / total;
+  }
+
+  private PreparedStatement prepare(Method method, Object[] args) throws Throwable {
+    Key key = new Key(args);
+    CachedStatement statement;
+    synchronized (statements) {
+      statement = statements.remove(key);
+    }
+    if (statement != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      statement = new CachedStatement(key, (PreparedStatement) invoke(connection, method, args));
+    }
+    return statement.checkOut();
+  }
+
+  private void release(CachedStatement statement, PreparedStatementHandle handle) {
+    if (!handle.isReusable() || !statement.reset(handle)) {
+      statement.closeQuietly();
+      return;
+    }
+    CachedStatement evicted = null;
+    boolean cached = false;
+    synchronized (statements) {
+      if (!statements.containsKey(statement.key)) {
+        statements.put(statement.key, statement);
+        cached = true;
+        if (statements.size() > maxSize) {
+          Map.Entry<Key, CachedStatement> eldest = statements.entrySet().iterator().next();
+          evicted = eldest.getValue();
+          statements.remove(eldest.getKey());
+        }
+      }
+    }
+    if (!cached) {
+      statement.closeQuietly();
+    }
+    if (evicted != null) {
+      evictions.incrementAndGet();
+      evicted.closeQuietly();
+    }
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** SQL string and preparation arguments of a statement */
+  private static final class Key {
+
+    private final Object[] args;
+
+    private final int hashCode;
+
+    Key(Object[] args) {
+      this.args = args.clone();
+      this.hashCode = Arrays.deepHashCode(this.args);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && Arrays.deepEquals(args, ((Key) obj).args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "prepareStatement":
+          return prepare(method, args);
+        case "close":
+          try {
+            clear();
+          } finally {
+            connection.close();
+          }
+          return null;
+        case "unwrap":
+          if (args[0] == PreparedStatementCache.class) {
+            return PreparedStatementCache.this;
+          }
+          break;
+        case "isWrapperFor":
+          if (args[0] == PreparedStatementCache.class) {
+            return true;
+          }
+          break;
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PreparedStatementCache[" + connection + "]";
+        default:
+      }
+      return PreparedStatementCache.invoke(connection, method, args);
+    }
+  }
+
+  /** Physical statement kept by the cache */
+  private final class CachedStatement {
+
+    private final Key key;
+
+    private final PreparedStatement statement;
+
+    private final int fetchSize;
+
+    private final int maxRows;
+
+    private final int maxFieldSize;
+
+    private final int queryTimeout;
+
+    private final int fetchDirection;
+
+    private final boolean poolable;
+
+    CachedStatement(Key key, PreparedStatement statement) throws SQLException {
+      this.key = key;
+      this.statement = statement;
+      this.fetchSize = statement.getFetchSize();
+      this.maxRows = statement.getMaxRows();
+      this.maxFieldSize = statement.getMaxFieldSize();
+      this.queryTimeout = statement.getQueryTimeout();
+      this.fetchDirection = statement.getFetchDirection();
+      this.poolable = statement.isPoolable();
+    }
+
+    PreparedStatement checkOut() {
+      // a new handle per use, so that handles of earlier uses stay closed
+      return new PreparedStatementHandle(statement, proxy, handle -> release(this, handle));
+    }
+
+    boolean reset(PreparedStatementHandle handle) {
+      try {
+        if (statement.isClosed()) {
+          return false;
+        }
+        statement.clearParameters();
+        statement.clearBatch();
+        statement.clearWarnings();
+        if (statement.getFetchSize() != fetchSize) {
+          statement.setFetchSize(fetchSize);
+        }
+        if (statement.getFetchDirection() != fetchDirection) {
+          statement.setFetchDirection(fetchDirection);
+        }
+        if (handle.isLargeMaxRowsChanged() || statement.getMaxRows() != maxRows) {
+          statement.setMaxRows(maxRows);
+        }
+        if (statement.getMaxFieldSize() != maxFieldSize) {
+          statement.setMaxFieldSize(maxFieldSize);
+        }
+        if (statement.getQueryTimeout() != queryTimeout) {
+          statement.setQueryTimeout(queryTimeout);
+        }
+        if (statement.isPoolable() != poolable) {
+          statement.setPoolable(poolable);
+        }
+        if (handle.isEscapeProcessingChanged()) {
+          // enabled by default and there is no getter
+          statement.setEscapeProcessing(true);
+        }
+        return true;
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+
+    void closeQuietly() {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        // do nothing
+      }
+    }
+  }
+}
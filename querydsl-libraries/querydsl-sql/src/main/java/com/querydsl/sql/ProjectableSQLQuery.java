@@ -497,6 +497,10 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
         }
         serializer.serialize(mixin2.getMetadata(), forCountRow);
       }
+    } else if (configuration.getStatementCache() != null && !serializer.useLiterals) {
+      configuration
+          .getStatementCache()
+          .serialize(serializer, queryMixin.getMetadata(), forCountRow);
     } else {
       serializer.serialize(queryMixin.getMetadata(), forCountRow);
     }
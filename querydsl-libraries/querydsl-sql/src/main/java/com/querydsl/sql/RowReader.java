@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code RowReader} reads the arguments of a {@link FactoryExpression} projection from result set
+ * rows
+ *
+ * <p>The {@link Type} of each column is resolved once when the reader is created, so reading a row
+ * only invokes the resolved types and the factory expression.
+ */
+final class RowReader {
+
+  private final Type<?>[] types;
+
+  RowReader(Configuration configuration, FactoryExpression<?> expr) {
+    List<Expression<?>> args = expr.getArgs();
+    this.types = new Type<?>[args.size()];
+    for (int i = 0; i < types.length; i++) {
+      Expression<?> arg = args.get(i);
+      types[i] = configuration.getType(arg instanceof Path ? (Path<?>) arg : null, arg.getType());
+    }
+  }
+
+  /**
+   * Get the cache key of the reader for the given projection
+   *
+   * <p>Paths are compared by their metadata only, so the key holds the Java type of each argument
+   * and, for columns of a {@link RelationalPath}, the schema, table and column name, which
+   * determine the resolved {@link Type}.
+   *
+   * @param expr projection
+   * @return cache key
+   */
+  static Object key(FactoryExpression<?> expr) {
+    List<Expression<?>> args = expr.getArgs();
+    Object[] parts = new Object[args.size() * 4];
+    for (int i = 0; i < args.size(); i++) {
+      Expression<?> arg = args.get(i);
+      parts[4 * i] = arg.getType();
+      if (arg instanceof Path
+          && ((Path<?>) arg).getMetadata().getParent() instanceof RelationalPath) {
+        RelationalPath<?> table = (RelationalPath<?>) ((Path<?>) arg).getMetadata().getParent();
+        parts[4 * i + 1] = table.getSchemaName();
+        parts[4 * i + 2] = table.getTableName();
+        parts[4 * i + 3] = ColumnMetadata.getName((Path<?>) arg);
+      }
+    }
+    return new Key(parts);
+  }
+
+  /**
+   * Get the amount of columns read per row
+   *
+   * @return column count
+   */
+  int getColumnCount() {
+    return types.length;
+  }
+
+  /**
+   * Create a projection instance from the current row
+   *
+   * @param <T> projection type
+   * @param expr factory expression this reader was created for or one with the same key
+   * @param rs result set
+   * @return projection instance
+   * @throws SQLException
+   */
+  <T> T read(FactoryExpression<T> expr, ResultSet rs) throws SQLException {
+    Object[] args = new Object[types.length];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = types[i].getValue(rs, i + 1);
+    }
+    return expr.newInstance(args);
+  }
+
+  /** Argument types and columns of a projection */
+  private static final class Key {
+
+    private final Object[] parts;
+
+    private final int hashCode;
+
+    Key(Object[] parts) {
+      this.parts = parts;
+      this.hashCode = Arrays.hashCode(parts);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && Arrays.equals(parts, ((Key) obj).parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -101,6 +101,10 @@ public class SQLBaseListener implements SQLDetailedListener {
   public void notifyInserts(
       RelationalPath<?> entity, QueryMetadata md, List<SQLInsertBatch> batches) {}
 
+  @Override
+  public void notifyInsertChunk(
+      RelationalPath<?> entity, QueryMetadata md, int chunk, int rows, long nanos) {}
+
   @Override
   public void notifyUpdate(
       RelationalPath<?> entity, QueryMetadata md, Map<Path<?>, Expression<?>> updates) {}
@@ -124,6 +124,21 @@ public interface SQLListener {
    */
   void notifyInserts(RelationalPath<?> entity, QueryMetadata md, List<SQLInsertBatch> batches);
 
+  /**
+   * Notify about the execution of a chunk of a bulk insertion
+   *
+   * <p>The chunks of a bulk insertion share a single listener context, in which the render and
+   * execute callbacks of {@link SQLDetailedListener} are invoked once per chunk.
+   *
+   * @param entity table to be inserted into
+   * @param md metadata of insertion
+   * @param chunk zero based index of the chunk
+   * @param rows amount of rows in the chunk
+   * @param nanos execution time of the chunk in nanoseconds
+   */
+  default void notifyInsertChunk(
+      RelationalPath<?> entity, QueryMetadata md, int chunk, int rows, long nanos) {}
+
   /**
    * Notify about an update operation
    *
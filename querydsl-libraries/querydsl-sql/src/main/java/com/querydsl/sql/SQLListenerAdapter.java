@@ -165,6 +165,16 @@ class SQLListenerAdapter implements SQLDetailedListener {
     sqlListener.notifyInserts(entity, md, batches);
   }
 
+  @Override
+  public void notifyInsertChunk(
+      final RelationalPath<?> entity,
+      final QueryMetadata md,
+      final int chunk,
+      final int rows,
+      final long nanos) {
+    sqlListener.notifyInsertChunk(entity, md, chunk, rows, nanos);
+  }
+
   @Override
   public void notifyUpdate(
       final RelationalPath<?> entity,
@@ -159,6 +159,17 @@ public class SQLListeners implements SQLDetailedListener {
     }
   }
 
+  @Override
+  public void notifyInsertChunk(
+      RelationalPath<?> entity, QueryMetadata md, int chunk, int rows, long nanos) {
+    if (parent != null) {
+      parent.notifyInsertChunk(entity, md, chunk, rows, nanos);
+    }
+    for (SQLListener listener : listeners) {
+      listener.notifyInsertChunk(entity, md, chunk, rows, nanos);
+    }
+  }
+
   @Override
   public void notifyUpdate(
       RelationalPath<?> entity, QueryMetadata md, Map<Path<?>, Expression<?>> updates) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.mysema.commons.lang.CloseableIterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLResultPublisher} publishes the rows of a query to {@link Flow.Subscriber} instances
+ *
+ * <p>The query is executed for each subscriber when the first rows are requested. Rows are only
+ * read from the result set as requested by the subscriber, on the thread which requested them. The
+ * result set and statement are closed on completion, on error and on cancellation.
+ *
+ * @param <T> row type
+ */
+final class SQLResultPublisher<T> implements Flow.Publisher<T> {
+
+  private final Supplier<CloseableIterator<T>> results;
+
+  SQLResultPublisher(Supplier<CloseableIterator<T>> results) {
+    this.results = results;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    ResultSubscription<T> subscription = new ResultSubscription<>(subscriber, results);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private static final class ResultSubscription<T> implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super T> subscriber;
+
+    private final Supplier<CloseableIterator<T>> results;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    @Nullable private volatile Throwable invalidRequest;
+
+    // only accessed in drain
+    @Nullable private CloseableIterator<T> iterator;
+
+    private boolean done;
+
+    ResultSubscription(
+        Flow.Subscriber<? super T> subscriber, Supplier<CloseableIterator<T>> results) {
+      this.subscriber = subscriber;
+      this.results = results;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Non-positive request " + n);
+      } else {
+        requested.accumulateAndGet(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        emit();
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      if (done) {
+        return;
+      } else if (cancelled) {
+        terminate();
+        return;
+      } else if (invalidRequest != null) {
+        fail(invalidRequest);
+        return;
+      }
+      long r = requested.get();
+      long emitted = 0;
+      try {
+        if (iterator == null && r > 0) {
+          iterator = results.get();
+        }
+        while (emitted != r) {
+          if (cancelled) {
+            terminate();
+            return;
+          } else if (!iterator.hasNext()) {
+            RuntimeException closeFailure = terminate();
+            if (closeFailure != null) {
+              subscriber.onError(closeFailure);
+            } else {
+              subscriber.onComplete();
+            }
+            return;
+          }
+          subscriber.onNext(iterator.next());
+          emitted++;
+        }
+      } catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+      if (emitted != 0) {
+        requested.addAndGet(-emitted);
+      }
+    }
+
+    private void fail(Throwable e) {
+      RuntimeException closeFailure = terminate();
+      if (closeFailure != null) {
+        e.addSuppressed(closeFailure);
+      }
+      subscriber.onError(e);
+    }
+
+    @Nullable
+    private RuntimeException terminate() {
+      done = true;
+      if (iterator != null) {
+        CloseableIterator<T> it = iterator;
+        iterator = null;
+        try {
+          it.close();
+        } catch (RuntimeException e) {
+          return e;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -77,6 +77,12 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
   protected boolean useLiterals = false;
 
+  @Nullable private List<Object> constantSources;
+
+  @Nullable private List<Integer> constantSourceElements;
+
+  @Nullable private Constant<?> currentConstant;
+
   public SQLSerializer(Configuration conf) {
     this(conf, false);
   }
@@ -113,6 +119,56 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     return constantPaths;
   }
 
+  /**
+   * Start recording the expression each binding originates from, see {@link #getConstantSources()}
+   */
+  void trackConstantSources() {
+    constantSources = new ArrayList<>();
+    constantSourceElements = new ArrayList<>();
+  }
+
+  /**
+   * Get the {@link Constant} or {@link ParamExpression} each binding originates from, or null for
+   * bindings created during serialization
+   *
+   * @return binding sources
+   */
+  @Nullable
+  List<Object> getConstantSources() {
+    return constantSources;
+  }
+
+  /**
+   * Get the collection element index of each binding or -1 if the binding is not a collection
+   * element
+   *
+   * @return element indices
+   */
+  @Nullable
+  List<Integer> getConstantSourceElements() {
+    return constantSourceElements;
+  }
+
+  /**
+   * Populate this serializer with a previously rendered statement
+   *
+   * @param sql SQL string
+   * @param bindings constants to bind
+   * @param paths constant paths
+   */
+  void restore(String sql, List<Object> bindings, List<Path<?>> paths) {
+    append(sql);
+    constants.addAll(bindings);
+    constantPaths.addAll(paths);
+  }
+
+  private void addConstantSource(@Nullable Object source, int element) {
+    if (constantSources != null) {
+      constantSources.add(source);
+      constantSourceElements.add(element);
+    }
+  }
+
   /**
    * Return a list of expressions that can be used to uniquely define the query sources
    *
@@ -905,9 +961,17 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     stage = oldStage;
   }
 
+  @Override
+  protected void onConstant(Constant<?> expr) {
+    // consumed by visitConstant
+    currentConstant = expr;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public void visitConstant(Object constant) {
+    Constant<?> source = currentConstant;
+    currentConstant = null;
     if (useLiterals) {
       if (constant instanceof Collection) {
         append("(");
@@ -926,12 +990,14 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     } else if (constant instanceof Collection) {
       append("(");
       boolean first = true;
+      int element = 0;
       for (Object o : ((Collection) constant)) {
         if (!first) {
           append(COMMA);
         }
         serializeConstant(constants.size() + 1, null);
         constants.add(o);
+        addConstantSource(source, element++);
         if (first && (constantPaths.size() < constants.size())) {
           constantPaths.add(null);
         }
@@ -956,6 +1022,7 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         serializeConstant(constants.size() + 1, null);
       }
       constants.add(constant);
+      addConstantSource(source, -1);
       if (constantPaths.size() < constants.size()) {
         constantPaths.add(null);
       }
@@ -965,6 +1032,7 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
   @Override
   public Void visit(ParamExpression<?> param, Void context) {
     constants.add(param);
+    addConstantSource(param, -1);
     serializeConstant(constants.size(), null);
     if (constantPaths.size() < constants.size()) {
       constantPaths.add(null);
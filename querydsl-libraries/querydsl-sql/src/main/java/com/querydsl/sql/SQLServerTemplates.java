@@ -68,6 +68,7 @@ public class SQLServerTemplates extends SQLTemplates {
     setNullsLast(null);
     setDefaultValues("\ndefault values");
     setArraysSupported(false);
+    setMaxBindParameters(2100);
     setForUpdateFlag(new QueryFlag(Position.BEFORE_FILTERS, FOR_UPDATE));
 
     setForShareSupported(true);
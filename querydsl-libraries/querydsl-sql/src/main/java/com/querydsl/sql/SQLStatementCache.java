@@ -0,0 +1,285 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code SQLStatementCache} is a bounded cache of rendered SQL select statements keyed by the
+ * structure of the query
+ *
+ * <p>Queries which only differ in the values of their constants share the same cache entry. On a
+ * hit the cached SQL string and constant path layout are reused and only the constants are
+ * extracted from the query metadata. Constants which are transformed or rendered inline during
+ * serialization, such as LIKE patterns, are compared by value. Limit and offset are part of the
+ * key.
+ *
+ * <p>The cache assumes that the name mappings of the {@link Configuration} are stable. It is
+ * cleared when the templates, name mappings or type registrations of the configuration change.
+ *
+ * <p>Usage
+ *
+ * <pre>{@code
+ * Configuration configuration = new Configuration(new H2Templates());
+ * configuration.setStatementCache(new SQLStatementCache(1000));
+ * }</pre>
+ */
+public final class SQLStatementCache {
+
+  private final int maxSize;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  private final Map<String, Statement> statements;
+
+  /**
+   * Create a new SQLStatementCache instance
+   *
+   * @param maxSize maximum amount of cached statements
+   */
+  public SQLStatementCache(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize needs to be positive, but was " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.statements =
+        new LinkedHashMap<String, Statement>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+            if (size() > SQLStatementCache.this.maxSize) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Serialize the given query metadata into the given serializer using a cached statement if
+   * available
+   *
+   * @param serializer serializer
+   * @param metadata query metadata
+   * @param forCountRow true, for count queries
+   */
+  void serialize(SQLSerializer serializer, QueryMetadata metadata, boolean forCountRow) {
+    SQLStatementShape shape = new SQLStatementShape(serializer.getClass(), metadata, forCountRow);
+    String key = shape.getKey();
+    List<Object> sources = shape.getSources();
+    Statement statement;
+    synchronized (statements) {
+      statement = statements.get(key);
+    }
+    if (statement != null && statement.matches(sources)) {
+      hits.incrementAndGet();
+      statement.restore(serializer, sources);
+    } else {
+      misses.incrementAndGet();
+      serializer.trackConstantSources();
+      serializer.serialize(metadata, forCountRow);
+      statement = new Statement(serializer, shape);
+      synchronized (statements) {
+        statements.put(key, statement);
+      }
+    }
+  }
+
+  /** Remove all cached statements */
+  public void clear() {
+    synchronized (statements) {
+      statements.clear();
+    }
+  }
+
+  /**
+   * Get the amount of cached statements
+   *
+   * @return cache size
+   */
+  public int size() {
+    synchronized (statements) {
+      return statements.size();
+    }
+  }
+
+  /**
+   * Get the maximum amount of cached statements
+   *
+   * @return maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Get the amount of serializations served from the cache
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the amount of serializations which required rendering the query
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Get the amount of statements removed because the cache was full
+   *
+   * @return eviction count
+   */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** Rendered statement with the layout of its bindings */
+  private static final class Statement {
+
+    private static final int FIXED = -1;
+
+    private final String sql;
+
+    private final List<Path<?>> constantPaths;
+
+    /** source position of each binding or {@link #FIXED} */
+    private final int[] positions;
+
+    /** collection element index of each binding or -1 */
+    private final int[] elements;
+
+    /** values of bindings created during serialization */
+    private final Object[] fixed;
+
+    /** source positions whose values need to match */
+    private final int[] checked;
+
+    private final Object[] checkedValues;
+
+    Statement(SQLSerializer serializer, SQLStatementShape shape) {
+      List<Object> sources = shape.getSources();
+      List<Object> constants = serializer.getConstants();
+      List<Object> constantSources = serializer.getConstantSources();
+      List<Integer> constantSourceElements = serializer.getConstantSourceElements();
+      int size = constants.size();
+      this.sql = serializer.toString();
+      this.constantPaths = new ArrayList<>(serializer.getConstantPaths());
+      this.positions = new int[size];
+      this.elements = new int[size];
+      this.fixed = new Object[size];
+
+      int[] visits = new int[sources.size()];
+      int[] occurrences = new int[sources.size()];
+      for (Object source : sources) {
+        Integer position = shape.getPosition(source);
+        if (position != null) {
+          occurrences[position]++;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        Object source = constantSources.get(i);
+        Integer position = source != null ? shape.getPosition(source) : null;
+        if (position != null) {
+          positions[i] = position;
+          elements[i] = constantSourceElements.get(i);
+          visits[position]++;
+        } else {
+          positions[i] = FIXED;
+          elements[i] = -1;
+          fixed[i] = constants.get(i);
+        }
+      }
+
+      // constants which were not plainly bound exactly once may have influenced the SQL string
+      // or derived bindings and need to have the same value on reuse
+      List<Integer> checkedPositions = new ArrayList<>();
+      for (int i = 0; i < sources.size(); i++) {
+        Object source = sources.get(i);
+        if (source instanceof ParamExpression || shape.isKeyed(i)) {
+          continue;
+        }
+        Integer first = source != null ? shape.getPosition(source) : null;
+        if (first == null || first != i || occurrences[i] != 1 || visits[i] == 0) {
+          checkedPositions.add(i);
+        }
+      }
+      this.checked = new int[checkedPositions.size()];
+      this.checkedValues = new Object[checked.length];
+      for (int i = 0; i < checked.length; i++) {
+        checked[i] = checkedPositions.get(i);
+        checkedValues[i] = valueOf(sources.get(checked[i]));
+      }
+    }
+
+    boolean matches(List<Object> sources) {
+      for (int i = 0; i < checked.length; i++) {
+        if (!Objects.deepEquals(checkedValues[i], valueOf(sources.get(checked[i])))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void restore(SQLSerializer serializer, List<Object> sources) {
+      Object[] bindings = new Object[positions.length];
+      Object[][] expanded = null;
+      for (int i = 0; i < bindings.length; i++) {
+        int position = positions[i];
+        if (position == FIXED) {
+          bindings[i] = fixed[i];
+        } else if (elements[i] < 0) {
+          bindings[i] = valueOf(sources.get(position));
+        } else {
+          if (expanded == null) {
+            expanded = new Object[sources.size()][];
+          }
+          if (expanded[position] == null) {
+            expanded[position] = ((Collection<?>) valueOf(sources.get(position))).toArray();
+          }
+          bindings[i] = expanded[position][elements[i]];
+        }
+      }
+      serializer.restore(sql, Arrays.asList(bindings), constantPaths);
+    }
+
+    private static Object valueOf(Object source) {
+      if (source instanceof Constant<?>) {
+        return ((Constant<?>) source).getConstant();
+      } else {
+        return source;
+      }
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code SQLStatementShape} computes the structural fingerprint of a query which is used as the key
+ * of the {@link SQLStatementCache}
+ *
+ * <p>Constants and parameters are replaced by their type and position in the fingerprint. The
+ * constants themselves are collected in visiting order as the sources of the statement bindings.
+ * Limit and offset are part of the fingerprint, since some dialects render derived values for them.
+ */
+final class SQLStatementShape implements Visitor<Void, Void> {
+
+  private final StringBuilder key = new StringBuilder(256);
+
+  private final List<Object> sources = new ArrayList<>();
+
+  private final Map<Object, Integer> positions = new IdentityHashMap<>();
+
+  SQLStatementShape(Class<?> serializerType, QueryMetadata metadata, boolean forCountRow) {
+    key.append(serializerType.getName()).append(forCountRow ? "#count" : "#list");
+    visitMetadata(metadata);
+  }
+
+  String getKey() {
+    return key.toString();
+  }
+
+  /**
+   * Get the constants, parameters and raw template arguments of the query in visiting order
+   *
+   * @return sources
+   */
+  List<Object> getSources() {
+    return sources;
+  }
+
+  /**
+   * Get the first position of the given source
+   *
+   * @param source constant or parameter
+   * @return position or null, if the source is not part of the query
+   */
+  Integer getPosition(Object source) {
+    return positions.get(source);
+  }
+
+  /**
+   * Get whether the given position holds a constant which is shared by construction, such as the
+   * cached small number constants, and is therefore part of the fingerprint by value
+   *
+   * @param position source position
+   * @return true, if the value is part of the fingerprint
+   */
+  boolean isKeyed(int position) {
+    Object source = sources.get(position);
+    return source instanceof Constant<?> && isShared((Constant<?>) source);
+  }
+
+  @Override
+  public Void visit(Constant<?> expr, Void context) {
+    Object constant = expr.getConstant();
+    if (isShared(expr)) {
+      key.append("C(").append(constant.getClass().getName()).append(':').append(constant);
+      key.append(')');
+    } else {
+      key.append('?').append(constant.getClass().getName());
+      if (constant instanceof Collection) {
+        key.append('[').append(((Collection<?>) constant).size()).append(']');
+      }
+    }
+    addSource(expr);
+    return null;
+  }
+
+  @Override
+  public Void visit(FactoryExpression<?> expr, Void context) {
+    key.append("F(").append(expr.getClass().getName());
+    visitArgs(expr.getArgs());
+    key.append(')');
+    return null;
+  }
+
+  @Override
+  public Void visit(Operation<?> expr, Void context) {
+    Operator operator = expr.getOperator();
+    key.append("O(");
+    if (!(operator instanceof Ops)) {
+      key.append(operator.getClass().getName()).append('#');
+    }
+    key.append(operator.name()).append(':').append(expr.getType().getName());
+    visitArgs(expr.getArgs());
+    key.append(')');
+    return null;
+  }
+
+  @Override
+  public Void visit(ParamExpression<?> expr, Void context) {
+    key.append("?P");
+    addSource(expr);
+    return null;
+  }
+
+  @Override
+  public Void visit(Path<?> expr, Void context) {
+    PathMetadata metadata = expr.getMetadata();
+    key.append("P(").append(metadata.getPathType()).append(':').append(expr.getType().getName());
+    if (expr instanceof RelationalPath) {
+      RelationalPath<?> relationalPath = (RelationalPath<?>) expr;
+      key.append(':')
+          .append(relationalPath.getClass().getName())
+          .append(':')
+          .append(relationalPath.getSchemaName())
+          .append('.')
+          .append(relationalPath.getTableName());
+    }
+    if (metadata.getParent() != null) {
+      key.append(':');
+      metadata.getParent().accept(this, null);
+      if (metadata.getParent() instanceof RelationalPath) {
+        key.append(':').append(ColumnMetadata.getName(expr));
+      }
+    }
+    key.append(':');
+    appendText(String.valueOf(metadata.getElement()));
+    key.append(')');
+    return null;
+  }
+
+  @Override
+  public Void visit(SubQueryExpression<?> expr, Void context) {
+    key.append("S(");
+    visitMetadata(expr.getMetadata());
+    key.append(')');
+    return null;
+  }
+
+  @Override
+  public Void visit(TemplateExpression<?> expr, Void context) {
+    key.append("T(");
+    appendText(expr.getTemplate().toString());
+    key.append(':').append(expr.getType().getName());
+    for (Object arg : expr.getArgs()) {
+      key.append(',');
+      if (arg instanceof Expression) {
+        ((Expression<?>) arg).accept(this, null);
+      } else {
+        key.append("L(").append(arg != null ? arg.getClass().getName() : null).append(')');
+        addSource(arg);
+      }
+    }
+    key.append(')');
+    return null;
+  }
+
+  private void visitMetadata(QueryMetadata metadata) {
+    key.append(metadata.isDistinct() ? "distinct" : "");
+    for (QueryFlag flag : metadata.getFlags()) {
+      key.append("|flag ").append(flag.getPosition()).append(':');
+      flag.getFlag().accept(this, null);
+    }
+    for (JoinExpression join : metadata.getJoins()) {
+      key.append("|join ").append(join.getType()).append(':');
+      join.getTarget().accept(this, null);
+      if (join.getCondition() != null) {
+        key.append(" on ");
+        join.getCondition().accept(this, null);
+      }
+      for (JoinFlag flag : join.getFlags()) {
+        key.append(" flag ").append(flag.getPosition()).append(':');
+        flag.getFlag().accept(this, null);
+      }
+    }
+    if (metadata.getWhere() != null) {
+      key.append("|where ");
+      metadata.getWhere().accept(this, null);
+    }
+    if (!metadata.getGroupBy().isEmpty()) {
+      key.append("|group by");
+      visitArgs(metadata.getGroupBy());
+    }
+    if (metadata.getHaving() != null) {
+      key.append("|having ");
+      metadata.getHaving().accept(this, null);
+    }
+    for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+      key.append("|order ").append(order.getOrder()).append(':').append(order.getNullHandling());
+      key.append(':');
+      order.getTarget().accept(this, null);
+    }
+    if (metadata.getProjection() != null) {
+      key.append("|select ");
+      metadata.getProjection().accept(this, null);
+    }
+    QueryModifiers modifiers = metadata.getModifiers();
+    if (modifiers.isRestricting()) {
+      key.append("|limit ").append(modifiers.getLimit());
+      key.append("|offset ").append(modifiers.getOffset());
+    }
+  }
+
+  private void visitArgs(List<? extends Expression<?>> args) {
+    key.append('(');
+    for (Expression<?> arg : args) {
+      arg.accept(this, null);
+      key.append(',');
+    }
+    key.append(')');
+  }
+
+  private void appendText(String text) {
+    key.append(text.length()).append('"').append(text);
+  }
+
+  private void addSource(Object source) {
+    if (source != null) {
+      Integer first = positions.putIfAbsent(source, sources.size());
+      if (first != null) {
+        key.append('=').append(first);
+      }
+    }
+    sources.add(source);
+  }
+
+  private static boolean isShared(Constant<?> expr) {
+    Object constant = expr.getConstant();
+    if (constant instanceof Integer) {
+      return expr == ConstantImpl.create(((Integer) constant).intValue());
+    } else if (constant instanceof Long) {
+      return expr == ConstantImpl.create(((Long) constant).longValue());
+    } else if (constant instanceof Boolean) {
+      return expr == ConstantImpl.create(((Boolean) constant).booleanValue());
+    } else if (constant instanceof Character) {
+      return expr == ConstantImpl.create(((Character) constant).charValue());
+    } else if (constant instanceof Short) {
+      return expr == ConstantImpl.create(((Short) constant).shortValue());
+    } else if (constant instanceof Byte) {
+      return expr == ConstantImpl.create(((Byte) constant).byteValue());
+    } else {
+      return false;
+    }
+  }
+}
@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * {@code SQLTemplates} extends {@link Templates} to provides SQL specific extensions and acts as
@@ -76,6 +77,8 @@ public class SQLTemplates extends Templates {
 
     protected char escape = '\\';
 
+    @Nullable protected Integer maxBindParameters, maxPacketSize;
+
     public Builder printSchema() {
       printSchema = true;
       return this;
@@ -96,6 +99,30 @@ public class SQLTemplates extends Templates {
       return this;
     }
 
+    /**
+     * Override the maximum amount of bind parameters of a single statement, 0 for no limit
+     *
+     * @param max maximum amount of bind parameters
+     * @return builder
+     */
+    public Builder maxBindParameters(int max) {
+      maxBindParameters = max;
+      return this;
+    }
+
+    /**
+     * Override the maximum size of a single statement in bytes, 0 for no limit
+     *
+     * <p>For MySQL this should match the {@code max_allowed_packet} setting of the server.
+     *
+     * @param max maximum statement size
+     * @return builder
+     */
+    public Builder maxPacketSize(int max) {
+      maxPacketSize = max;
+      return this;
+    }
+
     protected abstract SQLTemplates build(char escape, boolean quote);
 
     public SQLTemplates build() {
@@ -104,6 +131,12 @@ public class SQLTemplates extends Templates {
         templates.newLineToSingleSpace();
       }
       templates.setPrintSchema(printSchema);
+      if (maxBindParameters != null) {
+        templates.setMaxBindParameters(maxBindParameters);
+      }
+      if (maxPacketSize != null) {
+        templates.setMaxPacketSize(maxPacketSize);
+      }
       return templates;
     }
   }
@@ -238,6 +271,14 @@ public class SQLTemplates extends Templates {
 
   private int maxLimit = Integer.MAX_VALUE;
 
+  private int streamingFetchSize = 1000;
+
+  private boolean streamingRequiresTransaction = false;
+
+  private int maxBindParameters = 0;
+
+  private int maxPacketSize = 0;
+
   private QueryFlag forShareFlag = new QueryFlag(Position.END, FOR_SHARE);
 
   private QueryFlag forUpdateFlag = new QueryFlag(Position.END, FOR_UPDATE);
@@ -797,6 +838,44 @@ public class SQLTemplates extends Templates {
     return batchToBulkSupported;
   }
 
+  /**
+   * Get the fetch size used for queries in {@link AbstractSQLQuery#streaming()} mode, if none has
+   * been set explicitly
+   *
+   * @return fetch size
+   */
+  public final int getStreamingFetchSize() {
+    return streamingFetchSize;
+  }
+
+  /**
+   * Get whether auto-commit needs to be disabled for queries in {@link
+   * AbstractSQLQuery#streaming()} mode to use a cursor
+   *
+   * @return true, if auto-commit needs to be disabled
+   */
+  public final boolean isStreamingRequiresTransaction() {
+    return streamingRequiresTransaction;
+  }
+
+  /**
+   * Get the maximum amount of bind parameters of a single statement or 0 for no limit
+   *
+   * @return maximum amount of bind parameters
+   */
+  public final int getMaxBindParameters() {
+    return maxBindParameters;
+  }
+
+  /**
+   * Get the maximum size of a single statement in bytes or 0 for no limit
+   *
+   * @return maximum statement size
+   */
+  public final int getMaxPacketSize() {
+    return maxPacketSize;
+  }
+
   public final QueryFlag getForShareFlag() {
     return forShareFlag;
   }
@@ -1259,6 +1338,22 @@ public class SQLTemplates extends Templates {
     this.batchToBulkSupported = b;
   }
 
+  protected void setStreamingFetchSize(int i) {
+    this.streamingFetchSize = i;
+  }
+
+  protected void setStreamingRequiresTransaction(boolean b) {
+    this.streamingRequiresTransaction = b;
+  }
+
+  protected void setMaxBindParameters(int i) {
+    this.maxBindParameters = i;
+  }
+
+  protected void setMaxPacketSize(int i) {
+    this.maxPacketSize = i;
+  }
+
   protected void setForShareFlag(QueryFlag flag) {
     forShareFlag = flag;
   }
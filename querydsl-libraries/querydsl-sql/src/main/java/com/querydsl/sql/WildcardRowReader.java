@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code WildcardRowReader} reads {@code Wildcard.all} rows from a result set
+ *
+ * <p>The result set metadata is read once when the reader is created. If {@link
+ * Configuration#getUseTypedWildcardRows()} is enabled, the {@link Type} of each column is resolved
+ * from the metadata, otherwise the values are read via {@link ResultSet#getObject(int)}.
+ */
+final class WildcardRowReader {
+
+  private final int columnCount;
+
+  @Nullable private final Type<?>[] types;
+
+  WildcardRowReader(Configuration configuration, ResultSet rs) throws SQLException {
+    ResultSetMetaData md = rs.getMetaData();
+    this.columnCount = md.getColumnCount();
+    if (configuration.getUseTypedWildcardRows()) {
+      this.types = new Type<?>[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        int column = i + 1;
+        types[i] =
+            configuration.getType(
+                md.getColumnType(column),
+                md.getColumnTypeName(column),
+                md.getPrecision(column),
+                md.getScale(column),
+                md.getTableName(column),
+                md.getColumnName(column));
+      }
+    } else {
+      this.types = null;
+    }
+  }
+
+  /**
+   * Get the amount of columns per row
+   *
+   * @return column count
+   */
+  int getColumnCount() {
+    return columnCount;
+  }
+
+  /**
+   * Read the current row
+   *
+   * @param rs result set
+   * @return row values
+   * @throws SQLException
+   */
+  Object[] read(ResultSet rs) throws SQLException {
+    Object[] row = new Object[columnCount];
+    if (types != null) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] = types[i].getValue(rs, i + 1);
+      }
+    } else {
+      for (int i = 0; i < row.length; i++) {
+        row[i] = rs.getObject(i + 1);
+      }
+    }
+    return row;
+  }
+}
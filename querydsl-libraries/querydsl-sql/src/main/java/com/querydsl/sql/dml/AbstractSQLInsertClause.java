@@ -136,7 +136,8 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
 
   /**
    * Set whether batches should be optimized into a single bulk operation. Will revert to batches,
-   * if bulk is not supported
+   * if bulk is not supported. Bulk operations are split into multiple statements, if they would
+   * exceed the bind parameter or statement size limits of the dialect.
    */
   public void setBatchToBulk(boolean b) {
     this.batchToBulk = b && configuration.getTemplates().isBatchToBulkSupported();
@@ -342,9 +343,164 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
     return stmt;
   }
 
+  /**
+   * Execute the batches as bulk inserts of at most the size of the dialect limits. Chunks which
+   * render to the same SQL reuse the prepared statement of the previous chunk.
+   *
+   * <p>All chunks are executed within the listener context of the clause. The render and execute
+   * callbacks of {@link SQLDetailedListener} are invoked once per chunk and the prepare callbacks
+   * once per prepared statement, while the context collects the SQL and statements of all chunks.
+   *
+   * @return affected rows
+   * @throws SQLException
+   */
+  private long executeBulk() throws SQLException {
+    List<List<SQLInsertBatch>> chunks = getBulkChunks();
+    PreparedStatement stmt = null;
+    String sql = null;
+    long rc = 0;
+    try {
+      for (int i = 0; i < chunks.size(); i++) {
+        List<SQLInsertBatch> chunk = chunks.get(i);
+        listeners.preRender(context);
+        SQLSerializer serializer = createSerializer();
+        serializer.serializeInsert(metadata, entity, chunk);
+        context.addSQL(createBindings(metadata, serializer));
+        listeners.rendered(context);
+
+        if (stmt != null && serializer.toString().equals(sql)) {
+          constants = serializer.getConstants();
+          setParameters(
+              stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        } else {
+          if (stmt != null) {
+            close(stmt);
+          }
+          stmt = prepareStatementAndSetParameters(serializer, false);
+          sql = queryString;
+        }
+
+        listeners.preExecute(context);
+        long start = System.nanoTime();
+        rc += stmt.executeUpdate();
+        long nanos = System.nanoTime() - start;
+        listeners.executed(context);
+        listeners.notifyInsertChunk(entity, metadata, i, chunk.size(), nanos);
+      }
+      return rc;
+    } finally {
+      if (stmt != null) {
+        close(stmt);
+      }
+    }
+  }
+
+  /**
+   * Split the batches into chunks which stay within the bind parameter and statement size limits of
+   * the dialect
+   *
+   * @return chunks of batches
+   */
+  protected List<List<SQLInsertBatch>> getBulkChunks() {
+    int maxParameters = configuration.getTemplates().getMaxBindParameters();
+    int maxSize = configuration.getTemplates().getMaxPacketSize();
+    if (batches.size() < 2 || (maxParameters <= 0 && maxSize <= 0)) {
+      return Collections.singletonList(batches);
+    }
+    boolean useLiterals = configuration.getUseLiterals();
+
+    // bindings and size of the statement without its rows
+    SQLSerializer serializer = createSerializer();
+    serializer.serializeInsert(metadata, entity, batches.subList(0, 1));
+    int baseParameters = serializer.getConstants().size();
+    long baseSize = serializer.toString().length();
+    if (!useLiterals) {
+      baseParameters -= countParameters(batches.get(0).getValues());
+    }
+
+    List<List<SQLInsertBatch>> chunks = new ArrayList<>();
+    int start = 0;
+    int parameters = baseParameters;
+    long size = baseSize;
+    for (int i = 0; i < batches.size(); i++) {
+      List<Expression<?>> rowValues = batches.get(i).getValues();
+      int rowParameters = useLiterals ? 0 : countParameters(rowValues);
+      long rowSize = maxSize > 0 ? estimateSize(rowValues) : 0;
+      if (i > start
+          && ((maxParameters > 0 && parameters + rowParameters > maxParameters)
+              || (maxSize > 0 && size + rowSize > maxSize))) {
+        chunks.add(batches.subList(start, i));
+        start = i;
+        parameters = baseParameters;
+        size = baseSize;
+      }
+      parameters += rowParameters;
+      size += rowSize;
+    }
+    chunks.add(batches.subList(start, batches.size()));
+    return chunks;
+  }
+
+  private int countParameters(List<?> args) {
+    int count = 0;
+    for (Object arg : args) {
+      if (arg instanceof Constant<?>) {
+        Object constant = ((Constant<?>) arg).getConstant();
+        count += constant instanceof Collection ? ((Collection<?>) constant).size() : 1;
+      } else if (arg instanceof Operation<?>) {
+        count += countParameters(((Operation<?>) arg).getArgs());
+      } else if (arg instanceof TemplateExpression<?>) {
+        count += countParameters(((TemplateExpression<?>) arg).getArgs());
+      } else if (arg instanceof FactoryExpression<?>) {
+        count += countParameters(((FactoryExpression<?>) arg).getArgs());
+      } else if (arg instanceof SubQueryExpression<?>) {
+        SQLSerializer serializer = new SQLSerializer(configuration);
+        serializer.serialize(((SubQueryExpression<?>) arg).getMetadata(), false);
+        count += serializer.getConstants().size();
+      } else if (arg instanceof ParamExpression<?> || !(arg instanceof Expression<?>)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static long estimateSize(List<Expression<?>> values) {
+    // parentheses and separators of the row
+    long size = 4;
+    for (Expression<?> value : values) {
+      size += 2;
+      if (value instanceof Constant<?>) {
+        size += estimateSize(((Constant<?>) value).getConstant());
+      } else {
+        size += value.toString().length();
+      }
+    }
+    return size;
+  }
+
+  private static long estimateSize(Object value) {
+    if (value instanceof CharSequence) {
+      // up to three bytes per UTF-16 char plus quotes
+      return 3L * ((CharSequence) value).length() + 2;
+    } else if (value instanceof byte[]) {
+      return 2L * ((byte[]) value).length + 3;
+    } else if (value instanceof Collection) {
+      long size = 2;
+      for (Object element : (Collection<?>) value) {
+        size += estimateSize(element) + 2;
+      }
+      return size;
+    } else {
+      return 32;
+    }
+  }
+
   /**
    * Execute the clause and return the generated keys as a ResultSet
    *
+   * <p>Bulk inserts are executed as a single statement, regardless of the bind parameter and
+   * statement size limits of the dialect, so that the generated keys of all rows are returned.
+   *
    * @return result set with generated keys
    */
   public ResultSet executeWithKeys() {
@@ -416,13 +572,8 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         listeners.executed(context);
         return rc;
       } else if (batchToBulk) {
-        stmt = createStatement(false);
         listeners.notifyInserts(entity, metadata, batches);
-
-        listeners.preExecute(context);
-        int rc = stmt.executeUpdate();
-        listeners.executed(context);
-        return rc;
+        return executeBulk();
       } else {
         stmts = createStatements(false);
         listeners.notifyInserts(entity, metadata, batches);
@@ -454,9 +605,13 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
       serializer.serializeInsert(metadata, entity, columns, values, subQuery);
       return Collections.singletonList(createBindings(metadata, serializer));
     } else if (batchToBulk) {
-      SQLSerializer serializer = createSerializer();
-      serializer.serializeInsert(metadata, entity, batches);
-      return Collections.singletonList(createBindings(metadata, serializer));
+      List<SQLBindings> builder = new ArrayList<>();
+      for (List<SQLInsertBatch> chunk : getBulkChunks()) {
+        SQLSerializer serializer = createSerializer();
+        serializer.serializeInsert(metadata, entity, chunk);
+        builder.add(createBindings(metadata, serializer));
+      }
+      return CollectionUtils.unmodifiableList(builder);
     } else {
       List<SQLBindings> builder = new ArrayList<>();
       for (SQLInsertBatch batch : batches) {
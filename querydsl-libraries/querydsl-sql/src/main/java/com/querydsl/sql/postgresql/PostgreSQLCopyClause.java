@@ -0,0 +1,431 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.postgresql;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SchemaAndTable;
+import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLInsertClause;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code PostgreSQLCopyClause} is a bulk load clause which inserts its rows via {@code COPY ...
+ * FROM STDIN}
+ *
+ * <p>Rows are populated like for INSERT clauses via {@code set}, {@code values} or {@code populate}
+ * and {@code addBatch}. The values are converted via the {@link com.querydsl.sql.types.Type}
+ * registry of the configuration, encoded into the COPY text format and streamed via the {@code
+ * CopyManager} of the PostgreSQL JDBC driver. Rows are encoded one at a time while the driver reads
+ * them, so the encoded data is never held in memory as a whole.
+ *
+ * <p>The clause falls back to batched inserts, if the connection is not a PostgreSQL connection, if
+ * the rows contain non-constant expressions, sub queries or flags, or if a value can't be encoded.
+ * Values are checked once per column and value class up front, a conversion failing for a later
+ * value of the same class aborts the COPY.
+ *
+ * <p>Usage
+ *
+ * <pre>{@code
+ * PostgreSQLCopyClause copy = new PostgreSQLCopyClause(connection, configuration, survey);
+ * for (Survey bean : surveys) {
+ *   copy.populate(bean).addBatch();
+ * }
+ * copy.execute();
+ * }</pre>
+ */
+public class PostgreSQLCopyClause extends SQLInsertClause {
+
+  private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  public PostgreSQLCopyClause(
+      Connection connection, SQLTemplates templates, RelationalPath<?> entity) {
+    super(connection, templates, entity);
+  }
+
+  public PostgreSQLCopyClause(
+      Connection connection, Configuration configuration, RelationalPath<?> entity) {
+    super(connection, configuration, entity);
+  }
+
+  @Override
+  public long execute() {
+    if (batches.isEmpty() && !columns.isEmpty()) {
+      addBatch();
+    }
+    if (batches.isEmpty() || !metadata.getFlags().isEmpty() || subQueryBuilder != null) {
+      return super.execute();
+    }
+    Object copyManager = isEncodable() ? getCopyManager(connection()) : null;
+    if (copyManager == null) {
+      return super.execute();
+    }
+
+    String sql = getCopySQL();
+    context = startContext(connection(), metadata, entity);
+    try {
+      listeners.notifyInserts(entity, metadata, batches);
+      context.addSQL(new SQLBindings(sql, Collections.emptyList()));
+      logQuery(logger, sql, Collections.emptyList());
+
+      listeners.preExecute(context);
+      long rc = copyIn(copyManager, sql, encode());
+      listeners.executed(context);
+      return rc;
+    } catch (SQLException e) {
+      onException(context, e);
+      throw configuration.translate(sql, Collections.emptyList(), e);
+    } finally {
+      reset();
+      endContext(context);
+    }
+  }
+
+  /**
+   * Get the COPY statement for the columns of the batches
+   *
+   * @return COPY statement
+   */
+  String getCopySQL() {
+    List<Path<?>> columns = batches.get(0).getColumns();
+    SQLTemplates templates = configuration.getTemplates();
+    SchemaAndTable schemaAndTable = configuration.getOverride(entity.getSchemaAndTable());
+    StringBuilder sql = new StringBuilder("copy ");
+    if (templates.isPrintSchema() && schemaAndTable.getSchema() != null) {
+      sql.append(templates.quoteIdentifier(schemaAndTable.getSchema())).append('.');
+    }
+    sql.append(templates.quoteIdentifier(schemaAndTable.getTable())).append(" (");
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      String column =
+          configuration.getColumnOverride(
+              entity.getSchemaAndTable(), ColumnMetadata.getName(columns.get(i)));
+      sql.append(templates.quoteIdentifier(column));
+    }
+    return sql.append(") from stdin").toString();
+  }
+
+  /**
+   * Check whether all batches can be encoded into the COPY text format
+   *
+   * <p>The rows are checked for constant values only, the conversion via the {@link
+   * com.querydsl.sql.types.Type} registry is checked once per column and value class, since the
+   * rows are converted again while they are streamed.
+   *
+   * @return true, if the batches can be encoded
+   */
+  boolean isEncodable() {
+    List<Path<?>> columns = batches.get(0).getColumns();
+    List<Set<Class<?>>> checked = new ArrayList<Set<Class<?>>>(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      checked.add(new HashSet<Class<?>>());
+    }
+    ValueCapture capture = new ValueCapture();
+    PreparedStatement stmt = capture.newStatement();
+    try {
+      for (SQLInsertBatch row : batches) {
+        if (!isConstant(row, columns)) {
+          return false;
+        }
+        List<Expression<?>> values = row.getValues();
+        for (int i = 0; i < values.size(); i++) {
+          Object value = ((Constant<?>) values.get(i)).getConstant();
+          if (value != null
+              && checked.get(i).add(value.getClass())
+              && !convert(columns.get(i), value, capture, stmt)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    } catch (SQLException | UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Get a reader, which encodes the batches row by row into the COPY text format while it is read
+   *
+   * @return encoded rows
+   */
+  Reader encode() {
+    return new RowReader(batches.get(0).getColumns());
+  }
+
+  private static boolean isConstant(SQLInsertBatch row, List<Path<?>> columns) {
+    if (row.getSubQuery() != null || !row.getColumns().equals(columns)) {
+      return false;
+    }
+    for (Expression<?> value : row.getValues()) {
+      if (!(value instanceof Constant<?>)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean convert(
+      Path<?> column, @Nullable Object value, ValueCapture capture, PreparedStatement stmt)
+      throws SQLException {
+    capture.reset();
+    configuration.set(stmt, column, 1, value);
+    return capture.captured;
+  }
+
+  /**
+   * Encode the given row
+   *
+   * @param row row to encode
+   * @param columns columns of the first row
+   * @param capture value capture of stmt
+   * @param stmt statement to capture the converted values
+   * @param data target for the encoded row
+   * @return true, if the row can be encoded
+   * @throws SQLException if a value can't be converted
+   */
+  private boolean encode(
+      SQLInsertBatch row,
+      List<Path<?>> columns,
+      ValueCapture capture,
+      PreparedStatement stmt,
+      StringBuilder data)
+      throws SQLException {
+    if (!isConstant(row, columns)) {
+      return false;
+    }
+    List<Expression<?>> values = row.getValues();
+    for (int i = 0; i < values.size(); i++) {
+      if (!convert(columns.get(i), ((Constant<?>) values.get(i)).getConstant(), capture, stmt)) {
+        return false;
+      }
+      if (i > 0) {
+        data.append('\t');
+      }
+      append(data, capture.value, capture.calendar);
+    }
+    data.append('\n');
+    return true;
+  }
+
+  private static void append(StringBuilder data, @Nullable Object value, @Nullable Calendar cal) {
+    if (value == null) {
+      data.append("\\N");
+    } else if (value instanceof Boolean) {
+      data.append((Boolean) value ? 't' : 'f');
+    } else if (value instanceof byte[]) {
+      // hex format of bytea with the backslash escaped for the text format
+      data.append("\\\\x");
+      for (byte b : (byte[]) value) {
+        data.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+      }
+    } else if (value instanceof BigDecimal) {
+      data.append(((BigDecimal) value).toPlainString());
+    } else if (value instanceof java.util.Date && cal != null) {
+      // render in the time zone of the calendar given to the setter
+      Instant instant =
+          value instanceof Timestamp
+              ? ((Timestamp) value).toInstant()
+              : Instant.ofEpochMilli(((java.util.Date) value).getTime());
+      ZonedDateTime dateTime = instant.atZone(cal.getTimeZone().toZoneId());
+      if (value instanceof java.sql.Date) {
+        data.append(dateTime.toLocalDate());
+      } else if (value instanceof Time) {
+        data.append(dateTime.toLocalTime());
+      } else {
+        data.append(dateTime.toLocalDateTime());
+      }
+    } else {
+      String str = value.toString();
+      for (int i = 0; i < str.length(); i++) {
+        char ch = str.charAt(i);
+        switch (ch) {
+          case '\\':
+            data.append("\\\\");
+            break;
+          case '\n':
+            data.append("\\n");
+            break;
+          case '\r':
+            data.append("\\r");
+            break;
+          case '\t':
+            data.append("\\t");
+            break;
+          default:
+            data.append(ch);
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private static Object getCopyManager(Connection connection) {
+    try {
+      Class<?> type = Class.forName(PG_CONNECTION, true, connection.getClass().getClassLoader());
+      if (!connection.isWrapperFor(type)) {
+        return null;
+      }
+      return type.getMethod("getCopyAPI").invoke(connection.unwrap(type));
+    } catch (ReflectiveOperationException | SQLException | LinkageError e) {
+      return null;
+    }
+  }
+
+  private static long copyIn(Object copyManager, String sql, Reader data) throws SQLException {
+    try {
+      Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+      return ((Number) copyIn.invoke(copyManager, sql, data)).longValue();
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw new SQLException(cause);
+    } catch (ReflectiveOperationException e) {
+      throw new SQLException(e);
+    }
+  }
+
+  /** Encodes one row at a time, so that only the current row is held in memory */
+  private final class RowReader extends Reader {
+
+    private final List<Path<?>> columns;
+
+    private final ValueCapture capture = new ValueCapture();
+
+    private final PreparedStatement stmt = capture.newStatement();
+
+    private final StringBuilder row = new StringBuilder();
+
+    private int index;
+
+    private int position;
+
+    RowReader(List<Path<?>> columns) {
+      this.columns = columns;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (position == row.length()) {
+        if (index == batches.size()) {
+          return -1;
+        }
+        row.setLength(0);
+        position = 0;
+        try {
+          if (!encode(batches.get(index++), columns, capture, stmt, row)) {
+            throw new IOException("Row " + index + " can't be encoded");
+          }
+        } catch (SQLException | UnsupportedOperationException e) {
+          throw new IOException(e);
+        }
+      }
+      int count = Math.min(len, row.length() - position);
+      row.getChars(position, position + count, cbuf, off);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  /** Captures the JDBC level value set by a {@link com.querydsl.sql.types.Type} */
+  private static final class ValueCapture {
+
+    private boolean captured;
+
+    @Nullable private Object value;
+
+    @Nullable private Calendar calendar;
+
+    PreparedStatement newStatement() {
+      return (PreparedStatement)
+          Proxy.newProxyInstance(
+              PreparedStatement.class.getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              (proxy, method, args) -> invoke(method, args));
+    }
+
+    void reset() {
+      captured = false;
+      value = null;
+      calendar = null;
+    }
+
+    @Nullable
+    Object invoke(Method method, Object[] args) {
+      String name = method.getName();
+      if (name.equals("setNull")) {
+        captured = true;
+      } else if (name.startsWith("set")
+          && args != null
+          && args.length >= 2
+          && args[0] instanceof Integer
+          && isSupported(args[1])) {
+        captured = true;
+        value = args[1];
+        if (args.length == 3 && args[2] instanceof Calendar) {
+          calendar = (Calendar) args[2];
+        }
+      } else {
+        throw new UnsupportedOperationException(name);
+      }
+      return null;
+    }
+
+    private static boolean isSupported(Object value) {
+      return !(value instanceof java.sql.Array
+          || value instanceof java.sql.Blob
+          || value instanceof java.sql.Clob
+          || value instanceof java.sql.Ref
+          || value instanceof java.sql.SQLXML
+          || value instanceof java.io.InputStream
+          || value instanceof Reader);
+    }
+  }
+}
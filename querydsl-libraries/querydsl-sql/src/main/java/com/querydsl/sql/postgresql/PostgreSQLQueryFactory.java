@@ -39,6 +39,16 @@ public class PostgreSQLQueryFactory extends AbstractSQLQueryFactory<PostgreSQLQu
     this(new Configuration(templates), connection);
   }
 
+  /**
+   * Create a COPY FROM STDIN bulk load clause
+   *
+   * @param entity table to load into
+   * @return clause
+   */
+  public PostgreSQLCopyClause copy(RelationalPath<?> entity) {
+    return new PostgreSQLCopyClause(connection.get(), configuration, entity);
+  }
+
   @Override
   public PostgreSQLQuery<?> query() {
     return new PostgreSQLQuery<Void>(connection, configuration);
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class ByteType extends AbstractType<Byte> {
+public class ByteType extends AbstractType<Byte> implements PrimitiveIntType {
 
   public ByteType() {
     super(Types.TINYINT);
@@ -48,4 +48,14 @@ public class ByteType extends AbstractType<Byte> {
   public void setValue(PreparedStatement st, int startIndex, Byte value) throws SQLException {
     st.setByte(startIndex, value);
   }
+
+  @Override
+  public int getInt(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getByte(startIndex);
+  }
+
+  @Override
+  public void setInt(PreparedStatement st, int startIndex, int value) throws SQLException {
+    st.setByte(startIndex, (byte) value);
+  }
 }
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class DoubleType extends AbstractType<Double> {
+public class DoubleType extends AbstractType<Double> implements PrimitiveDoubleType {
 
   public DoubleType() {
     super(Types.DOUBLE);
@@ -48,4 +48,14 @@ public class DoubleType extends AbstractType<Double> {
   public void setValue(PreparedStatement st, int startIndex, Double value) throws SQLException {
     st.setDouble(startIndex, value);
   }
+
+  @Override
+  public double getDouble(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getDouble(startIndex);
+  }
+
+  @Override
+  public void setDouble(PreparedStatement st, int startIndex, double value) throws SQLException {
+    st.setDouble(startIndex, value);
+  }
 }
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class FloatType extends AbstractType<Float> {
+public class FloatType extends AbstractType<Float> implements PrimitiveDoubleType {
 
   public FloatType() {
     super(Types.FLOAT);
@@ -48,4 +48,14 @@ public class FloatType extends AbstractType<Float> {
   public void setValue(PreparedStatement st, int startIndex, Float value) throws SQLException {
     st.setFloat(startIndex, value);
   }
+
+  @Override
+  public double getDouble(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getFloat(startIndex);
+  }
+
+  @Override
+  public void setDouble(PreparedStatement st, int startIndex, double value) throws SQLException {
+    st.setFloat(startIndex, (float) value);
+  }
 }
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class IntegerType extends AbstractType<Integer> {
+public class IntegerType extends AbstractType<Integer> implements PrimitiveIntType {
 
   public IntegerType() {
     super(Types.INTEGER);
@@ -48,4 +48,14 @@ public class IntegerType extends AbstractType<Integer> {
   public void setValue(PreparedStatement st, int startIndex, Integer value) throws SQLException {
     st.setInt(startIndex, value);
   }
+
+  @Override
+  public int getInt(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getInt(startIndex);
+  }
+
+  @Override
+  public void setInt(PreparedStatement st, int startIndex, int value) throws SQLException {
+    st.setInt(startIndex, value);
+  }
 }
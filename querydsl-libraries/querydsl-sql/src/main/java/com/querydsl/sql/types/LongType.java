@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class LongType extends AbstractType<Long> {
+public class LongType extends AbstractType<Long> implements PrimitiveLongType {
 
   public LongType() {
     super(Types.BIGINT);
@@ -48,4 +48,14 @@ public class LongType extends AbstractType<Long> {
   public void setValue(PreparedStatement st, int startIndex, Long value) throws SQLException {
     st.setLong(startIndex, value);
   }
+
+  @Override
+  public long getLong(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getLong(startIndex);
+  }
+
+  @Override
+  public void setLong(PreparedStatement st, int startIndex, long value) throws SQLException {
+    st.setLong(startIndex, value);
+  }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.types;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@code PrimitiveDoubleType} is implemented by {@link Type} instances which can read and write
+ * their values as {@code double} without boxing
+ *
+ * <p>SQL NULL values are signalled via {@link ResultSet#wasNull()} after reading.
+ */
+public interface PrimitiveDoubleType {
+
+  /**
+   * Get the value from the result set
+   *
+   * @param rs result set
+   * @param startIndex column index in result set
+   * @return value or 0, if the value is SQL NULL
+   * @throws SQLException
+   */
+  double getDouble(ResultSet rs, int startIndex) throws SQLException;
+
+  /**
+   * Set the value to the statement
+   *
+   * @param st statement
+   * @param startIndex column index in statement
+   * @param value value to be set
+   * @throws SQLException
+   */
+  void setDouble(PreparedStatement st, int startIndex, double value) throws SQLException;
+}
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class ShortType extends AbstractType<Short> {
+public class ShortType extends AbstractType<Short> implements PrimitiveIntType {
 
   public ShortType() {
     super(Types.SMALLINT);
@@ -48,4 +48,14 @@ public class ShortType extends AbstractType<Short> {
   public void setValue(PreparedStatement st, int startIndex, Short value) throws SQLException {
     st.setShort(startIndex, value);
   }
+
+  @Override
+  public int getInt(ResultSet rs, int startIndex) throws SQLException {
+    return rs.getShort(startIndex);
+  }
+
+  @Override
+  public void setInt(PreparedStatement st, int startIndex, int value) throws SQLException {
+    st.setShort(startIndex, (short) value);
+  }
 }
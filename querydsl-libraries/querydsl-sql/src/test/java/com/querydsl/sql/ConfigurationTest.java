@@ -15,7 +15,11 @@ package com.querydsl.sql;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.querydsl.core.Tuple;
 import com.querydsl.core.alias.Gender;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.domain.QEmployee;
 import com.querydsl.sql.domain.QSurvey;
 import com.querydsl.sql.namemapping.ChainedNameMapping;
 import com.querydsl.sql.namemapping.ChangeLetterCaseNameMapping;
@@ -30,6 +34,7 @@ import com.querydsl.sql.types.UtilDateType;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Locale;
@@ -38,6 +43,45 @@ import org.junit.Test;
 
 public class ConfigurationTest {
 
+  @Test
+  public void row_readers() {
+    Configuration configuration = new Configuration(new H2Templates());
+    QSurvey survey = QSurvey.survey;
+    RowReader reader = configuration.getRowReader(Projections.tuple(survey.id, survey.name));
+    assertThat(reader.getColumnCount()).isEqualTo(2);
+    assertThat(configuration.getRowReader(Projections.tuple(survey.id, survey.name)))
+        .isSameAs(reader);
+    configuration.register("SURVEY", "NAME", new EncryptedString());
+    assertThat(configuration.getRowReader(Projections.tuple(survey.id, survey.name)))
+        .isNotSameAs(reader);
+  }
+
+  @Test
+  public void row_readers_for_equal_paths() throws SQLException {
+    Configuration configuration = new Configuration(new H2Templates());
+    RowReader reader = configuration.getRowReader(Projections.tuple(Expressions.stringPath("x")));
+    assertThat(
+            configuration.getRowReader(Projections.tuple(Expressions.numberPath(Long.class, "x"))))
+        .isNotSameAs(reader);
+
+    QEmployee employee = new QEmployee("e");
+    QSurvey survey = new QSurvey("e");
+    assertThat(Projections.tuple(employee.id)).isEqualTo(Projections.tuple(survey.id));
+    configuration.register("SURVEY", "ID", new StringType());
+    reader = configuration.getRowReader(Projections.tuple(employee.id));
+    assertThat(configuration.getRowReader(Projections.tuple(survey.id))).isNotSameAs(reader);
+
+    ResultSet rs = EasyMock.createMock(ResultSet.class);
+    EasyMock.expect(rs.getString(1)).andReturn("1");
+    EasyMock.replay(rs);
+    Tuple row =
+        configuration
+            .getRowReader(Projections.tuple(survey.id))
+            .read(Projections.tuple(survey.id), rs);
+    assertThat(row.get(0, Object.class)).isEqualTo("1");
+    EasyMock.verify(rs);
+  }
+
   @Test
   public void various() {
     Configuration configuration = new Configuration(new H2Templates());
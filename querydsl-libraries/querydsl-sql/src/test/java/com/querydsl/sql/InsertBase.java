@@ -32,6 +32,7 @@ import com.querydsl.sql.dml.DefaultMapper;
 import com.querydsl.sql.dml.Mapper;
 import com.querydsl.sql.dml.SQLInsertClause;
 import com.querydsl.sql.domain.*;
+import com.querydsl.sql.postgresql.PostgreSQLCopyClause;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -486,6 +487,19 @@ public abstract class InsertBase extends AbstractBaseTest {
         .isEqualTo(1);
   }
 
+  @Test
+  @IncludeIn({H2, POSTGRESQL})
+  public void copy() {
+    PostgreSQLCopyClause copy = new PostgreSQLCopyClause(connection, configuration, survey);
+    copy.set(survey.id, 5).set(survey.name, "55\t5").addBatch();
+    copy.set(survey.id, 6).setNull(survey.name).addBatch();
+    assertThat(copy.execute()).isEqualTo(2);
+
+    assertThat(query().from(survey).where(survey.name.eq("55\t5")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.id.eq(6), survey.name.isNull()).fetchCount())
+        .isEqualTo(1L);
+  }
+
   @Test
   @IncludeIn({H2, POSTGRESQL})
   @SkipForQuoted
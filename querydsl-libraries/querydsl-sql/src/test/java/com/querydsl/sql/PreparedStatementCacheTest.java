@@ -0,0 +1,137 @@
+package com.querydsl.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.sql.dml.SQLInsertClause;
+import com.querydsl.sql.dml.SQLUpdateClause;
+import com.querydsl.sql.domain.QSurvey;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PreparedStatementCacheTest {
+
+  private static final QSurvey survey = QSurvey.survey;
+
+  private final Configuration configuration = new Configuration(new H2Templates());
+
+  private PreparedStatementCache cache;
+
+  private Connection connection;
+
+  @Before
+  public void setUp() throws SQLException {
+    cache =
+        new PreparedStatementCache(
+            DriverManager.getConnection("jdbc:h2:mem:statement_cache", "sa", ""), 2);
+    connection = cache.getConnection();
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute(
+          "create table SURVEY (ID int auto_increment primary key, NAME varchar(30), NAME2"
+              + " varchar(30))");
+    }
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("drop table SURVEY");
+    }
+    connection.close();
+  }
+
+  @Test
+  public void queries_and_clauses() {
+    for (int i = 0; i < 3; i++) {
+      new SQLInsertClause(connection, configuration, survey).set(survey.name, "name" + i).execute();
+    }
+    assertThat(
+            new SQLUpdateClause(connection, configuration, survey)
+                .set(survey.name2, "x")
+                .where(survey.name.eq("name1"))
+                .execute())
+        .isEqualTo(1);
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+              new SQLQuery<Void>(connection, configuration)
+                  .from(survey)
+                  .where(survey.name.eq("name" + i))
+                  .select(survey.name)
+                  .fetchOne())
+          .isEqualTo("name" + i);
+    }
+    assertThat(cache.getMissCount()).isEqualTo(3);
+    assertThat(cache.getHitCount()).isEqualTo(4);
+    assertThat(cache.getReuseRate()).isEqualTo(4.0 / 7);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void key_generation_mode_is_part_of_key() {
+    new SQLInsertClause(connection, configuration, survey).set(survey.name, "a").execute();
+    assertThat(
+            new SQLInsertClause(connection, configuration, survey)
+                .set(survey.name, "b")
+                .executeWithKey(survey.id))
+        .isNotNull();
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void closed_handles() throws SQLException {
+    PreparedStatement stmt = connection.prepareStatement("select 1");
+    stmt.setFetchSize(5);
+    stmt.close();
+    assertThat(stmt.isClosed()).isTrue();
+    PreparedStatement stmt2 = connection.prepareStatement("select 1");
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(stmt2.isClosed()).isFalse();
+    assertThat(stmt2.getFetchSize()).isNotEqualTo(5);
+    assertThat(stmt2.getConnection()).isSameAs(connection);
+    stmt2.close();
+  }
+
+  @Test
+  public void open_result_sets_are_closed() throws SQLException {
+    PreparedStatement stmt = connection.prepareStatement("select 1");
+    ResultSet rs = stmt.executeQuery();
+    stmt.close();
+    assertThat(rs.isClosed()).isTrue();
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void options_are_reset() throws SQLException {
+    PreparedStatement stmt = connection.prepareStatement("select 1");
+    stmt.setLargeMaxRows(3);
+    stmt.setEscapeProcessing(false);
+    stmt.close();
+    PreparedStatement stmt2 = connection.prepareStatement("select 1");
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(stmt2.getMaxRows()).isZero();
+    stmt2.close();
+  }
+
+  @Test
+  public void statements_with_options_not_reset_are_closed() throws SQLException {
+    PreparedStatement stmt = connection.prepareStatement("select 1");
+    stmt.closeOnCompletion();
+    stmt.close();
+    assertThat(cache.size()).isZero();
+    connection.prepareStatement("select 1").close();
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void unwrap() throws SQLException {
+    assertThat(connection.isWrapperFor(PreparedStatementCache.class)).isTrue();
+    assertThat(connection.unwrap(PreparedStatementCache.class)).isSameAs(cache);
+  }
+}
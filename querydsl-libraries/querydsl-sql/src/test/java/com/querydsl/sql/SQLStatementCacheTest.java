@@ -0,0 +1,168 @@
+package com.querydsl.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.domain.QSurvey;
+import java.util.Arrays;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class SQLStatementCacheTest {
+
+  private static final QSurvey survey = QSurvey.survey;
+
+  private static final QEmployee employee = QEmployee.employee;
+
+  private final Configuration plain = new Configuration(new H2Templates());
+
+  private final Configuration cached = new Configuration(new H2Templates());
+
+  private final SQLStatementCache cache = new SQLStatementCache(10);
+
+  {
+    cached.setStatementCache(cache);
+  }
+
+  private void assertSameBindings(Function<SQLQuery<?>, SQLQuery<?>> query) {
+    SQLBindings expected = query.apply(new SQLQuery<Void>(plain)).getSQL();
+    SQLBindings actual = query.apply(new SQLQuery<Void>(cached)).getSQL();
+    assertThat(actual.getSQL()).isEqualTo(expected.getSQL());
+    assertThat(actual.getNullFriendlyBindings()).isEqualTo(expected.getNullFriendlyBindings());
+  }
+
+  @Test
+  public void constants_are_rebound() {
+    assertSameBindings(q -> q.from(survey).where(survey.name.eq("Bob")).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.name.eq("Ann")).select(survey.id));
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void collections() {
+    assertSameBindings(q -> q.from(survey).where(survey.id.in(1, 2, 3)).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.id.in(4, 5, 6)).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.id.in(7, 8)).select(survey.id));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void transformed_constants_are_compared() {
+    assertSameBindings(q -> q.from(survey).where(survey.name.startsWith("A")).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.name.startsWith("B")).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.name.startsWith("B")).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.name.like("a_b")).select(survey.id));
+    assertSameBindings(q -> q.from(survey).where(survey.name.like("c\\d")).select(survey.id));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void mixed_constants() {
+    assertSameBindings(
+        q ->
+            q.from(employee)
+                .where(
+                    employee.firstname.eq("Bob"),
+                    employee.lastname.endsWith("son"),
+                    employee.salary.between(100, 200))
+                .orderBy(employee.id.asc())
+                .limit(10)
+                .select(employee.id, employee.salary.add(5)));
+    assertSameBindings(
+        q ->
+            q.from(employee)
+                .where(
+                    employee.firstname.eq("Ann"),
+                    employee.lastname.endsWith("son"),
+                    employee.salary.between(300, 400))
+                .orderBy(employee.id.asc())
+                .limit(10)
+                .select(employee.id, employee.salary.add(7)));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void modifiers_are_part_of_key() {
+    assertSameBindings(q -> q.from(survey).limit(5).offset(10).select(survey.id));
+    assertSameBindings(q -> q.from(survey).limit(5).offset(20).select(survey.id));
+    assertSameBindings(q -> q.from(survey).limit(5).offset(20).select(survey.id));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void subqueries_and_params() {
+    Param<String> name = new Param<String>(String.class, "name");
+    assertSameBindings(
+        q -> {
+          q.from(survey)
+              .where(
+                  survey.name.eq(name),
+                  survey.id.in(
+                      SQLExpressions.select(employee.id)
+                          .from(employee)
+                          .where(employee.firstname.eq("Bob"))))
+              .select(survey.id);
+          return q.set(name, "Ann");
+        });
+    assertSameBindings(
+        q -> {
+          q.from(survey)
+              .where(
+                  survey.name.eq(name),
+                  survey.id.in(
+                      SQLExpressions.select(employee.id)
+                          .from(employee)
+                          .where(employee.firstname.eq("Jim"))))
+              .select(survey.id);
+          return q.set(name, "Tom");
+        });
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void count_queries() {
+    SQLQuery<?> query = new SQLQuery<Void>(cached).from(survey).where(survey.id.eq(1));
+    assertThat(query.serialize(true).toString()).isNotEqualTo(query.serialize(false).toString());
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void literals_are_not_cached() {
+    SQLQuery<?> query = new SQLQuery<Void>(cached).from(survey).where(survey.id.eq(1));
+    query.setUseLiterals(true);
+    assertThat(query.getSQL().getSQL()).endsWith("= 1");
+    assertThat(cache.getMissCount()).isZero();
+  }
+
+  @Test
+  public void eviction() {
+    for (int i = 0; i < 15; i++) {
+      Integer[] ids = new Integer[i + 1];
+      Arrays.fill(ids, i);
+      assertSameBindings(q -> q.from(survey).where(survey.id.in(ids)).select(survey.id));
+    }
+    assertThat(cache.size()).isEqualTo(10);
+    assertThat(cache.getEvictionCount()).isEqualTo(5);
+  }
+
+  @Test
+  public void cleared_on_configuration_change() {
+    assertSameBindings(q -> q.from(survey).select(survey.id));
+    cached.registerTableOverride("SURVEY", "SURVEY2");
+    assertThat(cache.size()).isZero();
+    assertThat(new SQLQuery<Void>(cached).from(survey).select(survey.id).getSQL().getSQL())
+        .contains("SURVEY2");
+  }
+
+  @Test
+  public void cleared_on_type_registration() {
+    assertSameBindings(q -> q.from(survey).select(survey.id));
+    cached.registerType("varchar2", String.class);
+    assertThat(cache.size()).isZero();
+  }
+}
@@ -98,6 +98,7 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -106,7 +107,12 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.compress.utils.Sets;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -2509,6 +2515,198 @@ public abstract class SelectBase extends AbstractBaseTest {
         .hasSize(10);
   }
 
+  @Test
+  public void stream() {
+    List<Integer> ids =
+        query().from(employee).orderBy(employee.id.asc()).select(employee.id).fetch();
+    try (Stream<Integer> stream =
+        query().from(employee).orderBy(employee.id.asc()).select(employee.id).stream()) {
+      assertThat(stream.collect(Collectors.toList())).isEqualTo(ids);
+    }
+  }
+
+  @Test
+  public void stream_streaming() {
+    List<Integer> ids =
+        query().from(employee).orderBy(employee.id.asc()).select(employee.id).fetch();
+    try (Stream<Integer> stream =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(employee.id)
+            .streaming()
+            .stream()) {
+      assertThat(stream.collect(Collectors.toList())).isEqualTo(ids);
+    }
+  }
+
+  @Test
+  public void publisher() {
+    List<Integer> ids =
+        query().from(employee).orderBy(employee.id.asc()).select(employee.id).fetch();
+    List<Integer> received = new ArrayList<>();
+    AtomicBoolean completed = new AtomicBoolean();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(employee.id)
+        .publisher()
+        .subscribe(
+            new Flow.Subscriber<Integer>() {
+              private Flow.Subscription subscription;
+
+              @Override
+              public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(2);
+              }
+
+              @Override
+              public void onNext(Integer item) {
+                received.add(item);
+                if (received.size() % 2 == 0) {
+                  subscription.request(2);
+                }
+              }
+
+              @Override
+              public void onError(Throwable throwable) {
+                error.set(throwable);
+              }
+
+              @Override
+              public void onComplete() {
+                completed.set(true);
+              }
+            });
+    assertThat(error.get()).isNull();
+    assertThat(completed).isTrue();
+    assertThat(received).isEqualTo(ids);
+  }
+
+  @Test
+  public void publisher_cancel() {
+    List<Integer> received = new ArrayList<>();
+    AtomicBoolean completed = new AtomicBoolean();
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(employee.id)
+        .publisher()
+        .subscribe(
+            new Flow.Subscriber<Integer>() {
+              private Flow.Subscription subscription;
+
+              @Override
+              public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(5);
+              }
+
+              @Override
+              public void onNext(Integer item) {
+                received.add(item);
+                if (received.size() == 3) {
+                  subscription.cancel();
+                }
+              }
+
+              @Override
+              public void onError(Throwable throwable) {}
+
+              @Override
+              public void onComplete() {
+                completed.set(true);
+              }
+            });
+    assertThat(received).hasSize(3);
+    assertThat(completed).isFalse();
+  }
+
+  @Test
+  public void iterateBatches() {
+    List<Tuple> tuples =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(employee.id, employee.superiorId, employee.firstname)
+            .fetch();
+    int row = 0;
+    try (CloseableIterator<ColumnBatch> batches =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(employee.id, employee.superiorId, employee.firstname)
+            .iterateBatches(3)) {
+      while (batches.hasNext()) {
+        ColumnBatch batch = batches.next();
+        assertThat(batch.size()).isBetween(1, 3);
+        int[] ids = batch.getInts(0);
+        int[] superiorIds = batch.getInts(1);
+        Object[] firstnames = batch.getObjects(2);
+        for (int i = 0; i < batch.size(); i++) {
+          Tuple tuple = tuples.get(row++);
+          assertThat(ids[i]).isEqualTo(tuple.get(employee.id));
+          if (tuple.get(employee.superiorId) == null) {
+            assertThat(batch.isNull(1, i)).isTrue();
+          } else {
+            assertThat(batch.isNull(1, i)).isFalse();
+            assertThat(superiorIds[i]).isEqualTo(tuple.get(employee.superiorId));
+          }
+          assertThat(firstnames[i]).isEqualTo(tuple.get(employee.firstname));
+        }
+      }
+    }
+    assertThat(row).isEqualTo(tuples.size());
+  }
+
+  @Test
+  public void wildcard_all_typed() {
+    List<Object[]> rows =
+        query().from(employee).orderBy(employee.id.asc()).select(Wildcard.all).fetch();
+    configuration.setUseTypedWildcardRows(true);
+    try {
+      List<Object[]> typedRows =
+          query().from(employee).orderBy(employee.id.asc()).select(Wildcard.all).fetch();
+      assertThat(typedRows).hasSameSizeAs(rows);
+      int strings = 0, numbers = 0, dates = 0;
+      for (int i = 0; i < rows.size(); i++) {
+        assertThat(typedRows.get(i)).hasSameSizeAs(rows.get(i));
+        for (int j = 0; j < rows.get(i).length; j++) {
+          Object value = rows.get(i)[j];
+          Object typedValue = typedRows.get(i)[j];
+          if (value == null) {
+            assertThat(typedValue).isNull();
+          } else if (value instanceof String) {
+            assertThat(typedValue).isEqualTo(value);
+            strings++;
+          } else if (value instanceof Number && typedValue instanceof java.util.Date) {
+            // dates stored as epoch milliseconds, e.g. by SQLite
+            assertThat(((java.util.Date) typedValue).getTime())
+                .isEqualTo(((Number) value).longValue());
+            dates++;
+          } else if (value instanceof Number) {
+            // the driver and the resolved type may use different number classes
+            assertThat(typedValue).isInstanceOf(Number.class);
+            assertThat(new BigDecimal(typedValue.toString()))
+                .isEqualByComparingTo(new BigDecimal(value.toString()));
+            numbers++;
+          } else if (value instanceof java.util.Date || value instanceof Temporal) {
+            assertThat(typedValue).isInstanceOfAny(java.util.Date.class, Temporal.class);
+            assertThat(typedValue.toString()).isEqualTo(value.toString());
+            dates++;
+          }
+        }
+      }
+      assertThat(strings).isPositive();
+      assertThat(numbers).isPositive();
+      assertThat(dates).isPositive();
+    } finally {
+      configuration.setUseTypedWildcardRows(false);
+    }
+  }
+
   @Test
   public void wildcard_and_qTuple() {
     // wildcard and QTuple
@@ -0,0 +1,117 @@
+package com.querydsl.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.MappingProjection;
+import com.querydsl.sql.domain.QSurvey;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingTest {
+
+  private static final QSurvey survey = QSurvey.survey;
+
+  private final Configuration configuration =
+      new Configuration(
+          new H2Templates() {
+            {
+              setStreamingRequiresTransaction(true);
+            }
+          });
+
+  private Connection connection;
+
+  @Before
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:streaming", "sa", "");
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("create table SURVEY (ID int primary key, NAME varchar(30), NAME2 varchar(30))");
+      for (int i = 0; i < 5; i++) {
+        stmt.execute("insert into SURVEY (ID, NAME) values (" + i + ", 'name" + i + "')");
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("drop table SURVEY");
+    }
+    connection.close();
+  }
+
+  private SQLQuery<Integer> query() {
+    return new SQLQuery<Void>(connection, configuration)
+        .select(survey.id)
+        .from(survey)
+        .orderBy(survey.id.asc());
+  }
+
+  @Test
+  public void default_mode() throws SQLException {
+    try (Stream<Integer> stream = query().stream()) {
+      assertThat(connection.getAutoCommit()).isTrue();
+      assertThat(stream.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4);
+    }
+    assertThat(connection.getAutoCommit()).isTrue();
+  }
+
+  @Test
+  public void restore_on_close() throws SQLException {
+    try (Stream<Integer> stream = query().streaming().stream()) {
+      Iterator<Integer> iterator = stream.iterator();
+      assertThat(iterator.next()).isEqualTo(0);
+      assertThat(connection.getAutoCommit()).isFalse();
+    }
+    assertThat(connection.getAutoCommit()).isTrue();
+  }
+
+  @Test
+  public void restore_on_exhaustion() throws SQLException {
+    Stream<Integer> stream = query().streaming().stream();
+    assertThat(stream.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4);
+    assertThat(connection.getAutoCommit()).isTrue();
+  }
+
+  @Test
+  public void restore_on_execution_failure() throws SQLException {
+    SQLQuery<Integer> query =
+        new SQLQuery<Void>(connection, configuration)
+            .select(survey.id)
+            .from(survey)
+            .where(survey.name.castToNum(Integer.class).gt(0));
+    assertThatThrownBy(() -> query.streaming().stream()).isInstanceOf(RuntimeException.class);
+    assertThat(connection.getAutoCommit()).isTrue();
+  }
+
+  @Test
+  public void restore_on_read_failure() throws SQLException {
+    Stream<String> stream =
+        new SQLQuery<Void>(connection, configuration)
+                .select(
+                    new MappingProjection<String>(String.class, survey.id) {
+                      @Override
+                      protected String map(Tuple row) {
+                        throw new IllegalStateException();
+                      }
+                    })
+                .from(survey)
+                .streaming()
+                .stream();
+    assertThatThrownBy(() -> stream.collect(Collectors.toList()))
+        .isInstanceOf(QueryException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(connection.getAutoCommit()).isTrue();
+  }
+}
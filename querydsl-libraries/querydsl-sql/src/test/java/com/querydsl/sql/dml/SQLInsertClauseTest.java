@@ -3,10 +3,24 @@ package com.querydsl.sql.dml;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
 import com.querydsl.sql.KeyAccessorsTest.QEmployee;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLBaseListener;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLListenerContext;
 import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.domain.QSurvey;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 public class SQLInsertClauseTest {
@@ -44,6 +58,142 @@ public class SQLInsertClauseTest {
         .isEqualTo("insert into EMPLOYEE (ID)\n" + "values (?), (?) on duplicate key ignore");
   }
 
+  @Test
+  public void bulk_chunks() {
+    SQLTemplates templates =
+        new SQLTemplates("\"", '\\', false) {
+          {
+            setMaxBindParameters(5);
+          }
+        };
+    QSurvey survey = QSurvey.survey;
+    SQLInsertClause insert = new SQLInsertClause(null, templates, survey);
+    for (int i = 0; i < 5; i++) {
+      insert.set(survey.id, i).set(survey.name, "name" + i).addBatch();
+    }
+    insert.setBatchToBulk(true);
+
+    List<SQLBindings> sql = insert.getSQL();
+    assertThat(sql).hasSize(3);
+    assertThat(sql.get(0).getSQL())
+        .isEqualTo("insert into SURVEY (ID, NAME)\n" + "values (?, ?), (?, ?)");
+    assertThat(sql.get(1).getSQL()).isEqualTo(sql.get(0).getSQL());
+    assertThat(sql.get(2).getSQL()).isEqualTo("insert into SURVEY (ID, NAME)\n" + "values (?, ?)");
+    assertThat(sql.get(2).getNullFriendlyBindings()).containsExactly(4, "name4");
+  }
+
+  @Test
+  public void bulk_chunks_subqueries() {
+    SQLTemplates templates =
+        new SQLTemplates("\"", '\\', false) {
+          {
+            setMaxBindParameters(5);
+          }
+        };
+    QSurvey survey = QSurvey.survey;
+    QSurvey survey2 = new QSurvey("survey2");
+    SQLInsertClause insert = new SQLInsertClause(null, templates, survey);
+    for (int i = 0; i < 5; i++) {
+      insert
+          .set(survey.id, i)
+          .set(
+              survey.name,
+              SQLExpressions.select(survey2.name)
+                  .from(survey2)
+                  .where(survey2.id.eq(i), survey2.name.ne("name" + i)))
+          .addBatch();
+    }
+    insert.setBatchToBulk(true);
+
+    List<SQLBindings> sql = insert.getSQL();
+    assertThat(sql).hasSize(5);
+    for (SQLBindings bindings : sql) {
+      assertThat(bindings.getNullFriendlyBindings()).hasSize(3);
+    }
+  }
+
+  @Test
+  public void bulk_chunks_by_size() {
+    SQLTemplates templates =
+        new SQLTemplates("\"", '\\', false) {
+          {
+            setMaxPacketSize(250);
+          }
+        };
+    QSurvey survey = QSurvey.survey;
+    SQLInsertClause insert = new SQLInsertClause(null, templates, survey);
+    for (int i = 0; i < 4; i++) {
+      insert.set(survey.name, "abcdefghijklmnopqrstuvwxyz").addBatch();
+    }
+    insert.setBatchToBulk(true);
+    assertThat(insert.getSQL()).hasSize(2);
+  }
+
+  @Test
+  public void bulk_chunks_execute() throws SQLException {
+    List<Integer> chunkRows = new ArrayList<>();
+    int[] prepared = new int[1];
+    Configuration configuration =
+        new Configuration(
+            new H2Templates() {
+              {
+                setMaxBindParameters(6);
+              }
+            });
+    configuration.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void prepared(SQLListenerContext context) {
+            prepared[0]++;
+          }
+
+          @Override
+          public void notifyInsertChunk(
+              RelationalPath<?> entity, QueryMetadata md, int chunk, int rows, long nanos) {
+            assertThat(chunk).isEqualTo(chunkRows.size());
+            assertThat(nanos).isNotNegative();
+            chunkRows.add(rows);
+          }
+        });
+    QSurvey survey = QSurvey.survey;
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bulk_chunks", "sa", "");
+        Statement stmt = connection.createStatement()) {
+      stmt.execute("create table SURVEY (ID int primary key, NAME varchar(30))");
+      SQLInsertClause insert = new SQLInsertClause(connection, configuration, survey);
+      insert.setBatchToBulk(true);
+      for (int i = 0; i < 10; i++) {
+        insert.set(survey.id, i).set(survey.name, "name" + i).addBatch();
+      }
+      assertThat(insert.execute()).isEqualTo(10);
+      assertThat(chunkRows).containsExactly(3, 3, 3, 1);
+      assertThat(prepared[0]).isEqualTo(2);
+
+      stmt.execute("drop table SURVEY");
+    }
+  }
+
+  @Test
+  public void bulk_chunks_executeWithKeys() throws SQLException {
+    Configuration configuration =
+        new Configuration(H2Templates.builder().maxBindParameters(2).build());
+    assertThat(configuration.getTemplates().getMaxBindParameters()).isEqualTo(2);
+    QSurvey survey = QSurvey.survey;
+    try (Connection connection =
+            DriverManager.getConnection("jdbc:h2:mem:bulk_chunks_keys", "sa", "");
+        Statement stmt = connection.createStatement()) {
+      stmt.execute("create table SURVEY (ID int auto_increment primary key, NAME varchar(30))");
+      SQLInsertClause insert = new SQLInsertClause(connection, configuration, survey);
+      insert.setBatchToBulk(true);
+      for (int i = 0; i < 5; i++) {
+        insert.set(survey.name, "name" + i).addBatch();
+      }
+      assertThat(insert.getSQL()).hasSize(3);
+      assertThat(insert.executeWithKeys(survey.id)).containsExactly(1, 2, 3, 4, 5);
+
+      stmt.execute("drop table SURVEY");
+    }
+  }
+
   @Test
   public void getSQLWithPreservedColumnOrder() {
     com.querydsl.sql.domain.QEmployee emp1 = new com.querydsl.sql.domain.QEmployee("emp1");
@@ -0,0 +1,118 @@
+package com.querydsl.sql.postgresql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.domain.QSurvey;
+import com.querydsl.sql.types.StringType;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PostgreSQLCopyClauseTest {
+
+  private static final QSurvey survey = QSurvey.survey;
+
+  @Test
+  public void copySQL() {
+    PostgreSQLCopyClause copy =
+        new PostgreSQLCopyClause(null, new PostgreSQLTemplates(true), survey);
+    copy.set(survey.id, 1).set(survey.name, "a").addBatch();
+    assertThat(copy.getCopySQL()).isEqualTo("copy \"SURVEY\" (\"ID\", \"NAME\") from stdin");
+  }
+
+  @Test
+  public void encode() throws IOException {
+    PostgreSQLCopyClause copy = new PostgreSQLCopyClause(null, new PostgreSQLTemplates(), survey);
+    copy.set(survey.id, 1).set(survey.name, "a\tb\\c\nd").addBatch();
+    copy.set(survey.id, 2).setNull(survey.name).addBatch();
+    assertThat(copy.isEncodable()).isTrue();
+    assertThat(read(copy.encode(), 1024)).isEqualTo("1\ta\\tb\\\\c\\nd\n" + "2\t\\N\n");
+  }
+
+  @Test
+  public void encode_in_chunks() throws IOException {
+    PostgreSQLCopyClause copy = new PostgreSQLCopyClause(null, new PostgreSQLTemplates(), survey);
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      copy.set(survey.id, i).set(survey.name, "name" + i).addBatch();
+      expected.append(i).append("\tname").append(i).append('\n');
+    }
+    assertThat(read(copy.encode(), 3)).isEqualTo(expected.toString());
+  }
+
+  @Test
+  public void encodable_converts_once_per_class() throws IOException, SQLException {
+    AtomicInteger conversions = new AtomicInteger();
+    Configuration configuration = new Configuration(new PostgreSQLTemplates());
+    configuration.register(
+        "SURVEY",
+        "NAME",
+        new StringType() {
+          @Override
+          public void setValue(PreparedStatement st, int startIndex, String value)
+              throws SQLException {
+            conversions.incrementAndGet();
+            super.setValue(st, startIndex, value);
+          }
+        });
+    PostgreSQLCopyClause copy = new PostgreSQLCopyClause(null, configuration, survey);
+    for (int i = 0; i < 100; i++) {
+      copy.set(survey.id, i).set(survey.name, "name" + i).addBatch();
+    }
+    assertThat(copy.isEncodable()).isTrue();
+    assertThat(conversions.get()).isEqualTo(1);
+    read(copy.encode(), 1024);
+    assertThat(conversions.get()).isEqualTo(101);
+  }
+
+  @Test
+  public void encode_expressions() {
+    PostgreSQLCopyClause copy = new PostgreSQLCopyClause(null, new PostgreSQLTemplates(), survey);
+    copy.set(survey.id, 1).set(survey.name, Expressions.stringTemplate("'a'")).addBatch();
+    assertThat(copy.isEncodable()).isFalse();
+  }
+
+  @Test
+  public void fallback() throws SQLException {
+    Configuration configuration = new Configuration(new H2Templates());
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:copy", "sa", "");
+        Statement stmt = connection.createStatement()) {
+      stmt.execute("create table SURVEY (ID int primary key, NAME varchar(30), NAME2 varchar(30))");
+      PostgreSQLCopyClause copy = new PostgreSQLCopyClause(connection, configuration, survey);
+      for (int i = 0; i < 5; i++) {
+        copy.set(survey.id, i).set(survey.name, "name" + i).addBatch();
+      }
+      assertThat(copy.execute()).isEqualTo(5);
+      assertThat(
+              new SQLQuery<Void>(connection, configuration)
+                  .select(survey.name)
+                  .from(survey)
+                  .orderBy(survey.id.asc())
+                  .fetch())
+          .containsExactly("name0", "name1", "name2", "name3", "name4");
+
+      stmt.execute("drop table SURVEY");
+    }
+  }
+
+  private static String read(Reader reader, int bufferSize) throws IOException {
+    StringBuilder rv = new StringBuilder();
+    char[] buffer = new char[bufferSize];
+    int count;
+    while ((count = reader.read(buffer)) != -1) {
+      rv.append(buffer, 0, count);
+    }
+    return rv.toString();
+  }
+}
@@ -59,6 +59,11 @@ public class PostgreSQLQueryFactoryTest {
     assertThat(queryFactory.update(QSurvey.survey)).isNotNull();
   }
 
+  @Test
+  public void copy() {
+    assertThat(queryFactory.copy(QSurvey.survey)).isNotNull();
+  }
+
   @Test
   public void merge() {
     assertThat(queryFactory.merge(QSurvey.survey)).isNotNull();
@@ -135,4 +135,33 @@ public class TypeTest implements InvocationHandler {
       assertThat(pair.getFirst()).isEqualTo(type.getValue(resultSet, 0)).as(type.toString());
     }
   }
+
+  @Test
+  public void primitives() throws SQLException {
+    for (PrimitiveLongType type : Arrays.asList(new LongType())) {
+      value = null;
+      assertThat(type.getLong(resultSet, 0)).isZero();
+      assertThat(resultSet.wasNull()).isTrue();
+      type.setLong(statement, 0, 5L);
+      assertThat(type.getLong(resultSet, 0)).isEqualTo(5L);
+      assertThat(resultSet.wasNull()).isFalse();
+    }
+    for (PrimitiveIntType type :
+        Arrays.asList(new IntegerType(), new ShortType(), new ByteType())) {
+      value = null;
+      assertThat(type.getInt(resultSet, 0)).isZero();
+      assertThat(resultSet.wasNull()).isTrue();
+      type.setInt(statement, 0, 5);
+      assertThat(type.getInt(resultSet, 0)).isEqualTo(5);
+      assertThat(resultSet.wasNull()).isFalse();
+    }
+    for (PrimitiveDoubleType type : Arrays.asList(new DoubleType(), new FloatType())) {
+      value = null;
+      assertThat(type.getDouble(resultSet, 0)).isZero();
+      assertThat(resultSet.wasNull()).isTrue();
+      type.setDouble(statement, 0, 1.5);
+      assertThat(type.getDouble(resultSet, 0)).isEqualTo(1.5);
+      assertThat(resultSet.wasNull()).isFalse();
+    }
+  }
 }
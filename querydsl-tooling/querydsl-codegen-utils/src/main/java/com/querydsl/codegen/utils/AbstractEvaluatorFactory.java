@@ -18,23 +18,52 @@ import com.querydsl.codegen.utils.model.Parameter;
 import com.querydsl.codegen.utils.model.SimpleType;
 import com.querydsl.codegen.utils.model.Type;
 import com.querydsl.codegen.utils.model.TypeCategory;
+import com.querydsl.codegen.utils.model.Types;
 import com.querydsl.codegen.utils.support.ClassUtils;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
 
 /**
  * @author tiwe
  */
 public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
 
-  private final Map<String, Method> cache = new WeakHashMap<String, Method>();
+  /** Default maximum amount of cached eval methods */
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  /** Upper bounds of the compile time histogram buckets in milliseconds */
+  private static final long[] COMPILE_TIME_BUCKETS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+  private final EvaluatorCache<MethodEvaluator.Invoker> cache;
+
+  private final AtomicLongArray compileTimes = new AtomicLongArray(COMPILE_TIME_BUCKETS.length + 1);
+
+  private final AtomicLong compilations = new AtomicLong();
+
+  private final AtomicLong compileTimeNanos = new AtomicLong();
 
   protected ClassLoader loader;
 
+  protected AbstractEvaluatorFactory() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize maximum amount of cached eval methods
+   */
+  protected AbstractEvaluatorFactory(int cacheSize) {
+    this.cache = new EvaluatorCache<>(cacheSize);
+  }
+
   /**
    * @param source
    * @param projection
@@ -75,7 +104,7 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
     StringWriter writer = new StringWriter();
     JavaWriter javaw = new JavaWriter(writer);
     SimpleType idType = new SimpleType(id, "", id);
-    javaw.beginClass(idType, null);
+    javaw.beginClass(idType, null, new ClassType(Function.class, Types.OBJECTS, Types.OBJECT));
     Parameter[] params = new Parameter[names.length + constants.size()];
     for (int i = 0; i < names.length; i++) {
       params[i] = new Parameter(names[i], types[i]);
@@ -90,6 +119,22 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
     javaw.beginStaticMethod(projectionType, "eval", params);
     javaw.append(source);
     javaw.end();
+
+    // entry point for invocation without reflection, see MethodEvaluator
+    StringBuilder args = new StringBuilder();
+    for (int j = 0; j < params.length; j++) {
+      Type type = params[j].getType();
+      if (type.isPrimitive()) {
+        type = new ClassType(MethodType.methodType(type.getJavaClass()).wrap().returnType());
+      }
+      if (j > 0) {
+        args.append(", ");
+      }
+      args.append("(").append(javaw.getRawName(type)).append(") args[").append(j).append("]");
+    }
+    javaw.beginPublicMethod(Types.OBJECT, "apply", new Parameter("args", Types.OBJECTS));
+    javaw.line("return eval(", args.toString(), ");");
+    javaw.end();
     javaw.end();
     return writer.toString();
   }
@@ -127,7 +172,7 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
    */
   @SuppressWarnings("unchecked")
   @Override
-  public synchronized <T> Evaluator<T> createEvaluator(
+  public <T> Evaluator<T> createEvaluator(
       String source,
       ClassType projection,
       String[] names,
@@ -136,22 +181,11 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
       Map<String, Object> constants) {
     try {
       final String id = toId(source, projection.getJavaClass(), types, constants.values());
-      Method method = cache.get(id);
-
-      if (method == null) {
-        Class<?> clazz;
-        try {
-          clazz = loader.loadClass(id);
-        } catch (ClassNotFoundException e) {
-          compile(source, projection, names, types, id, constants);
-          // reload
-          clazz = loader.loadClass(id);
-        }
-        method = findEvalMethod(clazz);
-        cache.put(id, method);
-      }
-
-      return new MethodEvaluator<T>(method, constants, (Class) projection.getJavaClass());
+      MethodEvaluator.Invoker invoker =
+          cache.get(
+              toKey(source, projection.getJavaClass(), types, constants.values()),
+              () -> loadEvalMethod(source, projection, names, types, id, constants));
+      return new MethodEvaluator<T>(invoker, constants, (Class) projection.getJavaClass());
     } catch (ClassNotFoundException e) {
       throw new CodegenException(e);
     } catch (SecurityException e) {
@@ -161,6 +195,110 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
     }
   }
 
+  private MethodEvaluator.Invoker loadEvalMethod(
+      String source,
+      ClassType projection,
+      String[] names,
+      Type[] types,
+      String id,
+      Map<String, Object> constants)
+      throws IOException, ClassNotFoundException {
+    Class<?> clazz;
+    try {
+      clazz = loader.loadClass(id);
+    } catch (ClassNotFoundException e) {
+      long start = System.nanoTime();
+      compile(source, projection, names, types, id, constants);
+      clazz = defineClass(id);
+      recordCompilation(System.nanoTime() - start);
+    }
+    return MethodEvaluator.bind(findEvalMethod(clazz));
+  }
+
+  /**
+   * Define the compiled class in its own class loader, so that it can be unloaded after it has been
+   * evicted from the cache
+   */
+  private Class<?> defineClass(String id) throws ClassNotFoundException {
+    if (loader instanceof MemClassLoader) {
+      Map<String, byte[]> classes = ((MemClassLoader) loader).removeClasses(id);
+      if (classes.containsKey(id)) {
+        return new EvalClassLoader(loader, classes).loadClass(id);
+      }
+    }
+    return loader.loadClass(id);
+  }
+
+  /** Remove all cached eval methods */
+  public void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Get the amount of cached eval methods
+   *
+   * @return cache size
+   */
+  public int getCacheSize() {
+    return cache.size();
+  }
+
+  /**
+   * Get the maximum amount of cached eval methods
+   *
+   * @return maximum cache size
+   */
+  public int getMaxCacheSize() {
+    return cache.getMaxSize();
+  }
+
+  private void recordCompilation(long nanos) {
+    compilations.incrementAndGet();
+    compileTimeNanos.addAndGet(nanos);
+    long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+    int bucket = 0;
+    while (bucket < COMPILE_TIME_BUCKETS.length && millis >= COMPILE_TIME_BUCKETS[bucket]) {
+      bucket++;
+    }
+    compileTimes.incrementAndGet(bucket);
+  }
+
+  /**
+   * Get the amount of classes compiled by this factory
+   *
+   * @return compilation count
+   */
+  public long getCompilationCount() {
+    return compilations.get();
+  }
+
+  /**
+   * Get the total time spent compiling classes
+   *
+   * @return compile time in milliseconds
+   */
+  public long getCompileTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(compileTimeNanos.get());
+  }
+
+  /**
+   * Get the histogram of the compile times
+   *
+   * <p>The keys are the exclusive upper bounds of the buckets in milliseconds in ascending order,
+   * the last bucket has the upper bound {@link Long#MAX_VALUE}. The values are the amounts of
+   * compilations in the buckets.
+   *
+   * @return compile time histogram
+   */
+  public Map<Long, Long> getCompileTimeHistogram() {
+    Map<Long, Long> histogram = new LinkedHashMap<>();
+    for (int i = 0; i < compileTimes.length(); i++) {
+      long bound = i < COMPILE_TIME_BUCKETS.length ? COMPILE_TIME_BUCKETS[i] : Long.MAX_VALUE;
+      histogram.put(bound, compileTimes.get(i));
+    }
+    return histogram;
+  }
+
   protected Method findEvalMethod(Class<?> clazz) {
     /*
      * Note 1:
@@ -191,8 +329,46 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
       b.append("_").append(type.getFullName().hashCode());
     }
     for (Object constant : constants) {
-      b.append("_").append(constant.getClass().getName().hashCode());
+      b.append("_").append(ClassUtils.normalize(constant.getClass()).getName().hashCode());
     }
     return b.toString().replace('-', '0');
   }
+
+  /**
+   * Get the cache key of the given eval method, which consists of the full source and the
+   * normalized types, since the constants are passed as arguments of the eval method
+   */
+  private static String toKey(
+      String source, Class<?> returnType, Type[] types, Collection<Object> constants) {
+    StringBuilder b = new StringBuilder(source.length() + 128);
+    b.append(returnType.getName());
+    for (Type type : types) {
+      b.append(',').append(type.getFullName());
+    }
+    for (Object constant : constants) {
+      b.append(',').append(ClassUtils.normalize(constant.getClass()).getName());
+    }
+    return b.append('\n').append(source).toString();
+  }
+
+  /** Class loader for a single generated class and its nested classes */
+  private static final class EvalClassLoader extends ClassLoader {
+
+    private final Map<String, byte[]> classes;
+
+    EvalClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+      super(parent);
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = classes.remove(name);
+      if (bytes != null) {
+        return defineClass(name, bytes, 0, bytes.length);
+      } else {
+        throw new ClassNotFoundException(name);
+      }
+    }
+  }
 }
@@ -53,8 +53,6 @@ public class ECJEvaluatorFactory extends AbstractEvaluatorFactory {
 
   private final ClassLoader parentClassLoader;
 
-  private final List<String> problemList = new ArrayList<>();
-
   private final CompilerOptions compilerOptions;
 
   public static CompilerOptions getDefaultCompilerOptions() {
@@ -250,6 +248,7 @@ public class ECJEvaluatorFactory extends AbstractEvaluatorFactory {
           }
         };
 
+    final List<String> problemList = new ArrayList<>();
     ICompilerRequestor requestor =
         new ICompilerRequestor() {
 
@@ -281,8 +280,6 @@ public class ECJEvaluatorFactory extends AbstractEvaluatorFactory {
           }
         };
 
-    problemList.clear();
-
     IErrorHandlingPolicy policy = DefaultErrorHandlingPolicies.exitAfterAllProblems();
     IProblemFactory problemFactory = new DefaultProblemFactory(Locale.getDefault());
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.codegen.utils;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code EvaluatorCache} is a bounded concurrent cache of compiled evaluator classes
+ *
+ * <p>Each key is loaded at most once at a time: concurrent requests for the same key wait for and
+ * share the result of the first request, while requests for other keys proceed in parallel. Failed
+ * loads are not cached. When the cache exceeds its maximum size the least recently used entries are
+ * removed, which allows their classes to be unloaded once no evaluator refers to them.
+ *
+ * @param <V> value type
+ */
+final class EvaluatorCache<V> {
+
+  /** Loader of uncached values */
+  @FunctionalInterface
+  interface Loader<V> {
+
+    V load() throws IOException, ClassNotFoundException;
+  }
+
+  private static final class Entry<V> {
+
+    private final FutureTask<V> task;
+
+    private volatile long lastAccess;
+
+    Entry(FutureTask<V> task, long lastAccess) {
+      this.task = task;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  private final ConcurrentMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final int maxSize;
+
+  EvaluatorCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize needs to be positive, but was " + maxSize);
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get the cached value for the given key or load it
+   *
+   * @param key cache key
+   * @param loader loader of the value
+   * @return value
+   * @throws IOException if the loader failed
+   * @throws ClassNotFoundException if the loader failed
+   */
+  V get(String key, Loader<V> loader) throws IOException, ClassNotFoundException {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      Entry<V> created = new Entry<>(new FutureTask<>(loader::load), clock.incrementAndGet());
+      entry = entries.putIfAbsent(key, created);
+      if (entry == null) {
+        entry = created;
+        created.task.run();
+        evict();
+      }
+    }
+    entry.lastAccess = clock.incrementAndGet();
+    try {
+      return entry.task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CodegenException(e);
+    } catch (ExecutionException e) {
+      entries.remove(key, entry);
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof ClassNotFoundException) {
+        throw (ClassNotFoundException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new CodegenException(cause);
+      }
+    }
+  }
+
+  private void evict() {
+    while (entries.size() > maxSize) {
+      String eldestKey = null;
+      Entry<V> eldest = null;
+      for (Map.Entry<String, Entry<V>> candidate : entries.entrySet()) {
+        Entry<V> value = candidate.getValue();
+        if (value.task.isDone() && (eldest == null || value.lastAccess < eldest.lastAccess)) {
+          eldestKey = candidate.getKey();
+          eldest = value;
+        }
+      }
+      if (eldest == null) {
+        // only loads in progress
+        return;
+      }
+      entries.remove(eldestKey, eldest);
+    }
+  }
+
+  /** Remove all cached values */
+  void clear() {
+    for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+      if (it.next().task.isDone()) {
+        it.remove();
+      }
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+}
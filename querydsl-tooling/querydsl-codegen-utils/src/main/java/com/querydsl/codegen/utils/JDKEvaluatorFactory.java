@@ -72,15 +72,20 @@ public class JDKEvaluatorFactory extends AbstractEvaluatorFactory {
     SimpleJavaFileObject javaFileObject = new MemSourceFileObject(id, source);
     Writer out = new StringWriter();
 
-    CompilationTask task =
-        compiler.getTask(
-            out,
-            fileManager,
-            null,
-            compilationOptions,
-            null,
-            Collections.singletonList(javaFileObject));
-    if (!task.call().booleanValue()) {
+    // the standard file manager doesn't support concurrent compilations
+    boolean success;
+    synchronized (fileManager) {
+      CompilationTask task =
+          compiler.getTask(
+              out,
+              fileManager,
+              null,
+              compilationOptions,
+              null,
+              Collections.singletonList(javaFileObject));
+      success = task.call().booleanValue();
+    }
+    if (!success) {
       throw new CodegenException("Compilation of " + source + " failed.\n" + out.toString());
     }
   }
@@ -20,6 +20,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.tools.JavaFileObject;
@@ -61,6 +63,28 @@ public final class MemClassLoader extends ClassLoader {
     }
   }
 
+  /**
+   * Remove the compiled class with the given name and its nested classes from the memory file
+   * system
+   *
+   * @param name binary name of the class
+   * @return class bytes by binary name
+   */
+  Map<String, byte[]> removeClasses(String name) {
+    Map<String, byte[]> classes = new HashMap<String, byte[]>();
+    Map<String, JavaFileObject> files = memFileSystem.get(CLASS_KEY);
+    for (Iterator<Map.Entry<String, JavaFileObject>> it = files.entrySet().iterator();
+        it.hasNext(); ) {
+      Map.Entry<String, JavaFileObject> entry = it.next();
+      String key = entry.getKey();
+      if (key.equals(name) || key.startsWith(name + "$")) {
+        classes.put(key, ((MemJavaFileObject) entry.getValue()).getByteArray());
+        it.remove();
+      }
+    }
+    return classes;
+  }
+
   @Override
   protected URL findResource(String name) {
     URL retValue = super.findResource(name);
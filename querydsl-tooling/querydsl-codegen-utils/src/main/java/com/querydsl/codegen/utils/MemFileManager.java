@@ -15,10 +15,10 @@ package com.querydsl.codegen.utils;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.tools.FileObject;
 import javax.tools.ForwardingJavaFileManager;
 import javax.tools.JavaFileManager;
@@ -42,8 +42,9 @@ public class MemFileManager extends ForwardingJavaFileManager<JavaFileManager> {
 
   public MemFileManager(ClassLoader parent, StandardJavaFileManager sjfm) {
     super(sjfm);
-    ramFileSystem = new HashMap<LocationAndKind, Map<String, JavaFileObject>>();
-    Map<String, JavaFileObject> classLoaderContent = new HashMap<String, JavaFileObject>();
+    ramFileSystem = new ConcurrentHashMap<LocationAndKind, Map<String, JavaFileObject>>();
+    Map<String, JavaFileObject> classLoaderContent =
+        new ConcurrentHashMap<String, JavaFileObject>();
     ramFileSystem.put(
         new LocationAndKind(StandardLocation.CLASS_OUTPUT, Kind.CLASS), classLoaderContent);
     classLoader = new MemClassLoader(parent, ramFileSystem);
@@ -159,9 +160,8 @@ public class MemFileManager extends ForwardingJavaFileManager<JavaFileManager> {
   }
 
   private void register(LocationAndKind key, JavaFileObject javaFileObject) {
-    if (!ramFileSystem.containsKey(key)) {
-      ramFileSystem.put(key, new HashMap<String, JavaFileObject>());
-    }
-    ramFileSystem.get(key).put(javaFileObject.getName(), javaFileObject);
+    ramFileSystem
+        .computeIfAbsent(key, k -> new ConcurrentHashMap<String, JavaFileObject>())
+        .put(javaFileObject.getName(), javaFileObject);
   }
 }
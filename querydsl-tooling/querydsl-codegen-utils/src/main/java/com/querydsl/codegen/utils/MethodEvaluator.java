@@ -13,41 +13,117 @@
  */
 package com.querydsl.codegen.utils;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
+ * {@code MethodEvaluator} evaluates a generated static eval method
+ *
+ * <p>Generated classes implement {@link Function} by delegating to the eval method, so that the JIT
+ * can inline the evaluated code into the calling loop. Eval methods of other classes are invoked
+ * through a spreading {@link MethodHandle}.
+ *
  * @author tiwe
  * @param <T>
  */
 public final class MethodEvaluator<T> implements Evaluator<T> {
 
-  private final Method method;
+  private static final MethodType INVOKER_TYPE =
+      MethodType.methodType(Object.class, Object[].class);
+
+  /** Eval method bound to a function */
+  static final class Invoker {
+
+    private final Function<Object[], Object> function;
+
+    private final int parameterCount;
+
+    Invoker(Function<Object[], Object> function, int parameterCount) {
+      this.function = function;
+      this.parameterCount = parameterCount;
+    }
+  }
+
+  /**
+   * Bind the given eval method
+   *
+   * @param method eval method
+   * @return invoker
+   */
+  @SuppressWarnings("unchecked")
+  static Invoker bind(Method method) {
+    Class<?> clazz = method.getDeclaringClass();
+    int parameterCount = method.getParameterCount();
+    if (Function.class.isAssignableFrom(clazz)) {
+      try {
+        return new Invoker(
+            (Function<Object[], Object>) clazz.getConstructor().newInstance(), parameterCount);
+      } catch (ReflectiveOperationException e) {
+        // fall back to the eval method
+      }
+    }
+    return new Invoker(spread(method), parameterCount);
+  }
+
+  private static Function<Object[], Object> spread(Method method) {
+    try {
+      method.setAccessible(true);
+      MethodHandle handle =
+          MethodHandles.lookup()
+              .unreflect(method)
+              .asSpreader(Object[].class, method.getParameterCount())
+              .asType(INVOKER_TYPE);
+      return args -> {
+        try {
+          return (Object) handle.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      };
+    } catch (IllegalAccessException e) {
+      throw new CodegenException(e);
+    }
+  }
+
+  private final Function<Object[], Object> function;
 
   private final Class<? extends T> projectionType;
 
-  private final Object[] args;
+  private final int parameterCount;
+
+  private final Object[] constants;
 
   MethodEvaluator(Method method, Map<String, Object> constants, Class<? extends T> projectionType) {
-    this.method = method;
+    this(bind(method), constants, projectionType);
+  }
+
+  MethodEvaluator(
+      Invoker invoker, Map<String, Object> constants, Class<? extends T> projectionType) {
+    this.function = invoker.function;
+    this.parameterCount = invoker.parameterCount;
     this.projectionType = projectionType;
-    this.args = new Object[method.getParameterTypes().length];
-    int i = args.length - constants.size();
-    for (Object value : constants.values()) {
-      args[i++] = value;
-    }
+    this.constants = constants.values().toArray();
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public T evaluate(Object... args) {
+    Object[] values = args;
+    if (args.length != parameterCount) {
+      // arguments are copied, since evaluators can be shared between threads
+      values = new Object[parameterCount];
+      System.arraycopy(args, 0, values, 0, args.length);
+      System.arraycopy(constants, 0, values, parameterCount - constants.length, constants.length);
+    }
     try {
-      System.arraycopy(args, 0, this.args, 0, args.length);
-      return (T) method.invoke(null, this.args);
-    } catch (IllegalAccessException e) {
-      throw new IllegalArgumentException(e);
-    } catch (InvocationTargetException e) {
+      return (T) function.apply(values);
+    } catch (RuntimeException e) {
       throw new IllegalArgumentException(e);
     }
   }
@@ -8,6 +8,7 @@ package com.querydsl.codegen.utils;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -75,6 +76,56 @@ public class ECJEvaluatorFactoryTest {
     }
   }
 
+  @Test
+  public void Cache() {
+    AbstractEvaluatorFactory evaluatorFactory = (AbstractEvaluatorFactory) factory;
+    Object first =
+        evaluate(
+            "new Object() { }.getClass().getEnclosingClass()",
+            Class.class,
+            names,
+            strings,
+            Arrays.asList("a", "b"),
+            Collections.<String, Object>emptyMap());
+    Object second =
+        evaluate(
+            "new Object() { }.getClass().getEnclosingClass()",
+            Class.class,
+            names,
+            strings,
+            Arrays.asList("a", "b"),
+            Collections.<String, Object>emptyMap());
+    assertThat(second).isSameAs(first);
+    assertThat(evaluatorFactory.getCacheSize()).isEqualTo(1);
+    // generated classes are not pinned by the shared class loader
+    assertThat(((Class<?>) first).getClassLoader()).isNotSameAs(evaluatorFactory.loader);
+
+    evaluatorFactory.clearCache();
+    assertThat(evaluatorFactory.getCacheSize()).isZero();
+  }
+
+  @Test
+  public void Statistics() {
+    AbstractEvaluatorFactory evaluatorFactory = (AbstractEvaluatorFactory) factory;
+    Map<String, Object> constants = new HashMap<>();
+    constants.put("c", new ArrayList<>(Arrays.asList("a")));
+    assertThat(
+            evaluate(
+                "c.contains(a)", Boolean.class, names, strings, Arrays.asList("a", "b"), constants))
+        .isEqualTo(true);
+    // constants of different implementation types share the compiled class
+    constants.put("c", Collections.singletonList("b"));
+    assertThat(
+            evaluate(
+                "c.contains(a)", Boolean.class, names, strings, Arrays.asList("a", "b"), constants))
+        .isEqualTo(false);
+    assertThat(evaluatorFactory.getCompilationCount()).isEqualTo(1);
+    assertThat(evaluatorFactory.getCacheSize()).isEqualTo(1);
+    assertThat(evaluatorFactory.getCompileTimeHistogram()).containsKey(Long.MAX_VALUE);
+    assertThat(evaluatorFactory.getCompileTimeHistogram().values().stream().mapToLong(l -> l).sum())
+        .isEqualTo(1);
+  }
+
   @Test
   public void Results() {
     // String + String
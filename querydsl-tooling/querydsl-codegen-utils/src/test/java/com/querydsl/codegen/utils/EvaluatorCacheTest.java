@@ -0,0 +1,130 @@
+package com.querydsl.codegen.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class EvaluatorCacheTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  private static Method method(String name) {
+    try {
+      return String.class.getMethod(name);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void await(CountDownLatch latch, long millis) {
+    try {
+      latch.await(millis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void same_key_is_loaded_once() throws Exception {
+    EvaluatorCache<Method> cache = new EvaluatorCache<>(10);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Method>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return cache.get(
+                    "key",
+                    () -> {
+                      loads.incrementAndGet();
+                      await(new CountDownLatch(1), 50);
+                      return method("length");
+                    });
+              }));
+    }
+    start.countDown();
+    for (Future<Method> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(method("length"));
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void other_keys_are_not_blocked() throws Exception {
+    EvaluatorCache<Method> cache = new EvaluatorCache<>(10);
+    CountDownLatch slowStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<Method> slow =
+        executor.submit(
+            () ->
+                cache.get(
+                    "slow",
+                    () -> {
+                      slowStarted.countDown();
+                      await(release, 5000);
+                      return method("length");
+                    }));
+    slowStarted.await();
+    Future<Method> fast = executor.submit(() -> cache.get("fast", () -> method("isEmpty")));
+    assertThat(fast.get(5, TimeUnit.SECONDS)).isEqualTo(method("isEmpty"));
+    assertThat(slow.isDone()).isFalse();
+    release.countDown();
+    assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(method("length"));
+  }
+
+  @Test
+  public void failures_are_not_cached() throws Exception {
+    EvaluatorCache<Method> cache = new EvaluatorCache<>(10);
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    "key",
+                    () -> {
+                      throw new IOException("failed");
+                    }))
+        .isInstanceOf(IOException.class);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get("key", () -> method("length"))).isEqualTo(method("length"));
+  }
+
+  @Test
+  public void least_recently_used_entries_are_evicted() throws Exception {
+    EvaluatorCache<Method> cache = new EvaluatorCache<>(2);
+    AtomicInteger loads = new AtomicInteger();
+    EvaluatorCache.Loader<Method> loader =
+        () -> {
+          loads.incrementAndGet();
+          return method("length");
+        };
+    cache.get("a", loader);
+    cache.get("b", loader);
+    cache.get("a", loader);
+    cache.get("c", loader);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(3);
+
+    // b was evicted
+    cache.get("a", loader);
+    cache.get("b", loader);
+    assertThat(loads.get()).isEqualTo(4);
+  }
+}
@@ -76,6 +76,34 @@ public class JDKEvaluatorFactoryTest {
     }
   }
 
+  @Test
+  public void Cache() {
+    AbstractEvaluatorFactory evaluatorFactory = (AbstractEvaluatorFactory) factory;
+    Object first =
+        evaluate(
+            "new Object() { }.getClass().getEnclosingClass()",
+            Class.class,
+            names,
+            strings,
+            Arrays.asList("a", "b"),
+            Collections.<String, Object>emptyMap());
+    Object second =
+        evaluate(
+            "new Object() { }.getClass().getEnclosingClass()",
+            Class.class,
+            names,
+            strings,
+            Arrays.asList("a", "b"),
+            Collections.<String, Object>emptyMap());
+    assertThat(second).isSameAs(first);
+    assertThat(evaluatorFactory.getCacheSize()).isEqualTo(1);
+    // generated classes are not pinned by the shared class loader
+    assertThat(((Class<?>) first).getClassLoader()).isNotSameAs(evaluatorFactory.loader);
+
+    evaluatorFactory.clearCache();
+    assertThat(evaluatorFactory.getCacheSize()).isZero();
+  }
+
   @Test
   public void Results() {
     // String + String
@@ -0,0 +1,72 @@
+package com.querydsl.codegen.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class MethodEvaluatorTest {
+
+  public static class WithFunction implements Function<Object[], Object> {
+
+    public static String eval(String a, int b, String c) {
+      return a + b + c;
+    }
+
+    @Override
+    public Object apply(Object[] args) {
+      return eval((String) args[0], (Integer) args[1], (String) args[2]);
+    }
+  }
+
+  public static class WithoutFunction {
+
+    public static int eval(int a, int b) {
+      return a / b;
+    }
+  }
+
+  @Test
+  public void function() throws NoSuchMethodException {
+    Map<String, Object> constants = new LinkedHashMap<>();
+    constants.put("c", "!");
+    MethodEvaluator<String> evaluator =
+        new MethodEvaluator<>(
+            WithFunction.class.getMethod("eval", String.class, int.class, String.class),
+            constants,
+            String.class);
+    assertThat(evaluator.evaluate("a", 1)).isEqualTo("a1!");
+    assertThat(evaluator.evaluate("b", 2)).isEqualTo("b2!");
+  }
+
+  @Test
+  public void without_function() throws NoSuchMethodException {
+    MethodEvaluator<Integer> evaluator =
+        new MethodEvaluator<>(
+            WithoutFunction.class.getMethod("eval", int.class, int.class),
+            Collections.<String, Object>emptyMap(),
+            Integer.class);
+    assertThat(evaluator.evaluate(6, 3)).isEqualTo(2);
+    assertThatThrownBy(() -> evaluator.evaluate(1, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasCauseInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void generated_function() {
+    EvaluatorFactory factory = new ECJEvaluatorFactory(getClass().getClassLoader());
+    Evaluator<Class> evaluator =
+        factory.createEvaluator(
+            "return new Object() { }.getClass().getEnclosingClass();",
+            Class.class,
+            new String[] {"a", "b"},
+            new Class<?>[] {int.class, String.class},
+            Collections.<String, Object>singletonMap("c", 1L));
+    Class<?> generated = evaluator.evaluate(1, "b");
+    assertThat(Function.class).isAssignableFrom(generated);
+  }
+}